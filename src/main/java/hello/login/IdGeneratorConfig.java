@@ -0,0 +1,27 @@
+package hello.login;
+
+import hello.login.web.id.IdGenerator;
+import hello.login.web.id.RandomIdGenerator;
+import hello.login.web.id.SequentialIdGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * ID 생성기
+ * sessionIdGenerator : 세션 ID (SessionManager), 추측할 수 없어야 하므로 session.id.entropy-bits 비트의 난수
+ * requestIdGenerator : 로그 구분용 요청 ID (LogFilter, LogInterceptor), 시간 순서 카운터
+ */
+@Configuration
+public class IdGeneratorConfig {
+
+    @Bean
+    public IdGenerator sessionIdGenerator(@Value("${session.id.entropy-bits:128}") int entropyBits) {
+        return new RandomIdGenerator(entropyBits);
+    }
+
+    @Bean
+    public IdGenerator requestIdGenerator() {
+        return new SequentialIdGenerator();
+    }
+}
@@ -0,0 +1,31 @@
+package hello.login;
+
+import hello.login.domain.item.ItemJournal;
+import hello.login.domain.item.ItemRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/**
+ * 상품 쓰기 로그 등록
+ * item.journal.enabled=true 인 경우에만 등록되며, 시작할 때 저장소를 복구한다.
+ */
+@Configuration
+@ConditionalOnProperty(name = "item.journal.enabled", havingValue = "true")
+public class ItemJournalConfig {
+
+    @Bean(destroyMethod = "close")
+    public ItemJournal itemJournal(ItemRepository itemRepository,
+                                   @Value("${item.journal.dir:./data/items}") String dir,
+                                   @Value("${item.journal.segment-size:67108864}") int segmentSize,
+                                   @Value("${item.journal.sync:true}") boolean sync,
+                                   @Value("${item.journal.snapshot-interval-seconds:300}") long snapshotIntervalSeconds) throws IOException {
+        ItemJournal itemJournal = new ItemJournal(Paths.get(dir), segmentSize, sync, snapshotIntervalSeconds);
+        itemJournal.open(itemRepository);
+        return itemJournal;
+    }
+}
@@ -0,0 +1,48 @@
+package hello.login;
+
+import hello.login.web.session.HttpSessionLoginStrategy;
+import hello.login.web.session.LoginSessionStrategy;
+import hello.login.web.session.LoginTokenCodec;
+import hello.login.web.session.RequestScopedLoginStrategy;
+import hello.login.web.session.TokenLoginStrategy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 로그인 상태 보관 방식 선택
+ * session.mode : http-session (기본), token (서명된 쿠키, 서버 저장소 없음)
+ * 어느 방식이든 RequestScopedLoginStrategy 로 감싸서 한 요청에서는 로그인 회원을 한 번만 조회한다.
+ */
+@Slf4j
+@Configuration
+public class LoginSessionConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "session.mode", havingValue = "http-session", matchIfMissing = true)
+    public LoginSessionStrategy httpSessionLoginStrategy() {
+        return new RequestScopedLoginStrategy(new HttpSessionLoginStrategy());
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "session.mode", havingValue = "token")
+    public LoginSessionStrategy tokenLoginStrategy(@Value("${session.token.keys:}") String keys,
+                                                   @Value("${session.token.encrypt:false}") boolean encrypt,
+                                                   @Value("${session.token.secure-cookie:false}") boolean secureCookie,
+                                                   @Value("${server.servlet.session.timeout:30m}") Duration idleTimeout,
+                                                   @Value("${session.absolute-timeout:12h}") Duration absoluteTimeout) {
+        List<LoginTokenCodec.Key> signingKeys = LoginTokenCodec.parseKeys(keys);
+        if (signingKeys.isEmpty()) {
+            // 서버가 여러 대거나 재시작해도 로그인을 유지하려면 키를 설정해야 한다.
+            log.warn("session.token.keys is empty: using a random key, tokens are invalid after restart");
+            signingKeys = List.of(LoginTokenCodec.randomKey());
+        }
+        return new RequestScopedLoginStrategy(
+                new TokenLoginStrategy(new LoginTokenCodec(signingKeys, encrypt), idleTimeout, absoluteTimeout, secureCookie));
+    }
+}
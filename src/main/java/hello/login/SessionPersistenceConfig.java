@@ -0,0 +1,31 @@
+package hello.login;
+
+import hello.login.web.session.SessionSnapshotFile;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Duration;
+
+/**
+ * 세션 저장 파일 등록 (재시작해도 로그인 유지)
+ * session.persistence.enabled=true 인 경우에만 등록된다.
+ * SessionManager 세션과 HttpSession 의 로그인 회원을 같은 파일에 기록한다. (HttpSession 연결은 SessionRestoreConfig)
+ */
+@Configuration
+@ConditionalOnProperty(name = "session.persistence.enabled", havingValue = "true")
+public class SessionPersistenceConfig {
+
+    @Bean(destroyMethod = "close")
+    public SessionSnapshotFile sessionSnapshotFile(@Value("${session.persistence.file:./data/sessions/sessions.dat}") String file,
+                                                   @Value("${session.persistence.capacity:131072}") int capacity,
+                                                   @Value("${server.servlet.session.timeout:30m}") Duration idleTimeout,
+                                                   @Value("${session.absolute-timeout:12h}") Duration absoluteTimeout) throws IOException {
+        SessionSnapshotFile snapshots = new SessionSnapshotFile(Paths.get(file), capacity, idleTimeout, absoluteTimeout);
+        snapshots.open();
+        return snapshots;
+    }
+}
@@ -0,0 +1,60 @@
+package hello.login;
+
+import hello.login.web.session.SessionSnapshotFile;
+import hello.login.web.session.replication.SessionReplicator;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * 서버 간 로그인 세션 복제 등록
+ * session.replication.enabled=true 인 경우에만 등록된다.
+ * 모든 서버가 같은 secret 을 사용하고, 서로를 peers 로 설정한다. (받은 변경은 다시 전달하지 않음)
+ */
+@Configuration
+@ConditionalOnProperty(name = "session.replication.enabled", havingValue = "true")
+public class SessionReplicationConfig {
+
+    /**
+     * 세션 저장 파일도 사용하면 파일을 포함해서 SessionManager, HttpSessionSnapshotListener 의 보조 저장소가 된다. (@Primary)
+     */
+    @Bean(destroyMethod = "close")
+    @Primary
+    public SessionReplicator sessionReplicator(@Value("${session.replication.port:7070}") int port,
+                                               @Value("${session.replication.bind-address:}") String bindAddress,
+                                               @Value("${session.replication.peers:}") String peers,
+                                               @Value("${session.replication.secret:}") String secret,
+                                               @Value("${session.replication.consistency:async}") String consistency,
+                                               @Value("${session.replication.ack-timeout:1s}") Duration ackTimeout,
+                                               @Value("${session.replication.touch-interval:1s}") Duration touchInterval,
+                                               @Value("${session.replication.max-pending:100000}") int maxPending,
+                                               @Value("${session.replication.max-replicas:1000000}") int maxReplicas,
+                                               @Value("${server.servlet.session.timeout:30m}") Duration idleTimeout,
+                                               @Value("${session.absolute-timeout:12h}") Duration absoluteTimeout,
+                                               ObjectProvider<SessionSnapshotFile> sessionSnapshotFile) throws IOException {
+        if (secret.isBlank()) {
+            throw new IllegalStateException("session.replication.secret is required");
+        }
+        SessionReplicator replicator = new SessionReplicator(port, bindAddress.isBlank() ? null : InetAddress.getByName(bindAddress.trim()), secret.getBytes(StandardCharsets.UTF_8),
+                SessionReplicator.Consistency.parse(consistency), ackTimeout, touchInterval, maxPending, maxReplicas,
+                idleTimeout, absoluteTimeout, sessionSnapshotFile.getIfAvailable());
+        for (String peer : peers.split(",")) {
+            String address = peer.trim();
+            if (!address.isEmpty()) {
+                int colon = address.lastIndexOf(':');
+                replicator.addPeer(InetSocketAddress.createUnresolved(address.substring(0, colon), Integer.parseInt(address.substring(colon + 1))));
+            }
+        }
+        replicator.start();
+        return replicator;
+    }
+}
@@ -0,0 +1,44 @@
+package hello.login;
+
+import hello.login.web.filter.SessionRestoreFilter;
+import hello.login.web.session.HttpSessionSnapshotListener;
+import hello.login.web.session.SessionBackup;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.servlet.Filter;
+import java.time.Duration;
+
+/**
+ * HttpSession 로그인 회원을 보조 저장소(SessionBackup)와 연결
+ * 세션 저장 파일(session.persistence.enabled) 또는 세션 복제(session.replication.enabled)를 사용하는 경우에만 등록된다.
+ */
+@Configuration
+@ConditionalOnExpression("${session.persistence.enabled:false} or ${session.replication.enabled:false}")
+public class SessionRestoreConfig {
+
+    /**
+     * HttpSessionListener 를 구현한 빈은 스프링 부트가 서블릿 컨테이너에 리스너로 등록한다.
+     * 보조 저장소가 둘이면(파일과 복제) 파일을 포함하는 SessionReplicator(@Primary)를 사용한다.
+     */
+    @Bean
+    public HttpSessionSnapshotListener httpSessionSnapshotListener(SessionBackup sessionBackup,
+                                                                   @Value("${session.expiry-tick:1s}") Duration touchInterval) {
+        return new HttpSessionSnapshotListener(sessionBackup, touchInterval);
+    }
+
+    /**
+     * 로그 필터(1), 로그인 체크 필터(2)보다 먼저 실행
+     */
+    @Bean
+    public FilterRegistrationBean<Filter> sessionRestoreFilter(HttpSessionSnapshotListener httpSessionSnapshotListener) {
+        FilterRegistrationBean<Filter> filterRegistrationBean = new FilterRegistrationBean<>();
+        filterRegistrationBean.setFilter(new SessionRestoreFilter(httpSessionSnapshotListener));
+        filterRegistrationBean.setOrder(0);
+        filterRegistrationBean.addUrlPatterns("/*");
+        return filterRegistrationBean;
+    }
+}
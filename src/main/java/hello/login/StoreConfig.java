@@ -0,0 +1,56 @@
+package hello.login;
+
+import hello.login.domain.item.ColumnarItemStore;
+import hello.login.domain.item.ItemStore;
+import hello.login.domain.item.JdbcItemStore;
+import hello.login.domain.item.MemoryItemStore;
+import hello.login.domain.member.JdbcMemberStore;
+import hello.login.domain.member.MemberStore;
+import hello.login.domain.member.MemoryMemberStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * 저장소 백엔드 선택
+ * item.store : memory (기본), columnar, jdbc
+ * member.store : memory (기본, member.memory.shards 개 조각으로 나눠 보관), jdbc
+ * jdbc 는 spring.datasource 설정의 DB(기본 내장 H2)를 사용한다.
+ */
+@Configuration
+public class StoreConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "item.store", havingValue = "memory", matchIfMissing = true)
+    public ItemStore memoryItemStore() {
+        return new MemoryItemStore();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "item.store", havingValue = "columnar")
+    public ItemStore columnarItemStore(@Value("${item.columnar.expected-size:1024}") int expectedSize) {
+        return new ColumnarItemStore(expectedSize);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "item.store", havingValue = "jdbc")
+    public ItemStore jdbcItemStore(DataSource dataSource) {
+        return new JdbcItemStore(dataSource);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "member.store", havingValue = "memory", matchIfMissing = true)
+    public MemberStore memoryMemberStore(@Value("${member.memory.shards:0}") int shards) {
+        // 0 이면 CPU 코어 수
+        return new MemoryMemberStore(shards > 0 ? shards : Runtime.getRuntime().availableProcessors());
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "member.store", havingValue = "jdbc")
+    public MemberStore jdbcMemberStore(DataSource dataSource) {
+        return new JdbcMemberStore(dataSource);
+    }
+}
@@ -2,33 +2,41 @@ package hello.login;
 
 import hello.login.domain.item.Item;
 import hello.login.domain.item.ItemRepository;
+import hello.login.domain.login.LoginService;
 import hello.login.domain.member.Member;
 import hello.login.domain.member.MemberRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
-import javax.annotation.PostConstruct;
-
 @Component
 @RequiredArgsConstructor
 public class TestDataInit {
 
     private final ItemRepository itemRepository;
     private final MemberRepository memberRepository;
+    private final LoginService loginService;
 
     /**
      * 테스트용 데이터 추가
+     * 쓰기 로그로 복구된 상품이 있으면 상품은 추가하지 않는다. (복구가 끝난 뒤 실행되도록 ApplicationReadyEvent 사용)
      */
-    @PostConstruct
+    @EventListener(ApplicationReadyEvent.class)
     public void init() {
-        itemRepository.save(new Item("itemA", 10000, 10));
-        itemRepository.save(new Item("itemB", 20000, 20));
+        if (itemRepository.findAll().isEmpty()) {
+            itemRepository.save(new Item("itemA", 10000, 10));
+            itemRepository.save(new Item("itemB", 20000, 20));
+        }
 
-        Member member = new Member();
-        member.setLoginId("test");
-        member.setPassword("test!");
-        member.setName("테스터");
-        memberRepository.save(member);
+        // jdbc 백엔드는 이전 실행에서 저장한 회원이 남아있을 수 있다.
+        if (memberRepository.findByLoginId("test").isEmpty()) {
+            Member member = new Member();
+            member.setLoginId("test");
+            member.setPassword("test!");
+            member.setName("테스터");
+            loginService.join(member);
+        }
     }
 
-}
\ No newline at end of file
+}
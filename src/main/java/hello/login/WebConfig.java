@@ -4,7 +4,10 @@ import hello.login.web.argumentresolver.LoginMemberArgumentResolver;
 import hello.login.web.filter.LogFilter;
 import hello.login.web.filter.LoginCheckFilter;
 import hello.login.web.interceptor.LogInterceptor;
+import hello.login.web.id.IdGenerator;
 import hello.login.web.interceptor.LoginCheckInterceptor;
+import hello.login.web.session.LoginSessionStrategy;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -18,12 +21,22 @@ import java.util.List;
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    // 로그 구분용 요청 ID 생성기 (IdGeneratorConfig)
+    private final IdGenerator requestIdGenerator;
+    // 로그인 상태 보관 방식 (LoginSessionConfig)
+    private final LoginSessionStrategy loginSessionStrategy;
+
+    public WebConfig(@Qualifier("requestIdGenerator") IdGenerator requestIdGenerator, LoginSessionStrategy loginSessionStrategy) {
+        this.requestIdGenerator = requestIdGenerator;
+        this.loginSessionStrategy = loginSessionStrategy;
+    }
+
     // 스프링 부트를 이용한 필터 등록 : FilterRegistrationBean
 //    @Bean
     public FilterRegistrationBean logFilter(){
         FilterRegistrationBean<Filter> filterRegistrationBean = new FilterRegistrationBean<>();
         // setFilter() : 등록할 필터를 지정
-        filterRegistrationBean.setFilter(new LogFilter());
+        filterRegistrationBean.setFilter(new LogFilter(requestIdGenerator));
         // setOrder() : 필터는 체인으로 등록함. 그래서 순서가 필요하므로 지정. 낮을수록 먼저 동작
         filterRegistrationBean.setOrder(1);
         // addUrlPatterns() : 필터를 적용할 URL 패턴 지정. 여러 패턴 지정 가능
@@ -44,7 +57,7 @@ public class WebConfig implements WebMvcConfigurer {
     public FilterRegistrationBean loginCheckFilter(){
         FilterRegistrationBean<Filter> filterRegistrationBean = new FilterRegistrationBean<>();
         // 로그인 체크 필터 추가
-        filterRegistrationBean.setFilter(new LoginCheckFilter());
+        filterRegistrationBean.setFilter(new LoginCheckFilter(loginSessionStrategy));
         // 2번 순서 (1번인 로그 필터 다음으로 실행)
         filterRegistrationBean.setOrder(2);
         // "/*" : 모든 요청에 로그인 체크 필터 적용
@@ -60,7 +73,7 @@ public class WebConfig implements WebMvcConfigurer {
     public void addInterceptors(InterceptorRegistry registry) {
         // 인터셉터와 필터가 중복되지 않도록 필터를 등록하기 위한 logFilter() 의 @Bean 을 주석처리
 
-        registry.addInterceptor(new LogInterceptor()) // 인터셉터 등록
+        registry.addInterceptor(new LogInterceptor(requestIdGenerator)) // 인터셉터 등록
                 .order(1) // 순서 지정
                 .addPathPatterns("/**") // 인터셉터 적용할 URL 패턴 지정
                 .excludePathPatterns("/css/**", "/*.ico", "/error"); // 인터셉터에서 제외할 패턴 지정
@@ -76,7 +89,7 @@ public class WebConfig implements WebMvcConfigurer {
         // ** : 경로 끝까지 0개 이상의 경로(/) 일치
 
         // 인터셉터와 필터가 중복되지 않도록 필터를 등록하기 위한 loginCheckFilter() 의 @Bean 을 주석처리
-        registry.addInterceptor(new LoginCheckInterceptor())
+        registry.addInterceptor(new LoginCheckInterceptor(loginSessionStrategy))
                 .order(2) // 2번째 순서 지정
                 .addPathPatterns("/**") // 기본적으로 모든 경로에 대하여 인터셉터 적용하되,
                 .excludePathPatterns("/", "/members/add", "/login", "/logout", "/css/**", "/*.ico", "/error");
@@ -89,7 +102,7 @@ public class WebConfig implements WebMvcConfigurer {
      */
     @Override
     public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
-        resolvers.add(new LoginMemberArgumentResolver());
+        resolvers.add(new LoginMemberArgumentResolver(loginSessionStrategy));
         // 실행해보면 결과는 동일하지만, 더 편리하게 로그인 정보를 조회할 수 있다.
         // ArgumentResolver 를 활용하면 공통 작업이 필요할 때 컨트롤러를 더욱 편리하게 사용 가능
     }
@@ -0,0 +1,283 @@
+package hello.login.domain.item;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * 컬럼 기반 상품 저장소 (메모리 절약용 백엔드)
+ * 상품마다 Item, Long, Integer, String 객체를 만들지 않고 필드별 기본형 배열(컬럼)에 저장한다.
+ * Item 객체는 조회할 때만 만들어서 반환한다.
+ *
+ * 상품 1개당 : id(8) + version(8) + price(4) + quantity(4) + 상품명 위치(4) + 상품명 길이(4) + 상품명 UTF-8 바이트
+ *             + ID 해시맵 슬롯 (8 + 4) / 0.5
+ * 행(row)은 항상 ID 순서로 유지한다. (ID 는 ItemRepository 가 발급하고, 순서가 바뀌어 도착한 ID 는 insert 가 제자리에 끼워 넣음)
+ */
+public class ColumnarItemStore implements ItemStore {
+
+    // Integer null 표시용
+    private static final int NULL_INT = Integer.MIN_VALUE;
+    private static final int NULL_NAME = -1;
+
+    private final StampedLock lock = new StampedLock();
+    private final LongIntHashMap rowById;
+
+    private long[] ids;
+    private long[] versions;
+    private int[] prices;
+    private int[] quantities;
+    private int[] nameOffsets;
+    private int[] nameLengths;
+
+    // 상품명 UTF-8 바이트를 이어 붙여 저장 (수정시 덮어쓰지 않고 뒤에 추가, 사용하지 않는 바이트가 많아지면 압축)
+    private byte[] names;
+    private int namesUsed;
+    private long garbageBytes;
+
+    private int size;
+
+    public ColumnarItemStore() {
+        this(1024);
+    }
+
+    public ColumnarItemStore(int expectedSize) {
+        int capacity = Math.max(16, expectedSize);
+        rowById = new LongIntHashMap(capacity);
+        ids = new long[capacity];
+        versions = new long[capacity];
+        prices = new int[capacity];
+        quantities = new int[capacity];
+        nameOffsets = new int[capacity];
+        nameLengths = new int[capacity];
+        names = new byte[capacity * 8];
+    }
+
+    /**
+     * ItemRepository 가 발급한 ID 로 추가
+     * 다른 상품과 동시에 발급된 ID 는 순서가 바뀌어 도착할 수 있으므로, 마지막 ID 보다 작으면 정렬 위치에 끼워 넣는다.
+     */
+    @Override
+    public void insert(Item item) {
+        long stamp = lock.writeLock();
+        try {
+            insertRow(item);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void insertAll(List<Item> items) {
+        long stamp = lock.writeLock();
+        try {
+            for (Item item : items) {
+                insertRow(item);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void replace(Item item) {
+        long stamp = lock.writeLock();
+        try {
+            int row = rowById.get(item.getId());
+            if (row == LongIntHashMap.NO_VALUE) {
+                return;
+            }
+            overwrite(row, item);
+            versions[row] = item.getVersion() == null ? 0L : item.getVersion();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public Item findById(Long id) {
+        long stamp = lock.readLock();
+        try {
+            int row = rowById.get(id);
+            return row == LongIntHashMap.NO_VALUE ? null : materialize(row);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public List<Item> findAll() {
+        long stamp = lock.readLock();
+        try {
+            List<Item> result = new ArrayList<>(size);
+            for (int row = 0; row < size; row++) {
+                result.add(materialize(row));
+            }
+            return result;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * 키셋 페이지 조회 : ID 컬럼이 정렬되어 있으므로 이진 탐색으로 시작 위치를 찾는다.
+     */
+    @Override
+    public List<Item> findPage(Long afterId, int limit) {
+        long stamp = lock.readLock();
+        try {
+            int from = 0;
+            if (afterId != null) {
+                int found = Arrays.binarySearch(ids, 0, size, afterId);
+                from = found >= 0 ? found + 1 : -found - 1;
+            }
+            int to = (int) Math.min(size, (long) from + limit);
+            List<Item> result = new ArrayList<>(Math.max(0, to - from));
+            for (int row = from; row < to; row++) {
+                result.add(materialize(row));
+            }
+            return result;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public long maxId() {
+        long stamp = lock.readLock();
+        try {
+            return size == 0 ? 0 : ids[size - 1];
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * 할당된 배열 기준 메모리 사용량 (여유 용량 포함)
+     */
+    public long estimatedBytes() {
+        long stamp = lock.readLock();
+        try {
+            long rows = (long) ids.length * (Long.BYTES * 2 + Integer.BYTES * 4);
+            return rows + names.length + rowById.estimatedBytes();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public void clear() {
+        long stamp = lock.writeLock();
+        try {
+            rowById.clear();
+            size = 0;
+            namesUsed = 0;
+            garbageBytes = 0;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private void insertRow(Item item) {
+        if (size == ids.length) {
+            growRows();
+        }
+        long id = item.getId();
+        int row = size;
+        if (size > 0 && ids[size - 1] > id) {
+            row = -Arrays.binarySearch(ids, 0, size, id) - 1;
+            shiftRows(row);
+        }
+        size++;
+        ids[row] = id;
+        versions[row] = item.getVersion() == null ? 0L : item.getVersion();
+        write(row, item);
+        rowById.put(id, row);
+    }
+
+    /**
+     * row 부터 한 칸씩 뒤로 밀고 ID 해시맵의 행 번호도 갱신
+     */
+    private void shiftRows(int row) {
+        int count = size - row;
+        System.arraycopy(ids, row, ids, row + 1, count);
+        System.arraycopy(versions, row, versions, row + 1, count);
+        System.arraycopy(prices, row, prices, row + 1, count);
+        System.arraycopy(quantities, row, quantities, row + 1, count);
+        System.arraycopy(nameOffsets, row, nameOffsets, row + 1, count);
+        System.arraycopy(nameLengths, row, nameLengths, row + 1, count);
+        for (int moved = row + 1; moved <= size; moved++) {
+            rowById.put(ids[moved], moved);
+        }
+    }
+
+    private void overwrite(int row, Item item) {
+        if (nameLengths[row] != NULL_NAME) {
+            garbageBytes += nameLengths[row];
+        }
+        write(row, item);
+        if (garbageBytes > namesUsed / 2) {
+            compactNames();
+        }
+    }
+
+    private void write(int row, Item item) {
+        prices[row] = item.getPrice() == null ? NULL_INT : item.getPrice();
+        quantities[row] = item.getQuantity() == null ? NULL_INT : item.getQuantity();
+        if (item.getItemName() == null) {
+            nameOffsets[row] = 0;
+            nameLengths[row] = NULL_NAME;
+            return;
+        }
+        byte[] bytes = item.getItemName().getBytes(StandardCharsets.UTF_8);
+        if (namesUsed + bytes.length > names.length) {
+            names = Arrays.copyOf(names, Math.max(names.length * 2, namesUsed + bytes.length));
+        }
+        System.arraycopy(bytes, 0, names, namesUsed, bytes.length);
+        nameOffsets[row] = namesUsed;
+        nameLengths[row] = bytes.length;
+        namesUsed += bytes.length;
+    }
+
+    private Item materialize(int row) {
+        String itemName = nameLengths[row] == NULL_NAME
+                ? null : new String(names, nameOffsets[row], nameLengths[row], StandardCharsets.UTF_8);
+        Item item = new Item(itemName,
+                prices[row] == NULL_INT ? null : prices[row],
+                quantities[row] == NULL_INT ? null : quantities[row]);
+        item.setId(ids[row]);
+        item.setVersion(versions[row]);
+        return item;
+    }
+
+    private void growRows() {
+        int capacity = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        versions = Arrays.copyOf(versions, capacity);
+        prices = Arrays.copyOf(prices, capacity);
+        quantities = Arrays.copyOf(quantities, capacity);
+        nameOffsets = Arrays.copyOf(nameOffsets, capacity);
+        nameLengths = Arrays.copyOf(nameLengths, capacity);
+    }
+
+    /**
+     * 수정으로 버려진 상품명 바이트를 제거
+     */
+    private void compactNames() {
+        byte[] compacted = new byte[Math.max(16, namesUsed - (int) garbageBytes)];
+        int used = 0;
+        for (int row = 0; row < size; row++) {
+            int length = nameLengths[row];
+            if (length == NULL_NAME) {
+                continue;
+            }
+            System.arraycopy(names, nameOffsets[row], compacted, used, length);
+            nameOffsets[row] = used;
+            used += length;
+        }
+        names = compacted;
+        namesUsed = used;
+        garbageBytes = 0;
+    }
+}
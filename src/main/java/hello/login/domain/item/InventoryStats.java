@@ -0,0 +1,101 @@
+package hello.login.domain.item;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 재고 집계 (상품 수, 재고 금액 합계, 재고 부족 상품 수)
+ * 전체 상품을 순회하지 않고 저장/수정 이벤트마다 변화량만 더한다.
+ * LongAdder : 스레드마다 다른 칸(cell)에 더하고 조회할 때 합치므로, 동시에 많이 수정해도 경합이 적다.
+ *
+ * 세 값은 각각 따로 더하므로 수정이 진행 중일 때 조회하면 서로 잠깐 어긋날 수 있다.
+ */
+@Component
+public class InventoryStats implements ItemChangeListener {
+
+    private final ItemRepository itemRepository;
+    private final int lowStockThreshold;
+
+    private final LongAdder itemCount = new LongAdder();
+    private final LongAdder inventoryValue = new LongAdder();
+    private final LongAdder lowStockCount = new LongAdder();
+
+    /**
+     * @param lowStockThreshold 수량이 이 값 이하이면 재고 부족
+     */
+    public InventoryStats(ItemRepository itemRepository, @Value("${item.stats.low-stock-threshold:10}") int lowStockThreshold) {
+        this.itemRepository = itemRepository;
+        this.lowStockThreshold = lowStockThreshold;
+    }
+
+    @PostConstruct
+    public void init() {
+        // 이미 저장된 상품도 함께 집계
+        itemRepository.addListener(this);
+    }
+
+    @Override
+    public void onSave(Item item) {
+        itemCount.increment();
+        inventoryValue.add(value(item));
+        if (isLowStock(item)) {
+            lowStockCount.increment();
+        }
+    }
+
+    @Override
+    public void onUpdate(Item before, Item after) {
+        inventoryValue.add(value(after) - value(before));
+        boolean wasLow = isLowStock(before);
+        boolean isLow = isLowStock(after);
+        if (wasLow != isLow) {
+            lowStockCount.add(isLow ? 1 : -1);
+        }
+    }
+
+    @Override
+    public void onSaveAll(List<Item> items) {
+        long value = 0;
+        int lowStock = 0;
+        for (Item item : items) {
+            value += value(item);
+            if (isLowStock(item)) {
+                lowStock++;
+            }
+        }
+        itemCount.add(items.size());
+        inventoryValue.add(value);
+        lowStockCount.add(lowStock);
+    }
+
+    public Summary summary() {
+        return new Summary(itemCount.sum(), inventoryValue.sum(), lowStockCount.sum(), lowStockThreshold);
+    }
+
+    private boolean isLowStock(Item item) {
+        return item.getQuantity() != null && item.getQuantity() <= lowStockThreshold;
+    }
+
+    private static long value(Item item) {
+        if (item.getPrice() == null || item.getQuantity() == null) {
+            return 0;
+        }
+        return (long) item.getPrice() * item.getQuantity();
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Summary {
+
+        private final long itemCount;
+        private final long inventoryValue;
+        private final long lowStockCount;
+        private final int lowStockThreshold;
+    }
+}
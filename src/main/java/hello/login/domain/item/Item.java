@@ -9,6 +9,8 @@ public class Item {
     private String itemName;
     private Integer price;
     private Integer quantity;
+    // 수정할 때마다 1 증가 (낙관적 락, ETag)
+    private Long version;
 
     public Item() {
     }
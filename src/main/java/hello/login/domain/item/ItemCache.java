@@ -0,0 +1,246 @@
+package hello.login.domain.item;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * 상품 상세 조회 캐시 (read-through)
+ * 캐시에 없으면 ItemRepository 에서 읽어서 채운다. 크기 제한(LRU)과 유효 시간(TTL)을 넘으면 버린다.
+ *
+ * - 같은 상품을 동시에 여러 요청이 찾으면 저장소 조회는 한번만 하고 나머지는 그 결과를 기다린다. (single-flight)
+ * - 수정 이벤트를 받으면 해당 상품을 캐시에서 제거한다. 수정 전에 시작된 조회 결과는 캐시에 넣지 않는다.
+ * - LinkedHashMap(접근 순서) 으로 LRU 를 구현하고, lock 경합을 줄이기 위해 상품 ID 로 여러 조각(shard)에 나눠 담는다.
+ *
+ * item.cache.maximum-size=0 이면 캐시 없이 저장소를 바로 조회한다.
+ */
+@Component
+public class ItemCache implements ItemChangeListener {
+
+    // 조각 수 (2의 제곱수)
+    private static final int SHARDS = 16;
+
+    private final ItemRepository itemRepository;
+    private final int maximumSize;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+
+    private final Shard[] shards = new Shard[SHARDS];
+    // 진행 중인 조회 : 같은 상품의 다음 요청은 새로 조회하지 않고 이 결과를 기다린다.
+    private final ConcurrentHashMap<Long, CompletableFuture<Item>> loading = new ConcurrentHashMap<>();
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder loadCount = new LongAdder();
+    private final LongAdder loadNanos = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    /**
+     * @param maximumSize 최대 상품 수 (0 이면 캐시 사용 안함)
+     * @param ttlSeconds 캐시에 넣은 뒤 유효 시간 (0 이면 제한 없음)
+     */
+    @Autowired
+    public ItemCache(ItemRepository itemRepository,
+                     @Value("${item.cache.maximum-size:10000}") int maximumSize,
+                     @Value("${item.cache.ttl-seconds:60}") long ttlSeconds) {
+        this(itemRepository, maximumSize, ttlSeconds, System::nanoTime);
+    }
+
+    ItemCache(ItemRepository itemRepository, int maximumSize, long ttlSeconds, LongSupplier clock) {
+        this.itemRepository = itemRepository;
+        this.maximumSize = Math.max(0, maximumSize);
+        this.ttlNanos = ttlSeconds > 0 ? TimeUnit.SECONDS.toNanos(ttlSeconds) : Long.MAX_VALUE;
+        this.clock = clock;
+        // 조각마다 최대 크기를 나눠 갖는다. (전체 최대 크기보다 조금 클 수 있음)
+        int shardCapacity = (this.maximumSize + SHARDS - 1) / SHARDS;
+        for (int i = 0; i < SHARDS; i++) {
+            shards[i] = new Shard(shardCapacity);
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        // 이미 저장된 상품은 조회할 때 채우므로 다시 받을 필요 없음
+        itemRepository.addListener(this, false);
+    }
+
+    public Item findById(Long id) {
+        if (maximumSize == 0 || id == null) {
+            return itemRepository.findById(id);
+        }
+        Shard shard = shardFor(id);
+        Item cached = shard.get(id, clock.getAsLong());
+        if (cached != null) {
+            hitCount.increment();
+            return cached;
+        }
+        missCount.increment();
+
+        CompletableFuture<Item> future = new CompletableFuture<>();
+        CompletableFuture<Item> inFlight = loading.putIfAbsent(id, future);
+        if (inFlight != null) {
+            return join(inFlight);
+        }
+        long start = clock.getAsLong();
+        try {
+            Item item = itemRepository.findById(id);
+            long now = clock.getAsLong();
+            loadCount.increment();
+            loadNanos.add(now - start);
+            // 조회하는 동안 수정되었으면(invalidate 가 loading 에서 제거) 캐시에 넣지 않는다.
+            shard.putIfLoading(id, item, now, future);
+            future.complete(item);
+            return item;
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(id, future);
+        }
+    }
+
+    @Override
+    public void onSave(Item item) {
+        // 없는 상품은 캐시하지 않으므로 할 일 없음
+    }
+
+    @Override
+    public void onUpdate(Item before, Item after) {
+        invalidate(after.getId());
+    }
+
+    public void invalidate(Long id) {
+        shardFor(id).invalidate(id);
+    }
+
+    public void invalidateAll() {
+        loading.clear();
+        for (Shard shard : shards) {
+            shard.clear();
+        }
+    }
+
+    public Stats stats() {
+        long size = 0;
+        for (Shard shard : shards) {
+            size += shard.size();
+        }
+        long hits = hitCount.sum();
+        long misses = missCount.sum();
+        long loads = loadCount.sum();
+        double hitRate = hits + misses == 0 ? 0.0 : (double) hits / (hits + misses);
+        double averageLoadMillis = loads == 0 ? 0.0 : loadNanos.sum() / 1_000_000.0 / loads;
+        return new Stats(size, maximumSize, hits, misses, hitRate, loads, averageLoadMillis, evictionCount.sum());
+    }
+
+    private Shard shardFor(long id) {
+        return shards[(int) (id ^ (id >>> 32)) & (SHARDS - 1)];
+    }
+
+    private static Item join(CompletableFuture<Item> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 캐시 통계 (조회 시점 기준, 값마다 따로 더하므로 잠깐 어긋날 수 있음)
+     * {"size":120,"maximumSize":10000,"hitCount":950,"missCount":50,"hitRate":0.95,"loadCount":50,"averageLoadMillis":0.8,"evictionCount":0}
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class Stats {
+        private final long size;
+        private final int maximumSize;
+        private final long hitCount;
+        private final long missCount;
+        private final double hitRate;
+        private final long loadCount;
+        private final double averageLoadMillis;
+        private final long evictionCount;
+    }
+
+    private static final class Entry {
+        private final Item item;
+        private final long loadedAt;
+
+        private Entry(Item item, long loadedAt) {
+            this.item = item;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    /**
+     * LRU 조각 : 조회도 접근 순서를 바꾸므로 읽기/쓰기 모두 lock 안에서 처리한다.
+     */
+    private final class Shard {
+
+        private final LinkedHashMap<Long, Entry> entries;
+
+        private Shard(int capacity) {
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, ItemCache.Entry> eldest) {
+                    if (size() > capacity) {
+                        evictionCount.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        synchronized Item get(long id, long now) {
+            Entry entry = entries.get(id);
+            if (entry == null) {
+                return null;
+            }
+            if (now - entry.loadedAt >= ttlNanos) {
+                entries.remove(id);
+                return null;
+            }
+            return entry.item;
+        }
+
+        /**
+         * 아직 같은 조회가 진행 중으로 등록되어 있을 때만 넣는다.
+         * invalidate 와 같은 lock 안에서 확인하므로, 수정 이후에 이전 값이 들어가는 일이 없다.
+         */
+        synchronized void putIfLoading(long id, Item item, long now, CompletableFuture<Item> future) {
+            if (item != null && loading.get(id) == future) {
+                entries.put(id, new Entry(item, now));
+            }
+        }
+
+        synchronized void invalidate(long id) {
+            // 진행 중인 조회는 끝까지 진행되고 기다리던 요청도 그 결과를 받지만, 캐시에는 들어가지 않는다.
+            loading.remove(id);
+            entries.remove(id);
+        }
+
+        synchronized void clear() {
+            entries.clear();
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+    }
+}
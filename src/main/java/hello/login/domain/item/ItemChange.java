@@ -0,0 +1,21 @@
+package hello.login.domain.item;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 상품 변경 이벤트
+ * sequence : 변경 피드 안에서 1 부터 증가하는 순번 (SSE 이벤트 ID)
+ */
+@Getter
+@RequiredArgsConstructor
+public class ItemChange {
+
+    public enum Type {
+        SAVE, UPDATE
+    }
+
+    private final long sequence;
+    private final Type type;
+    private final Item item;
+}
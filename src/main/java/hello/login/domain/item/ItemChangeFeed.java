@@ -0,0 +1,132 @@
+package hello.login.domain.item;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 상품 변경 피드 (고정 크기 링 버퍼)
+ * 저장/수정마다 순번을 붙인 이벤트를 링 버퍼에 기록한다. 버퍼가 차면 가장 오래된 이벤트를 덮어쓴다.
+ * 쓰는 쪽은 순번 발급(CAS)과 배열 기록만 하고 읽는 쪽을 기다리지 않는다.
+ * 읽는 쪽은 각자 다음에 읽을 순번만 가지고 있으므로, 구독자가 늘어도 메모리는 버퍼 크기로 일정하다.
+ */
+@Component
+public class ItemChangeFeed implements ItemChangeListener {
+
+    private final ItemRepository itemRepository;
+    private final int mask;
+    private final AtomicReferenceArray<ItemChange> ring;
+    private final AtomicLong sequence = new AtomicLong();
+
+    // 새 이벤트가 기록되었을 때 호출 (빠르게 반환해야 한다)
+    private final List<Runnable> publishHooks = new CopyOnWriteArrayList<>();
+
+    /**
+     * @param capacity 보관할 최근 이벤트 수 (2의 제곱수로 올림)
+     */
+    public ItemChangeFeed(ItemRepository itemRepository, @Value("${item.changes.capacity:4096}") int capacity) {
+        this.itemRepository = itemRepository;
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.mask = size - 1;
+        this.ring = new AtomicReferenceArray<>(size);
+    }
+
+    @PostConstruct
+    public void init() {
+        // 등록 이후의 변경만 기록
+        itemRepository.addListener(this, false);
+    }
+
+    public void addPublishHook(Runnable hook) {
+        publishHooks.add(hook);
+    }
+
+    @Override
+    public void onSave(Item item) {
+        append(ItemChange.Type.SAVE, item);
+        published();
+    }
+
+    @Override
+    public void onUpdate(Item before, Item after) {
+        append(ItemChange.Type.UPDATE, after);
+        published();
+    }
+
+    @Override
+    public void onSaveAll(List<Item> items) {
+        for (Item item : items) {
+            append(ItemChange.Type.SAVE, item);
+        }
+        published();
+    }
+
+    /**
+     * 마지막으로 발급된 순번 (0 이면 아직 변경 없음)
+     */
+    public long lastSequence() {
+        return sequence.get();
+    }
+
+    /**
+     * from 순번부터 최대 max 개를 순서대로 읽는다.
+     * 순번은 발급되었지만 아직 기록 중인 이벤트를 만나면 거기서 멈춘다.
+     * from 이 이미 덮어써졌으면 overrun 으로 표시하고, 남아있는 가장 오래된 순번부터 다시 읽도록 next 를 돌려준다.
+     */
+    public Batch read(long from, int max) {
+        long last = sequence.get();
+        long oldest = Math.max(1, last - mask);
+        if (from < oldest) {
+            return new Batch(List.of(), oldest, true);
+        }
+        List<ItemChange> changes = new ArrayList<>((int) Math.min(max, Math.max(0, last - from + 1)));
+        long next = from;
+        while (next <= last && changes.size() < max) {
+            ItemChange change = ring.get((int) next & mask);
+            if (change == null || change.getSequence() < next) {
+                break;
+            }
+            if (change.getSequence() > next) {
+                // 읽는 도중에 덮어써짐
+                return new Batch(changes, Math.max(next + 1, sequence.get() - mask), true);
+            }
+            changes.add(change);
+            next++;
+        }
+        return new Batch(changes, next, false);
+    }
+
+    private void append(ItemChange.Type type, Item item) {
+        long seq = sequence.incrementAndGet();
+        ring.set((int) seq & mask, new ItemChange(seq, type, item));
+    }
+
+    private void published() {
+        for (Runnable hook : publishHooks) {
+            hook.run();
+        }
+    }
+
+    @Getter
+    public static class Batch {
+
+        private final List<ItemChange> changes;
+        // 다음에 읽을 순번
+        private final long next;
+        // 읽지 못한 이벤트가 덮어써져서 건너뛰었는지
+        private final boolean overrun;
+
+        Batch(List<ItemChange> changes, long next, boolean overrun) {
+            this.changes = changes;
+            this.next = next;
+            this.overrun = overrun;
+        }
+    }
+}
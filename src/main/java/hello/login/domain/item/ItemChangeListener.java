@@ -0,0 +1,33 @@
+package hello.login.domain.item;
+
+import java.util.List;
+
+/**
+ * 상품 저장/수정 이벤트 수신
+ * ItemRepository 가 변경을 반영한 직후, 해당 상품의 쓰기 lock 안에서 호출한다.
+ * 같은 상품에 대한 이벤트는 항상 변경 순서대로 전달된다.
+ */
+public interface ItemChangeListener {
+
+    void onSave(Item item);
+
+    void onUpdate(Item before, Item after);
+
+    /**
+     * 대량 저장 (saveAll) : 묶음 전체가 반영된 뒤 한번 호출한다.
+     * 기본 구현은 상품마다 onSave 를 호출한다.
+     */
+    default void onSaveAll(List<Item> items) {
+        for (Item item : items) {
+            onSave(item);
+        }
+    }
+
+    /**
+     * 대량 저장 (saveAll) : 모든 lock 을 놓은 뒤 호출한다.
+     * 디스크 반영(fsync) 대기처럼 오래 걸리는 작업은 onSaveAll 대신 여기서 처리해서 다른 쓰기를 막지 않는다.
+     */
+    default void afterSaveAll(List<Item> items) {
+    }
+
+}
@@ -0,0 +1,493 @@
+package hello.login.domain.item;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * 상품 쓰기 로그 (Write-Ahead Log) + 스냅샷
+ *
+ * 저장/수정마다 상품 전체 상태를 메모리 맵 파일(wal-N.log)에 추가한다.
+ * 여러 스레드의 쓰기는 하나의 force(fsync) 를 함께 기다린다. (group commit)
+ * 주기적으로 전체 상품을 스냅샷(snapshot-N.dat)으로 저장하고, 그 이전 로그는 삭제해서 재실행 시간을 제한한다.
+ * 시작할 때는 최신 스냅샷을 읽고 이후 로그(wal-N 부터)를 순서대로 재실행한다.
+ *
+ * 레코드 : [length int][crc32 int][type byte][id long][price int][quantity int][name length int][name UTF-8][version long]
+ * (version 이 없는 이전 형식의 레코드는 version 0 으로 읽는다.)
+ */
+@Slf4j
+public class ItemJournal implements ItemChangeListener, Closeable {
+
+    private static final int SNAPSHOT_MAGIC = 0x49534e50;
+    private static final byte SAVE = 1;
+    private static final byte UPDATE = 2;
+    private static final int HEADER_BYTES = Integer.BYTES * 2;
+    private static final int NULL_INT = Integer.MIN_VALUE;
+
+    private static final Pattern SEGMENT = Pattern.compile("wal-(\\d+)\\.log");
+    private static final Pattern SNAPSHOT = Pattern.compile("snapshot-(\\d+)\\.dat");
+
+    private final Path dir;
+    private final int segmentBytes;
+    private final boolean sync;
+    private final long snapshotIntervalSeconds;
+
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final Condition flushRequested = appendLock.newCondition();
+    private final Condition flushed = appendLock.newCondition();
+    private final Object snapshotLock = new Object();
+
+    // appendLock 으로 보호
+    private long segmentNo;
+    private FileChannel segmentChannel;
+    private MappedByteBuffer segment;
+    private long appendedBytes;
+    private long flushedBytes;
+    private long recordsSinceSnapshot;
+    private boolean closed = true;
+
+    private ItemRepository repository;
+    private Thread flusher;
+    private ScheduledExecutorService snapshotScheduler;
+
+    /**
+     * @param segmentBytes            로그 파일 하나의 크기
+     * @param sync                    true 이면 저장/수정이 디스크에 반영될 때까지 기다린다.
+     * @param snapshotIntervalSeconds 스냅샷 주기 (0 이면 종료할 때만)
+     */
+    public ItemJournal(Path dir, int segmentBytes, boolean sync, long snapshotIntervalSeconds) {
+        this.dir = dir;
+        this.segmentBytes = segmentBytes;
+        this.sync = sync;
+        this.snapshotIntervalSeconds = snapshotIntervalSeconds;
+    }
+
+    /**
+     * 저장소 상태를 복구하고 이후 변경을 기록하기 시작한다.
+     * 복구할 저장소는 비어 있어야 한다.
+     */
+    public void open(ItemRepository repository) throws IOException {
+        Files.createDirectories(dir);
+        long start = System.nanoTime();
+
+        long snapshotNo = latestSnapshot();
+        long records = 0;
+        if (snapshotNo > 0) {
+            records += loadSnapshot(snapshotFile(snapshotNo), repository);
+        }
+        List<Long> segments = segmentNumbers();
+        long lastSegment = snapshotNo;
+        for (long no : segments) {
+            if (no >= snapshotNo) {
+                records += replaySegment(segmentFile(no), repository);
+            }
+            lastSegment = Math.max(lastSegment, no);
+        }
+        log.info("item journal recovered: snapshot={}, records={}, items={}, elapsed={}ms", snapshotNo, records,
+                repository.findAll().size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+        this.repository = repository;
+        appendLock.lock();
+        try {
+            // 복구가 끝난 로그 파일에는 이어 쓰지 않는다. (마지막 레코드가 깨져 있을 수 있음)
+            openSegment(lastSegment + 1);
+            closed = false;
+        } finally {
+            appendLock.unlock();
+        }
+        repository.addListener(this, false);
+
+        flusher = new Thread(this::flushLoop, "item-journal-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+
+        if (snapshotIntervalSeconds > 0) {
+            snapshotScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "item-journal-snapshot");
+                thread.setDaemon(true);
+                return thread;
+            });
+            snapshotScheduler.scheduleWithFixedDelay(this::periodicSnapshot,
+                    snapshotIntervalSeconds, snapshotIntervalSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    @Override
+    public void onSave(Item item) {
+        append(encode(SAVE, item));
+    }
+
+    @Override
+    public void onUpdate(Item before, Item after) {
+        append(encode(UPDATE, after));
+    }
+
+    @Override
+    public void onSaveAll(List<Item> items) {
+        byte[][] records = new byte[items.size()][];
+        for (int i = 0; i < records.length; i++) {
+            records[i] = encode(SAVE, items.get(i));
+        }
+        // 모든 lock 을 잡은 채 호출되므로 기록만 하고, fsync 는 afterSaveAll 에서 기다린다.
+        write(records);
+    }
+
+    @Override
+    public void afterSaveAll(List<Item> items) {
+        if (sync) {
+            awaitFlushed(-1);
+        }
+    }
+
+    /**
+     * 현재 상태를 스냅샷으로 저장하고, 스냅샷에 포함된 이전 로그 파일을 삭제한다.
+     */
+    public void snapshot() throws IOException {
+        synchronized (snapshotLock) {
+            long coveredFrom;
+            appendLock.lock();
+            try {
+                ensureOpen();
+                // 새 로그 파일로 넘어간 뒤의 변경은 새 파일에 기록되므로, 스냅샷은 새 파일 이전의 로그를 대체한다.
+                rotate();
+                coveredFrom = segmentNo;
+                recordsSinceSnapshot = 0;
+            } finally {
+                appendLock.unlock();
+            }
+
+            List<Item> items = repository.findAll();
+            Path tmp = dir.resolve("snapshot-" + coveredFrom + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16))) {
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeLong(items.size());
+                for (Item item : items) {
+                    out.write(encode(SAVE, item));
+                }
+                out.writeInt(SNAPSHOT_MAGIC);
+            }
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+            Files.move(tmp, snapshotFile(coveredFrom), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+            for (long no : segmentNumbers()) {
+                if (no < coveredFrom) {
+                    Files.deleteIfExists(segmentFile(no));
+                }
+            }
+            for (long no : snapshotNumbers()) {
+                if (no < coveredFrom) {
+                    Files.deleteIfExists(snapshotFile(no));
+                }
+            }
+            log.info("item journal snapshot: segment={}, items={}", coveredFrom, items.size());
+        }
+    }
+
+    /**
+     * 종료시 스냅샷을 남겨서 다음 시작 때 로그 재실행을 줄인다.
+     */
+    @Override
+    public void close() throws IOException {
+        if (snapshotScheduler != null) {
+            snapshotScheduler.shutdownNow();
+        }
+        if (repository == null) {
+            return;
+        }
+        repository.removeListener(this);
+        snapshot();
+        appendLock.lock();
+        try {
+            segment.force();
+            segmentChannel.close();
+            closed = true;
+            flushedBytes = appendedBytes;
+            flushed.signalAll();
+            flushRequested.signalAll();
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * 여러 레코드를 함께 기록하고 force 는 마지막에 한번만 기다린다.
+     */
+    private void append(byte[]... records) {
+        long position = write(records);
+        if (sync) {
+            awaitFlushed(position);
+        }
+    }
+
+    /**
+     * 로그 파일에 기록만 하고 force 는 기다리지 않는다.
+     * @return 기록이 끝난 위치
+     */
+    private long write(byte[]... records) {
+        for (byte[] record : records) {
+            if (record.length > segmentBytes) {
+                throw new IllegalArgumentException("record too large: " + record.length);
+            }
+        }
+        appendLock.lock();
+        try {
+            ensureOpen();
+            for (byte[] record : records) {
+                if (segment.remaining() < record.length) {
+                    rotate();
+                }
+                segment.put(record);
+                appendedBytes += record.length;
+            }
+            recordsSinceSnapshot += records.length;
+            return appendedBytes;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * position 까지 디스크에 반영될 때까지 기다린다. (음수이면 지금까지 기록한 위치)
+     * group commit : flusher 가 force 하는 동안 들어온 기록은 다음 force 한번으로 함께 반영된다.
+     */
+    private void awaitFlushed(long position) {
+        appendLock.lock();
+        try {
+            if (position < 0) {
+                position = appendedBytes;
+            }
+            flushRequested.signal();
+            while (flushedBytes < position) {
+                flushed.awaitUninterruptibly();
+            }
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private void flushLoop() {
+        while (true) {
+            MappedByteBuffer target;
+            long position;
+            appendLock.lock();
+            try {
+                while (flushedBytes == appendedBytes && !closed) {
+                    flushRequested.await();
+                }
+                if (closed) {
+                    return;
+                }
+                target = segment;
+                position = appendedBytes;
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                appendLock.unlock();
+            }
+
+            // lock 밖에서 force 하므로 그동안 다른 스레드는 계속 기록할 수 있다.
+            target.force();
+
+            appendLock.lock();
+            try {
+                flushedBytes = Math.max(flushedBytes, position);
+                flushed.signalAll();
+            } finally {
+                appendLock.unlock();
+            }
+        }
+    }
+
+    private void periodicSnapshot() {
+        try {
+            appendLock.lock();
+            try {
+                if (recordsSinceSnapshot == 0) {
+                    return;
+                }
+            } finally {
+                appendLock.unlock();
+            }
+            snapshot();
+        } catch (Exception e) {
+            log.error("item journal snapshot failed", e);
+        }
+    }
+
+    /**
+     * appendLock 안에서 호출. 현재 파일을 디스크에 반영하고 다음 파일로 넘어간다.
+     */
+    private void rotate() throws IOException {
+        segment.force();
+        segmentChannel.close();
+        flushedBytes = appendedBytes;
+        flushed.signalAll();
+        openSegment(segmentNo + 1);
+    }
+
+    private void openSegment(long no) throws IOException {
+        segmentNo = no;
+        segmentChannel = FileChannel.open(segmentFile(no),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment = segmentChannel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("item journal is closed");
+        }
+    }
+
+    private long replaySegment(Path file, ItemRepository repository) throws IOException {
+        long records = 0;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            while (buffer.remaining() >= HEADER_BYTES) {
+                int length = buffer.getInt();
+                int crc = buffer.getInt();
+                // 0 : 아직 기록되지 않은 영역, 범위를 벗어나거나 crc 가 다르면 기록 도중 중단된 레코드
+                if (length <= 0 || length > buffer.remaining()) {
+                    break;
+                }
+                byte[] body = new byte[length];
+                buffer.get(body);
+                if (crc != crc(body)) {
+                    log.warn("item journal: torn record in {} at {}", file.getFileName(), buffer.position() - length - HEADER_BYTES);
+                    break;
+                }
+                repository.restore(decode(body));
+                records++;
+            }
+        }
+        return records;
+    }
+
+    private long loadSnapshot(Path file, ItemRepository repository) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            if (in.readInt() != SNAPSHOT_MAGIC) {
+                throw new IllegalStateException("invalid snapshot: " + file);
+            }
+            long count = in.readLong();
+            for (long i = 0; i < count; i++) {
+                int length = in.readInt();
+                int crc = in.readInt();
+                byte[] body = new byte[length];
+                in.readFully(body);
+                if (crc != crc(body)) {
+                    throw new IllegalStateException("corrupted snapshot: " + file);
+                }
+                repository.restore(decode(body));
+            }
+            if (in.readInt() != SNAPSHOT_MAGIC) {
+                throw new IllegalStateException("incomplete snapshot: " + file);
+            }
+            return count;
+        }
+    }
+
+    static byte[] encode(byte type, Item item) {
+        byte[] name = item.getItemName() == null ? null : item.getItemName().getBytes(StandardCharsets.UTF_8);
+        int bodyLength = 1 + Long.BYTES + Integer.BYTES * 3 + (name == null ? 0 : name.length) + Long.BYTES;
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + bodyLength);
+        buffer.putInt(bodyLength);
+        buffer.putInt(0);
+        buffer.put(type);
+        buffer.putLong(item.getId());
+        buffer.putInt(item.getPrice() == null ? NULL_INT : item.getPrice());
+        buffer.putInt(item.getQuantity() == null ? NULL_INT : item.getQuantity());
+        buffer.putInt(name == null ? -1 : name.length);
+        if (name != null) {
+            buffer.put(name);
+        }
+        buffer.putLong(item.getVersion() == null ? 0L : item.getVersion());
+        byte[] record = buffer.array();
+        CRC32 crc = new CRC32();
+        crc.update(record, HEADER_BYTES, bodyLength);
+        buffer.putInt(Integer.BYTES, (int) crc.getValue());
+        return record;
+    }
+
+    static Item decode(byte[] body) {
+        ByteBuffer buffer = ByteBuffer.wrap(body);
+        buffer.get(); // type : 저장/수정 모두 전체 상태를 기록하므로 재실행할 때는 구분하지 않는다.
+        long id = buffer.getLong();
+        int price = buffer.getInt();
+        int quantity = buffer.getInt();
+        int nameLength = buffer.getInt();
+        String itemName = null;
+        if (nameLength >= 0) {
+            itemName = new String(body, buffer.position(), nameLength, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + nameLength);
+        }
+        Item item = new Item(itemName, price == NULL_INT ? null : price, quantity == NULL_INT ? null : quantity);
+        item.setId(id);
+        item.setVersion(buffer.remaining() >= Long.BYTES ? buffer.getLong() : 0L);
+        return item;
+    }
+
+    private static int crc(byte[] body) {
+        CRC32 crc = new CRC32();
+        crc.update(body, 0, body.length);
+        return (int) crc.getValue();
+    }
+
+    private Path segmentFile(long no) {
+        return dir.resolve("wal-" + no + ".log");
+    }
+
+    private Path snapshotFile(long no) {
+        return dir.resolve("snapshot-" + no + ".dat");
+    }
+
+    private long latestSnapshot() throws IOException {
+        List<Long> snapshots = snapshotNumbers();
+        return snapshots.isEmpty() ? 0 : snapshots.get(snapshots.size() - 1);
+    }
+
+    private List<Long> segmentNumbers() throws IOException {
+        return fileNumbers(SEGMENT);
+    }
+
+    private List<Long> snapshotNumbers() throws IOException {
+        return fileNumbers(SNAPSHOT);
+    }
+
+    private List<Long> fileNumbers(Pattern pattern) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.map(file -> pattern.matcher(file.getFileName().toString()))
+                    .filter(Matcher::matches)
+                    .map(matcher -> Long.parseLong(matcher.group(1)))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+}
@@ -1,41 +1,451 @@
 package hello.login.domain.item;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
+/**
+ * 동시 요청에 안전한 상품 저장소
+ * ID 발급과 조회는 lock 없이 처리하고, 쓰기는 상품 ID 기준으로 나눈 lock(stripe)으로 직렬화한다.
+ * 가격, 상품명, 수량 보조 인덱스는 같은 lock 안에서 저장소와 함께 갱신한다.
+ * 실제 보관은 ItemStore 백엔드(메모리, 컬럼, JDBC)에 맡긴다.
+ */
 @Repository
 public class ItemRepository {
 
-    private static final Map<Long, Item> store = new HashMap<>(); //static
-    private static long sequence = 0L; //static
+    // lock stripe 개수 (2의 제곱수)
+    private static final int STRIPES = 64;
+
+    private final ItemStore store;
+    // AtomicLong : lock 없이 중복되지 않는 ID 발급
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+
+    // 보조 인덱스
+    private final SortedIndex<Integer> priceIndex = new SortedIndex<>();
+    private final SortedIndex<String> nameIndex = new SortedIndex<>();
+    private final SortedIndex<Integer> quantityIndex = new SortedIndex<>();
+
+    private final List<ItemChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+    // 쓰기가 일어날 때마다 증가, findAll() 스냅샷이 최신인지 판단하는데 사용
+    private final AtomicLong modCount = new AtomicLong();
+    private volatile Snapshot snapshot = new Snapshot(0L, Collections.emptyList());
+
+    public ItemRepository() {
+        this(new MemoryItemStore());
+    }
+
+    /**
+     * 백엔드에 이미 저장된 상품이 있으면 보조 인덱스를 다시 만들고, 가장 큰 ID 다음부터 발급한다.
+     */
+    @Autowired
+    public ItemRepository(ItemStore store) {
+        this.store = store;
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        for (Item item : store.iterateAll()) {
+            index(null, item);
+        }
+        sequence.set(store.maxId());
+    }
 
     public Item save(Item item) {
-        item.setId(++sequence);
-        store.put(item.getId(), item);
+        long id = sequence.incrementAndGet();
+        ReentrantLock lock = lockFor(id);
+        lock.lock();
+        try {
+            item.setId(id);
+            item.setVersion(0L);
+            index(null, item);
+            store.insert(item);
+            modCount.incrementAndGet();
+            for (ItemChangeListener listener : listeners) {
+                listener.onSave(item);
+            }
+        } finally {
+            lock.unlock();
+        }
         return item;
     }
 
+    /**
+     * 대량 저장
+     * ID 를 묶음 크기만큼 한번에 발급하고, 모든 lock 을 잡은 채 반영한다.
+     * 수신자에게는 onSaveAll 로 한번에 전달하므로 로그 기록(fsync)도 묶음당 한번으로 줄어든다.
+     * fsync 대기는 lock 을 놓은 뒤 afterSaveAll 에서 하므로, 그동안 다른 상품의 저장/수정은 막히지 않는다.
+     */
+    public List<Item> saveAll(List<Item> items) {
+        if (items.isEmpty()) {
+            return items;
+        }
+        long firstId = sequence.getAndAdd(items.size()) + 1;
+        lockAll();
+        try {
+            for (int i = 0; i < items.size(); i++) {
+                Item item = items.get(i);
+                item.setId(firstId + i);
+                item.setVersion(0L);
+                index(null, item);
+            }
+            store.insertAll(items);
+            modCount.incrementAndGet();
+            // 이벤트 순서를 지키기 위해 기록(전달)은 lock 안에서 한다. (같은 상품의 수정 이벤트보다 먼저)
+            for (ItemChangeListener listener : listeners) {
+                listener.onSaveAll(items);
+            }
+        } finally {
+            unlockAll();
+        }
+        for (ItemChangeListener listener : listeners) {
+            listener.afterSaveAll(items);
+        }
+        return items;
+    }
+
     public Item findById(Long id) {
-        return store.get(id);
+        return store.findById(id);
     }
 
+    /**
+     * 변경이 없으면 이전에 만든 불변 스냅샷을 그대로 반환한다.
+     * 반환된 목록은 수정할 수 없다.
+     */
     public List<Item> findAll() {
-        return new ArrayList<>(store.values());
+        long version = modCount.get();
+        Snapshot current = snapshot;
+        if (current.version == version) {
+            return current.items;
+        }
+        // 스냅샷을 만드는 도중 쓰기가 일어나면 version 이 달라지므로 다음 조회에서 다시 만든다.
+        List<Item> items = Collections.unmodifiableList(store.findAll());
+        snapshot = new Snapshot(version, items);
+        return items;
+    }
+
+    /**
+     * 키셋(keyset) 페이지 조회
+     * afterId 다음 ID 부터 최대 limit 개를 ID 순서로 반환한다. (afterId 가 null 이면 처음부터)
+     * offset 방식과 달리 앞 페이지를 건너뛰는 비용이 없다.
+     */
+    public List<Item> findPage(Long afterId, int limit) {
+        return store.findPage(afterId, limit);
+    }
+
+    /**
+     * 전체 상품을 복사하지 않고 ID 순서로 순회한다.
+     * 순회 도중의 변경은 반영될 수도 있고 아닐 수도 있다. (weakly consistent)
+     */
+    public Iterable<Item> iterateAll() {
+        return store.iterateAll();
     }
 
+    /**
+     * 공유 중인 Item 을 직접 수정하지 않고, 새 Item 으로 교체한다. (조회 중인 스레드는 변경 전 또는 변경 후 상태만 보게 됨)
+     */
     public void update(Long itemId, Item updateParam) {
-        Item findItem = findById(itemId);
-        findItem.setItemName(updateParam.getItemName());
-        findItem.setPrice(updateParam.getPrice());
-        findItem.setQuantity(updateParam.getQuantity());
+        ReentrantLock lock = lockFor(itemId);
+        lock.lock();
+        try {
+            Item findItem = findById(itemId);
+            if (findItem != null) {
+                replace(findItem, updateParam);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 조건부 수정 (compare-and-set)
+     * 현재 버전이 expectedVersion 과 같을 때만 수정한다.
+     * @return false 이면 다른 요청이 먼저 수정했거나 상품이 없음
+     */
+    public boolean update(Long itemId, Long expectedVersion, Item updateParam) {
+        ReentrantLock lock = lockFor(itemId);
+        lock.lock();
+        try {
+            Item findItem = findById(itemId);
+            if (findItem == null || !Objects.equals(findItem.getVersion(), expectedVersion)) {
+                return false;
+            }
+            replace(findItem, updateParam);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 상품의 쓰기 lock 안에서 호출
+     */
+    private void replace(Item findItem, Item updateParam) {
+        Item updated = new Item(updateParam.getItemName(), updateParam.getPrice(), updateParam.getQuantity());
+        updated.setId(findItem.getId());
+        updated.setVersion(findItem.getVersion() == null ? 0L : findItem.getVersion() + 1);
+        // 인덱스에 새 값 추가 -> 교체 -> 이전 값 제거 순서로 처리
+        // 조회 쪽에서 현재 값으로 조건을 다시 확인하므로, 어느 시점에 조회해도 변경 전 또는 변경 후 중 하나로만 보인다.
+        index(findItem, updated);
+        store.replace(updated);
+        unindex(findItem, updated);
+        modCount.incrementAndGet();
+        for (ItemChangeListener listener : listeners) {
+            listener.onUpdate(findItem, updated);
+        }
+    }
+
+    /**
+     * 저장된 상태 그대로 복원 (로그 재실행 등)
+     * ID 를 새로 발급하지 않고, 같은 ID 가 있으면 덮어쓴다. 이후 발급되는 ID 는 복원된 ID 보다 커진다.
+     */
+    public void restore(Item item) {
+        long id = item.getId();
+        sequence.accumulateAndGet(id, Math::max);
+        ReentrantLock lock = lockFor(id);
+        lock.lock();
+        try {
+            Item before = store.findById(id);
+            index(before, item);
+            if (before == null) {
+                store.insert(item);
+            } else {
+                store.replace(item);
+            }
+            if (before != null) {
+                unindex(before, item);
+            }
+            modCount.incrementAndGet();
+            for (ItemChangeListener listener : listeners) {
+                if (before == null) {
+                    listener.onSave(item);
+                } else {
+                    listener.onUpdate(before, item);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 변경 이벤트 수신자 등록
+     * 이미 저장된 상품은 onSave 로 먼저 전달한다. 등록이 끝날 때까지 쓰기를 잠시 막으므로 빠지거나 중복되는 상품이 없다.
+     */
+    public void addListener(ItemChangeListener listener) {
+        addListener(listener, true);
+    }
+
+    /**
+     * @param replay false 이면 등록 이후의 변경만 전달
+     */
+    public void addListener(ItemChangeListener listener, boolean replay) {
+        lockAll();
+        try {
+            if (replay) {
+                for (Item item : store.iterateAll()) {
+                    listener.onSave(item);
+                }
+            }
+            listeners.add(listener);
+        } finally {
+            unlockAll();
+        }
+    }
+
+    public void removeListener(ItemChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * 가격 범위 조회 (가격 순서, null 이면 범위 제한 없음)
+     */
+    public List<Item> findByPriceRange(Integer minPrice, Integer maxPrice) {
+        return findByIndex(priceIndex.range(minPrice, true, maxPrice, true),
+                new ItemSearchCond(null, minPrice, maxPrice, null)::matches);
+    }
+
+    /**
+     * 상품명 앞부분 일치 조회 (상품명 순서)
+     */
+    public List<Item> findByItemNameStartingWith(String prefix) {
+        return findByIndex(nameIndex.range(prefix, true, prefix + Character.MAX_VALUE, false),
+                new ItemSearchCond(prefix, null, null, null)::matches);
+    }
+
+    /**
+     * 재고 부족 조회 : 수량이 maxQuantity 이하인 상품 (수량 순서)
+     */
+    public List<Item> findByMaxQuantity(int maxQuantity) {
+        return findByIndex(quantityIndex.range(null, true, maxQuantity, true),
+                new ItemSearchCond(null, null, null, maxQuantity)::matches);
+    }
+
+    /**
+     * 검색 조건 조회
+     * 가장 좁은 인덱스 하나로 후보를 찾고, 나머지 조건은 후보에만 적용한다.
+     */
+    public List<Item> findAll(ItemSearchCond cond) {
+        if (cond.hasItemName()) {
+            return findByIndex(nameIndex.range(cond.getItemName(), true, cond.getItemName() + Character.MAX_VALUE, false), cond::matches);
+        }
+        if (cond.getMinPrice() != null || cond.getMaxPrice() != null) {
+            return findByIndex(priceIndex.range(cond.getMinPrice(), true, cond.getMaxPrice(), true), cond::matches);
+        }
+        if (cond.getMaxQuantity() != null) {
+            return findByIndex(quantityIndex.range(null, true, cond.getMaxQuantity(), true), cond::matches);
+        }
+        return findAll();
+    }
+
+    /**
+     * 검색 조건 키셋 페이지 조회
+     * findAll(cond) 와 같은 인덱스, 같은 순서로 after(이전 페이지의 마지막 상품 ID) 다음부터 조건에 맞는 상품을 최대 limit 개 반환한다.
+     * 커서는 after 상품의 현재 인덱스 값 + ID 이다. after 상품이 지워졌거나 인덱스 값이 없어졌으면 빈 목록
+     */
+    public List<Item> findPage(ItemSearchCond cond, Long after, int limit) {
+        if (cond.hasItemName()) {
+            return findPageByIndex(nameIndex, cond.getItemName(), true, cond.getItemName() + Character.MAX_VALUE, false,
+                    Item::getItemName, cond, after, limit);
+        }
+        if (cond.getMinPrice() != null || cond.getMaxPrice() != null) {
+            return findPageByIndex(priceIndex, cond.getMinPrice(), true, cond.getMaxPrice(), true,
+                    Item::getPrice, cond, after, limit);
+        }
+        if (cond.getMaxQuantity() != null) {
+            return findPageByIndex(quantityIndex, null, true, cond.getMaxQuantity(), true,
+                    Item::getQuantity, cond, after, limit);
+        }
+        return findPage(after, limit);
     }
 
     public void clearStore() {
         store.clear();
+        priceIndex.clear();
+        nameIndex.clear();
+        quantityIndex.clear();
+        modCount.incrementAndGet();
+    }
+
+    // 모든 stripe 를 항상 같은 순서로 잡아서 교착 상태를 피한다.
+    private void lockAll() {
+        for (ReentrantLock lock : locks) {
+            lock.lock();
+        }
+    }
+
+    private void unlockAll() {
+        for (int i = locks.length - 1; i >= 0; i--) {
+            locks[i].unlock();
+        }
+    }
+
+    /**
+     * 인덱스로 찾은 ID 를 현재 상품으로 바꾸면서 조건을 다시 확인한다. (갱신 중인 상품의 이전 인덱스 값 제외)
+     */
+    private List<Item> findByIndex(List<Long> ids, Predicate<Item> condition) {
+        List<Item> result = new ArrayList<>(ids.size());
+        for (Item item : store.findAllById(ids)) {
+            if (condition.test(item)) {
+                result.add(item);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 나머지 조건에 걸러지는 후보가 있으므로, limit 개를 채우거나 범위가 끝날 때까지 인덱스를 이어서 읽는다.
+     */
+    private <K extends Comparable<? super K>> List<Item> findPageByIndex(SortedIndex<K> index, K from, boolean fromInclusive, K to, boolean toInclusive,
+                                                                         Function<Item, K> key, ItemSearchCond cond, Long after, int limit) {
+        K afterKey = null;
+        long afterId = 0L;
+        if (after != null) {
+            Item last = store.findById(after);
+            afterKey = last == null ? null : key.apply(last);
+            if (afterKey == null) {
+                return Collections.emptyList();
+            }
+            afterId = after;
+        }
+
+        List<Item> result = new ArrayList<>(limit);
+        while (result.size() < limit) {
+            List<SortedIndex.Entry<K>> entries = index.page(from, fromInclusive, to, toInclusive, afterKey, afterId, limit);
+            List<Long> ids = new ArrayList<>(entries.size());
+            for (SortedIndex.Entry<K> entry : entries) {
+                ids.add(entry.getId());
+            }
+            for (Item item : findByIndex(ids, cond::matches)) {
+                if (result.size() == limit) {
+                    break;
+                }
+                result.add(item);
+            }
+            if (entries.size() < limit) {
+                break;
+            }
+            SortedIndex.Entry<K> last = entries.get(entries.size() - 1);
+            afterKey = last.getKey();
+            afterId = last.getId();
+        }
+        return result;
+    }
+
+    /**
+     * after 의 인덱스 값 중 before 와 다른 값을 추가
+     */
+    private void index(Item before, Item after) {
+        long id = after.getId();
+        if (before == null || !Objects.equals(before.getPrice(), after.getPrice())) {
+            priceIndex.add(after.getPrice(), id);
+        }
+        if (before == null || !Objects.equals(before.getItemName(), after.getItemName())) {
+            nameIndex.add(after.getItemName(), id);
+        }
+        if (before == null || !Objects.equals(before.getQuantity(), after.getQuantity())) {
+            quantityIndex.add(after.getQuantity(), id);
+        }
+    }
+
+    /**
+     * before 의 인덱스 값 중 after 와 다른 값을 제거
+     */
+    private void unindex(Item before, Item after) {
+        long id = before.getId();
+        if (!Objects.equals(before.getPrice(), after.getPrice())) {
+            priceIndex.remove(before.getPrice(), id);
+        }
+        if (!Objects.equals(before.getItemName(), after.getItemName())) {
+            nameIndex.remove(before.getItemName(), id);
+        }
+        if (!Objects.equals(before.getQuantity(), after.getQuantity())) {
+            quantityIndex.remove(before.getQuantity(), id);
+        }
+    }
+
+    private ReentrantLock lockFor(long id) {
+        return locks[(int) (id ^ (id >>> 32)) & (STRIPES - 1)];
+    }
+
+    private static class Snapshot {
+        private final long version;
+        private final List<Item> items;
+
+        private Snapshot(long version, List<Item> items) {
+            this.version = version;
+            this.items = items;
+        }
     }
 
 }
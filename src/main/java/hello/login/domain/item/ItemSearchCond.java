@@ -0,0 +1,48 @@
+package hello.login.domain.item;
+
+import lombok.Data;
+
+/**
+ * 상품 검색 조건 (null 인 조건은 무시)
+ */
+@Data
+public class ItemSearchCond {
+
+    // 상품명 앞부분 일치
+    private String itemName;
+    private Integer minPrice;
+    private Integer maxPrice;
+    // 재고 부족 조회 : 수량이 maxQuantity 이하
+    private Integer maxQuantity;
+
+    public ItemSearchCond() {
+    }
+
+    public ItemSearchCond(String itemName, Integer minPrice, Integer maxPrice, Integer maxQuantity) {
+        this.itemName = itemName;
+        this.minPrice = minPrice;
+        this.maxPrice = maxPrice;
+        this.maxQuantity = maxQuantity;
+    }
+
+    public boolean hasCondition() {
+        return hasItemName() || minPrice != null || maxPrice != null || maxQuantity != null;
+    }
+
+    public boolean hasItemName() {
+        return itemName != null && !itemName.isEmpty();
+    }
+
+    public boolean matches(Item item) {
+        if (hasItemName() && (item.getItemName() == null || !item.getItemName().startsWith(itemName))) {
+            return false;
+        }
+        if (minPrice != null && (item.getPrice() == null || item.getPrice() < minPrice)) {
+            return false;
+        }
+        if (maxPrice != null && (item.getPrice() == null || item.getPrice() > maxPrice)) {
+            return false;
+        }
+        return maxQuantity == null || (item.getQuantity() != null && item.getQuantity() <= maxQuantity);
+    }
+}
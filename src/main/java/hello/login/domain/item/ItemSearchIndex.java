@@ -0,0 +1,357 @@
+package hello.login.domain.item;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 상품명 전문 검색 (역색인)
+ * 상품명을 단어(토큰)로 나누고, 단어마다 그 단어가 들어간 상품 ID 목록(postings)을 ID 순서로 유지한다.
+ * 저장/수정 이벤트를 받아서 저장소와 함께 갱신한다.
+ *
+ * 토큰 : 영문/숫자는 단어 단위, 한글(한자, 가나 포함)은 띄어쓰기와 상관없이 찾을 수 있도록 두 글자씩(bigram) 나눈다.
+ * 예) "상품A 세트" -> [상품, a, 세트]  /  "무선키보드" -> [무선, 선키, 키보, 보드]
+ * 한 글자 한글 검색어는 한 글자로 된 단어에만 일치한다.
+ *
+ * 검색어의 모든 토큰을 포함하는 상품만 찾고(AND), 상품명 토큰 수가 적은 순서(검색어가 차지하는 비중이 큰 순서)로 정렬한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class ItemSearchIndex implements ItemChangeListener {
+
+    // 문자 종류 : 같은 종류가 이어진 구간을 하나의 단어로 본다.
+    private static final int SEPARATOR = 0;
+    private static final int LETTER = 1;
+    private static final int DIGIT = 2;
+    private static final int CJK = 3;
+
+    // 정렬 키 : [상품명 토큰 수 (상위 23비트)][상품 ID (하위 40비트)] -> 작을수록 앞 순위
+    private static final int ID_BITS = 40;
+    private static final long ID_MASK = (1L << ID_BITS) - 1;
+
+    private final ItemRepository itemRepository;
+    private final ConcurrentHashMap<String, Postings> terms = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        // 이미 저장된 상품도 함께 색인
+        itemRepository.addListener(this);
+    }
+
+    @Override
+    public void onSave(Item item) {
+        Set<String> tokens = tokenize(item.getItemName());
+        for (String token : tokens) {
+            add(token, item.getId(), tokens.size());
+        }
+    }
+
+    @Override
+    public void onUpdate(Item before, Item after) {
+        Set<String> beforeTokens = tokenize(before.getItemName());
+        Set<String> afterTokens = tokenize(after.getItemName());
+        if (beforeTokens.equals(afterTokens)) {
+            return;
+        }
+        for (String token : beforeTokens) {
+            remove(token, before.getId());
+        }
+        for (String token : afterTokens) {
+            add(token, after.getId(), afterTokens.size());
+        }
+    }
+
+    /**
+     * @param limit 최대 결과 수
+     */
+    public List<Item> search(String query, int limit) {
+        Set<String> queryTokens = tokenize(query);
+        if (queryTokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        List<Postings> postings = new ArrayList<>(queryTokens.size());
+        for (String token : queryTokens) {
+            Postings found = terms.get(token);
+            if (found == null) {
+                return List.of();
+            }
+            postings.add(found);
+        }
+        // 가장 짧은 목록부터 교집합을 구해서 비교 횟수를 줄인다.
+        postings.sort(Comparator.comparingInt(Postings::size));
+
+        Candidates candidates = postings.get(0).copy();
+        for (int i = 1; i < postings.size() && candidates.size > 0; i++) {
+            postings.get(i).retainAll(candidates);
+        }
+
+        long[] top = candidates.top(limit);
+        List<Item> result = new ArrayList<>(top.length);
+        for (long key : top) {
+            Item item = itemRepository.findById(key & ID_MASK);
+            // 색인과 저장소 사이에 수정된 상품은 현재 상품명으로 다시 확인
+            if (item != null && tokenize(item.getItemName()).containsAll(queryTokens)) {
+                result.add(item);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 색인된 단어 수
+     */
+    public int termCount() {
+        return terms.size();
+    }
+
+    private void add(String token, long id, int length) {
+        terms.compute(token, (key, postings) -> {
+            if (postings == null) {
+                postings = new Postings();
+            }
+            postings.add(id, length);
+            return postings;
+        });
+    }
+
+    private void remove(String token, long id) {
+        // 비어있는 목록은 단어째 제거 (compute 는 같은 단어의 add 와 원자적으로 실행된다)
+        terms.computeIfPresent(token, (key, postings) -> postings.remove(id) == 0 ? null : postings);
+    }
+
+    static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text == null) {
+            return tokens;
+        }
+        // 전각/반각 통일(NFKC) 후 소문자로 비교
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        int i = 0;
+        while (i < normalized.length()) {
+            int kind = kind(normalized.codePointAt(i));
+            int start = i;
+            while (i < normalized.length()) {
+                int codePoint = normalized.codePointAt(i);
+                if (kind(codePoint) != kind) {
+                    break;
+                }
+                i += Character.charCount(codePoint);
+            }
+            if (kind == CJK) {
+                addBigrams(normalized.substring(start, i), tokens);
+            } else if (kind != SEPARATOR) {
+                tokens.add(normalized.substring(start, i));
+            }
+        }
+        return tokens;
+    }
+
+    private static int kind(int codePoint) {
+        if (Character.isDigit(codePoint)) {
+            return DIGIT;
+        }
+        if (!Character.isLetter(codePoint)) {
+            return SEPARATOR;
+        }
+        Character.UnicodeScript script = Character.UnicodeScript.of(codePoint);
+        if (script == Character.UnicodeScript.HANGUL || script == Character.UnicodeScript.HAN
+                || script == Character.UnicodeScript.HIRAGANA || script == Character.UnicodeScript.KATAKANA) {
+            return CJK;
+        }
+        return LETTER;
+    }
+
+    private static void addBigrams(String run, Set<String> tokens) {
+        int first = 0;
+        int second = run.offsetByCodePoints(0, 1);
+        if (second == run.length()) {
+            tokens.add(run);
+            return;
+        }
+        while (second < run.length()) {
+            int end = run.offsetByCodePoints(second, 1);
+            tokens.add(run.substring(first, end));
+            first = second;
+            second = end;
+        }
+    }
+
+    /**
+     * 한 단어의 상품 ID 목록 (ID 오름차순)과 각 상품의 상품명 토큰 수
+     * 상품 ID 는 증가하면서 발급되므로 대부분 끝에 추가된다.
+     */
+    private static final class Postings {
+
+        private long[] ids = new long[2];
+        private int[] lengths = new int[2];
+        private int size;
+
+        synchronized void add(long id, int length) {
+            int pos = size;
+            if (size > 0 && ids[size - 1] >= id) {
+                pos = Arrays.binarySearch(ids, 0, size, id);
+                if (pos >= 0) {
+                    lengths[pos] = length;
+                    return;
+                }
+                pos = -pos - 1;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                lengths = Arrays.copyOf(lengths, size * 2);
+            }
+            System.arraycopy(ids, pos, ids, pos + 1, size - pos);
+            System.arraycopy(lengths, pos, lengths, pos + 1, size - pos);
+            ids[pos] = id;
+            lengths[pos] = length;
+            size++;
+        }
+
+        /**
+         * @return 남은 개수
+         */
+        synchronized int remove(long id) {
+            int pos = Arrays.binarySearch(ids, 0, size, id);
+            if (pos >= 0) {
+                System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+                System.arraycopy(lengths, pos + 1, lengths, pos, size - pos - 1);
+                size--;
+            }
+            return size;
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        synchronized Candidates copy() {
+            return new Candidates(Arrays.copyOf(ids, size), Arrays.copyOf(lengths, size), size);
+        }
+
+        /**
+         * 이 목록에 없는 후보를 제거
+         * 두 목록 모두 ID 순서이므로 크기가 비슷하면 앞에서부터 병합(merge)하고,
+         * 차이가 크면 직전 위치부터 간격을 두 배씩 늘려가며(galloping) 찾는다.
+         */
+        synchronized void retainAll(Candidates candidates) {
+            if ((long) candidates.size * 8 >= size) {
+                merge(candidates);
+                return;
+            }
+            int kept = 0;
+            int from = 0;
+            for (int i = 0; i < candidates.size && from < size; i++) {
+                long id = candidates.ids[i];
+                int step = 1;
+                while (from + step < size && ids[from + step] < id) {
+                    step <<= 1;
+                }
+                int pos = Arrays.binarySearch(ids, from + (step >>> 1), Math.min(from + step + 1, size), id);
+                if (pos >= 0) {
+                    candidates.ids[kept] = candidates.ids[i];
+                    candidates.lengths[kept] = candidates.lengths[i];
+                    kept++;
+                    from = pos + 1;
+                } else {
+                    from = -pos - 1;
+                }
+            }
+            candidates.size = kept;
+        }
+
+        private void merge(Candidates candidates) {
+            int kept = 0;
+            int j = 0;
+            for (int i = 0; i < candidates.size && j < size; i++) {
+                long id = candidates.ids[i];
+                while (j < size && ids[j] < id) {
+                    j++;
+                }
+                if (j < size && ids[j] == id) {
+                    candidates.ids[kept] = id;
+                    candidates.lengths[kept] = candidates.lengths[i];
+                    kept++;
+                    j++;
+                }
+            }
+            candidates.size = kept;
+        }
+    }
+
+    /**
+     * 검색 중인 후보 (요청 스레드에서만 사용)
+     */
+    private static final class Candidates {
+
+        private final long[] ids;
+        private final int[] lengths;
+        private int size;
+
+        Candidates(long[] ids, int[] lengths, int size) {
+            this.ids = ids;
+            this.lengths = lengths;
+            this.size = size;
+        }
+
+        /**
+         * 정렬 키가 작은 순서로 limit 개 (크기 limit 의 최대 힙으로 전체 정렬 없이 선택)
+         */
+        long[] top(int limit) {
+            long[] heap = new long[Math.min(limit, size)];
+            int heapSize = 0;
+            for (int i = 0; i < size; i++) {
+                long key = (long) lengths[i] << ID_BITS | ids[i];
+                if (heapSize < heap.length) {
+                    heap[heapSize] = key;
+                    siftUp(heap, heapSize++);
+                } else if (key < heap[0]) {
+                    heap[0] = key;
+                    siftDown(heap, heapSize);
+                }
+            }
+            Arrays.sort(heap, 0, heapSize);
+            return heap;
+        }
+
+        private static void siftUp(long[] heap, int index) {
+            long key = heap[index];
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (heap[parent] >= key) {
+                    break;
+                }
+                heap[index] = heap[parent];
+                index = parent;
+            }
+            heap[index] = key;
+        }
+
+        private static void siftDown(long[] heap, int size) {
+            long key = heap[0];
+            int index = 0;
+            int half = size >>> 1;
+            while (index < half) {
+                int child = 2 * index + 1;
+                if (child + 1 < size && heap[child + 1] > heap[child]) {
+                    child++;
+                }
+                if (key >= heap[child]) {
+                    break;
+                }
+                heap[index] = heap[child];
+                index = child;
+            }
+            heap[index] = key;
+        }
+    }
+}
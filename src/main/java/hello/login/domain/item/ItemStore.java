@@ -0,0 +1,100 @@
+package hello.login.domain.item;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * 상품 저장소 백엔드 (SPI)
+ * ItemRepository 가 ID 발급, 상품별 lock, 보조 인덱스, 변경 이벤트를 담당하고 실제 보관만 백엔드에 맡긴다.
+ * 같은 상품에 대한 쓰기는 ItemRepository 가 직렬화해서 호출하지만, 다른 상품의 쓰기와 조회는 동시에 호출될 수 있다.
+ *
+ * item.store 설정으로 선택 : memory (기본), columnar, jdbc
+ */
+public interface ItemStore {
+
+    /**
+     * ID 와 version 이 지정된 상품을 추가
+     */
+    void insert(Item item);
+
+    /**
+     * 여러 상품을 한번에 추가 (기본 구현은 하나씩 추가)
+     */
+    default void insertAll(List<Item> items) {
+        for (Item item : items) {
+            insert(item);
+        }
+    }
+
+    /**
+     * 같은 ID 의 상품을 통째로 교체
+     */
+    void replace(Item item);
+
+    Item findById(Long id);
+
+    /**
+     * ids 순서대로 조회 (없는 상품은 제외)
+     */
+    default List<Item> findAllById(List<Long> ids) {
+        List<Item> result = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Item item = findById(id);
+            if (item != null) {
+                result.add(item);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * ID 순서
+     */
+    List<Item> findAll();
+
+    /**
+     * afterId 다음 ID 부터 최대 limit 개 (ID 순서, afterId 가 null 이면 처음부터)
+     */
+    List<Item> findPage(Long afterId, int limit);
+
+    /**
+     * 전체를 복사하지 않고 ID 순서로 순회 (기본 구현은 키셋 페이지를 차례로 조회)
+     */
+    default Iterable<Item> iterateAll() {
+        return () -> new Iterator<>() {
+            private static final int PAGE_SIZE = 1000;
+            private List<Item> page = findPage(null, PAGE_SIZE);
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                if (index < page.size()) {
+                    return true;
+                }
+                if (page.size() < PAGE_SIZE) {
+                    return false;
+                }
+                page = findPage(page.get(page.size() - 1).getId(), PAGE_SIZE);
+                index = 0;
+                return !page.isEmpty();
+            }
+
+            @Override
+            public Item next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return page.get(index++);
+            }
+        };
+    }
+
+    /**
+     * 저장된 가장 큰 ID (없으면 0), 시작할 때 ID 발급 위치를 정하는데 사용
+     */
+    long maxId();
+
+    void clear();
+}
@@ -0,0 +1,142 @@
+package hello.login.domain.item;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC 상품 저장소 (내장 H2)
+ * 테이블은 schema.sql 로 생성한다.
+ *
+ * 같은 SQL 문자열을 계속 사용하므로, H2 는 커넥션마다 파싱한 문장을 캐시(QUERY_CACHE_SIZE)해서 재사용한다.
+ * 커넥션은 HikariCP 풀에서 재사용한다. (application.properties 참고)
+ * 대량 저장은 PreparedStatement 하나로 JDBC batch 를 만들어 한 트랜잭션으로 반영한다.
+ */
+public class JdbcItemStore implements ItemStore {
+
+    private static final int BATCH_SIZE = 500;
+    private static final int IN_CLAUSE_SIZE = 500;
+
+    private static final String INSERT = "insert into item (id, item_name, price, quantity, version) values (?, ?, ?, ?, ?)";
+    private static final String UPDATE = "update item set item_name = ?, price = ?, quantity = ?, version = ? where id = ?";
+    private static final String SELECT = "select id, item_name, price, quantity, version from item";
+
+    private static final RowMapper<Item> ITEM_ROW_MAPPER = (rs, rowNum) -> {
+        Item item = new Item(rs.getString("item_name"),
+                rs.getObject("price", Integer.class),
+                rs.getObject("quantity", Integer.class));
+        item.setId(rs.getLong("id"));
+        item.setVersion(rs.getLong("version"));
+        return item;
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public JdbcItemStore(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.namedTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    @Override
+    public void insert(Item item) {
+        jdbcTemplate.update(INSERT, ps -> setInsert(ps, item));
+    }
+
+    @Override
+    public void insertAll(List<Item> items) {
+        transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.batchUpdate(INSERT, items, BATCH_SIZE, this::setInsert));
+    }
+
+    @Override
+    public void replace(Item item) {
+        jdbcTemplate.update(UPDATE, ps -> {
+            ps.setString(1, item.getItemName());
+            setInteger(ps, 2, item.getPrice());
+            setInteger(ps, 3, item.getQuantity());
+            ps.setLong(4, item.getVersion() == null ? 0L : item.getVersion());
+            ps.setLong(5, item.getId());
+        });
+    }
+
+    @Override
+    public Item findById(Long id) {
+        List<Item> result = jdbcTemplate.query(SELECT + " where id = ?", ITEM_ROW_MAPPER, id);
+        return result.isEmpty() ? null : result.get(0);
+    }
+
+    /**
+     * IN 절 하나에 IN_CLAUSE_SIZE 개씩 나눠서 조회한 뒤 요청한 순서로 정렬
+     */
+    @Override
+    public List<Item> findAllById(List<Long> ids) {
+        Map<Long, Item> found = new HashMap<>(ids.size() * 2);
+        for (int from = 0; from < ids.size(); from += IN_CLAUSE_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + IN_CLAUSE_SIZE));
+            for (Item item : namedTemplate.query(SELECT + " where id in (:ids)", new MapSqlParameterSource("ids", chunk), ITEM_ROW_MAPPER)) {
+                found.put(item.getId(), item);
+            }
+        }
+        List<Item> result = new ArrayList<>(found.size());
+        for (Long id : ids) {
+            Item item = found.get(id);
+            if (item != null) {
+                result.add(item);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public List<Item> findAll() {
+        return jdbcTemplate.query(SELECT + " order by id", ITEM_ROW_MAPPER);
+    }
+
+    @Override
+    public List<Item> findPage(Long afterId, int limit) {
+        return jdbcTemplate.query(SELECT + " where id > ? order by id limit ?", ITEM_ROW_MAPPER,
+                afterId == null ? 0L : afterId, limit);
+    }
+
+    @Override
+    public long maxId() {
+        Long maxId = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from item", Long.class);
+        return maxId == null ? 0 : maxId;
+    }
+
+    @Override
+    public void clear() {
+        jdbcTemplate.update("delete from item");
+    }
+
+    private void setInsert(PreparedStatement ps, Item item) throws SQLException {
+        ps.setLong(1, item.getId());
+        ps.setString(2, item.getItemName());
+        setInteger(ps, 3, item.getPrice());
+        setInteger(ps, 4, item.getQuantity());
+        ps.setLong(5, item.getVersion() == null ? 0L : item.getVersion());
+    }
+
+    private static void setInteger(PreparedStatement ps, int index, Integer value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.INTEGER);
+        } else {
+            ps.setInt(index, value);
+        }
+    }
+}
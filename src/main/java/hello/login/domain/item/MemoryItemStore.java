@@ -0,0 +1,70 @@
+package hello.login.domain.item;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * 메모리 상품 저장소 (기본 백엔드)
+ * 저장된 Item 객체를 그대로 보관하고 반환한다. (ItemRepository 가 수정할 때마다 새 Item 으로 교체하므로 공유해도 안전)
+ */
+public class MemoryItemStore implements ItemStore {
+
+    // ConcurrentSkipListMap : CAS 기반으로 동작하는 정렬된 동시성 Map (ID 순서 유지)
+    private final ConcurrentSkipListMap<Long, Item> store = new ConcurrentSkipListMap<>();
+
+    @Override
+    public void insert(Item item) {
+        store.put(item.getId(), item);
+    }
+
+    @Override
+    public void replace(Item item) {
+        store.put(item.getId(), item);
+    }
+
+    @Override
+    public Item findById(Long id) {
+        return store.get(id);
+    }
+
+    @Override
+    public List<Item> findAll() {
+        return new ArrayList<>(store.values());
+    }
+
+    @Override
+    public List<Item> findPage(Long afterId, int limit) {
+        ConcurrentNavigableMap<Long, Item> tail = afterId == null ? store : store.tailMap(afterId, false);
+        List<Item> page = new ArrayList<>(Math.min(limit, 1_000));
+        for (Item item : tail.values()) {
+            if (page.size() >= limit) {
+                break;
+            }
+            page.add(item);
+        }
+        return page;
+    }
+
+    /**
+     * 순회 도중의 변경은 반영될 수도 있고 아닐 수도 있다. (weakly consistent)
+     */
+    @Override
+    public Iterable<Item> iterateAll() {
+        return Collections.unmodifiableCollection(store.values());
+    }
+
+    @Override
+    public long maxId() {
+        Map.Entry<Long, Item> last = store.lastEntry();
+        return last == null ? 0 : last.getKey();
+    }
+
+    @Override
+    public void clear() {
+        store.clear();
+    }
+}
@@ -0,0 +1,125 @@
+package hello.login.domain.item;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * 상품 보조 인덱스 (key -> 상품 ID)
+ * (key, id) 쌍을 정렬된 집합 하나로 관리하므로, 같은 key 를 가진 상품이 많아도 추가/삭제는 O(log n) 이다.
+ * 범위 조회는 O(log n + 결과 수)
+ */
+class SortedIndex<K extends Comparable<? super K>> {
+
+    private final ConcurrentSkipListSet<Entry<K>> entries = new ConcurrentSkipListSet<>();
+
+    void add(K key, long id) {
+        if (key != null) {
+            entries.add(new Entry<>(key, id));
+        }
+    }
+
+    void remove(K key, long id) {
+        if (key != null) {
+            entries.remove(new Entry<>(key, id));
+        }
+    }
+
+    /**
+     * from ~ to 범위에 속한 상품 ID 를 key 순서로 반환 (null 이면 범위 제한 없음)
+     */
+    List<Long> range(K from, boolean fromInclusive, K to, boolean toInclusive) {
+        List<Long> ids = new ArrayList<>();
+        for (Entry<K> entry : view(from, fromInclusive, to, toInclusive, null, 0L)) {
+            ids.add(entry.id);
+        }
+        return ids;
+    }
+
+    /**
+     * range() 의 키셋 페이지 : (afterKey, afterId) 다음 항목부터 최대 limit 개 (afterKey 가 null 이면 처음부터)
+     * 다음 페이지는 마지막 항목의 (key, id) 로 이어서 조회한다.
+     */
+    List<Entry<K>> page(K from, boolean fromInclusive, K to, boolean toInclusive, K afterKey, long afterId, int limit) {
+        List<Entry<K>> page = new ArrayList<>(Math.min(limit, 1024));
+        for (Entry<K> entry : view(from, fromInclusive, to, toInclusive, afterKey, afterId)) {
+            if (page.size() == limit) {
+                break;
+            }
+            page.add(entry);
+        }
+        return page;
+    }
+
+    /**
+     * 시작 위치가 끝 위치보다 뒤면 빈 집합 (부분 집합 범위를 벗어난 tailSet/headSet 은 예외가 발생하므로 먼저 비교)
+     */
+    private NavigableSet<Entry<K>> view(K from, boolean fromInclusive, K to, boolean toInclusive, K afterKey, long afterId) {
+        Entry<K> start = from == null ? null : new Entry<>(from, fromInclusive ? Long.MIN_VALUE : Long.MAX_VALUE);
+        boolean startInclusive = true;
+        if (afterKey != null) {
+            Entry<K> after = new Entry<>(afterKey, afterId);
+            if (start == null || after.compareTo(start) >= 0) {
+                start = after;
+                startInclusive = false;
+            }
+        }
+        Entry<K> end = to == null ? null : new Entry<>(to, toInclusive ? Long.MAX_VALUE : Long.MIN_VALUE);
+        if (start != null && end != null && start.compareTo(end) > 0) {
+            return Collections.emptyNavigableSet();
+        }
+
+        NavigableSet<Entry<K>> view = entries;
+        if (start != null) {
+            view = view.tailSet(start, startInclusive);
+        }
+        if (end != null) {
+            view = view.headSet(end, true);
+        }
+        return view;
+    }
+
+    void clear() {
+        entries.clear();
+    }
+
+    static final class Entry<K extends Comparable<? super K>> implements Comparable<Entry<K>> {
+        private final K key;
+        private final long id;
+
+        private Entry(K key, long id) {
+            this.key = key;
+            this.id = id;
+        }
+
+        K getKey() {
+            return key;
+        }
+
+        long getId() {
+            return id;
+        }
+
+        @Override
+        public int compareTo(Entry<K> other) {
+            int result = key.compareTo(other.key);
+            return result != 0 ? result : Long.compare(id, other.id);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Entry)) {
+                return false;
+            }
+            Entry<?> other = (Entry<?>) o;
+            return id == other.id && key.equals(other.key);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * key.hashCode() + Long.hashCode(id);
+        }
+    }
+}
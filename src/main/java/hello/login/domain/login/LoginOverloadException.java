@@ -0,0 +1,11 @@
+package hello.login.domain.login;
+
+/**
+ * 비밀번호 확인 대기열이 가득 찼거나 제한 시간 안에 처리하지 못했을 때 (잠시 후 다시 시도)
+ */
+public class LoginOverloadException extends RuntimeException {
+
+    public LoginOverloadException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -2,23 +2,122 @@ package hello.login.domain.login;
 
 import hello.login.domain.member.Member;
 import hello.login.domain.member.MemberRepository;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.PreDestroy;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 로그인, 회원 가입
+ * 비밀번호 해시 계산은 CPU 를 많이 사용하므로 요청 스레드(톰캣)가 아닌 전용 스레드 풀에서 처리한다.
+ * 풀의 대기열이 가득 차면 기다리지 않고 바로 LoginOverloadException 을 던진다.
+ * 로그인 요청이 몰려도 해시 계산에 쓰이는 CPU 와 기다리는 톰캣 스레드 수가 제한되므로 /items 같은 다른 요청은 계속 처리된다.
+ */
 @Service
-@RequiredArgsConstructor
 public class LoginService {
 
     private final MemberRepository memberRepository;
+    private final PasswordHasher passwordHasher;
+    private final long timeoutMillis;
+    private final ThreadPoolExecutor executor;
+    // 없는 로그인 ID 도 같은 시간이 걸리도록 비교할 해시 (응답 시간으로 가입 여부를 알 수 없게)
+    private final String dummyHash;
+
+    /**
+     * @param threads 해시 계산 스레드 수
+     * @param queueCapacity 대기할 수 있는 요청 수
+     * @param timeoutMillis 대기열에서 기다리는 시간까지 포함한 최대 처리 시간
+     */
+    public LoginService(MemberRepository memberRepository, PasswordHasher passwordHasher,
+                        @Value("${login.verify.threads:2}") int threads,
+                        @Value("${login.verify.queue-capacity:64}") int queueCapacity,
+                        @Value("${login.verify.timeout-millis:3000}") long timeoutMillis) {
+        this.memberRepository = memberRepository;
+        this.passwordHasher = passwordHasher;
+        this.timeoutMillis = timeoutMillis;
+        AtomicInteger count = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    Thread thread = new Thread(r, "password-verify-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        this.dummyHash = passwordHasher.hash("dummy");
+    }
 
     /**
      * 로그인
      * @return null 이면 로그인 실패
+     * @throws LoginOverloadException 처리 중인 로그인이 너무 많으면
      */
     public Member login(String loginId, String password) {
-        // pasword 를 확인하고 다르면 null 리턴
-        return memberRepository.findByLoginId(loginId)
-                .filter(m -> m.getPassword().equals(password))
-                .orElse(null);
+        Optional<Member> member = memberRepository.findByLoginId(loginId);
+        String hash = member.map(Member::getPassword).orElse(dummyHash);
+        boolean matches = run(() -> passwordHasher.matches(password, hash));
+        // password 를 확인하고 다르면 null 리턴
+        return matches ? member.orElse(null) : null;
+    }
+
+    /**
+     * 회원 가입 : 비밀번호를 해시로 바꿔서 저장
+     * @throws hello.login.domain.member.DuplicateMemberException 같은 로그인 ID 의 회원이 이미 있으면
+     * @throws LoginOverloadException 처리 중인 요청이 너무 많으면
+     */
+    public Member join(Member member) {
+        String rawPassword = member.getPassword();
+        member.setPassword(run(() -> passwordHasher.hash(rawPassword)));
+        try {
+            return memberRepository.save(member);
+        } catch (RuntimeException e) {
+            // 가입 화면을 다시 보여줄 때 해시가 아닌 입력값이 보이도록
+            member.setPassword(rawPassword);
+            throw e;
+        }
+    }
+
+    /**
+     * 대기열에서 기다리는 요청 수
+     */
+    int queuedTasks() {
+        return executor.getQueue().size();
+    }
+
+    @PreDestroy
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private <T> T run(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            throw new LoginOverloadException("password verification queue is full", e);
+        }
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new LoginOverloadException("password verification timed out", e);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new LoginOverloadException("interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
     }
 }
@@ -0,0 +1,114 @@
+package hello.login.domain.login;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * 비밀번호 해시 (PBKDF2-HMAC-SHA256)
+ * 저장 형식 : pbkdf2$반복횟수$salt(Base64)$hash(Base64)
+ * 반복 횟수를 해시와 함께 저장하므로, 반복 횟수 설정이 바뀌어도 이전에 저장한 비밀번호를 확인할 수 있다.
+ *
+ * login.password.iterations=0 (기본) 이면 시작할 때 한번 확인하는 시간이 login.password.target-millis 가 되도록 반복 횟수를 정한다.
+ * (서버 성능에 맞춰 무차별 대입은 어렵게, 로그인 한번의 CPU 사용량은 일정하게)
+ */
+@Slf4j
+@Component
+public class PasswordHasher {
+
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final String PREFIX = "pbkdf2";
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
+    // 자동 조정 범위 (OWASP 권장 최소값 이상)
+    private static final int MIN_ITERATIONS = 100_000;
+    private static final int MAX_ITERATIONS = 10_000_000;
+
+    private final SecureRandom random = new SecureRandom();
+    private final int iterations;
+
+    /**
+     * @param iterations 반복 횟수 (0 이면 targetMillis 에 맞춰 자동 조정)
+     * @param targetMillis 자동 조정할 때 확인 한번에 걸릴 목표 시간
+     */
+    @Autowired
+    public PasswordHasher(@Value("${login.password.iterations:0}") int iterations,
+                          @Value("${login.password.target-millis:50}") long targetMillis) {
+        this.iterations = iterations > 0 ? iterations : calibrate(targetMillis);
+        log.info("password hash iterations={}", this.iterations);
+    }
+
+    public PasswordHasher(int iterations) {
+        this.iterations = iterations;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    public String hash(String rawPassword) {
+        byte[] salt = new byte[SALT_BYTES];
+        random.nextBytes(salt);
+        byte[] hash = pbkdf2(rawPassword, salt, iterations);
+        Base64.Encoder encoder = Base64.getEncoder().withoutPadding();
+        return PREFIX + "$" + iterations + "$" + encoder.encodeToString(salt) + "$" + encoder.encodeToString(hash);
+    }
+
+    /**
+     * 비교 시간이 일치하는 위치에 따라 달라지지 않도록 MessageDigest.isEqual 로 비교한다.
+     * @return 형식이 맞지 않는 값이면 false
+     */
+    public boolean matches(String rawPassword, String encoded) {
+        if (rawPassword == null || encoded == null) {
+            return false;
+        }
+        String[] parts = encoded.split("\\$");
+        if (parts.length != 4 || !PREFIX.equals(parts[0])) {
+            return false;
+        }
+        try {
+            int storedIterations = Integer.parseInt(parts[1]);
+            Base64.Decoder decoder = Base64.getDecoder();
+            byte[] salt = decoder.decode(parts[2]);
+            byte[] expected = decoder.decode(parts[3]);
+            return MessageDigest.isEqual(expected, pbkdf2(rawPassword, salt, storedIterations));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 반복 횟수를 늘려가며 측정해서 targetMillis 에 비례하도록 맞춘다. (JIT 워밍업 포함)
+     */
+    private static int calibrate(long targetMillis) {
+        byte[] salt = new byte[SALT_BYTES];
+        int sample = 20_000;
+        long elapsed = 0;
+        for (int round = 0; round < 3; round++) {
+            long start = System.nanoTime();
+            pbkdf2("calibrate", salt, sample);
+            elapsed = System.nanoTime() - start;
+        }
+        long scaled = sample * (targetMillis * 1_000_000L) / Math.max(1, elapsed);
+        return (int) Math.max(MIN_ITERATIONS, Math.min(MAX_ITERATIONS, scaled));
+    }
+
+    private static byte[] pbkdf2(String rawPassword, byte[] salt, int iterations) {
+        PBEKeySpec spec = new PBEKeySpec(rawPassword.toCharArray(), salt, iterations, HASH_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " 사용 불가", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package hello.login.domain.member;
+
+/**
+ * 이미 사용 중인 로그인 ID 로 회원을 저장하려고 할 때
+ */
+public class DuplicateMemberException extends RuntimeException {
+
+    private final String loginId;
+
+    public DuplicateMemberException(String loginId) {
+        super("이미 사용 중인 로그인 ID: " + loginId);
+        this.loginId = loginId;
+    }
+
+    public DuplicateMemberException(String loginId, Throwable cause) {
+        super("이미 사용 중인 로그인 ID: " + loginId, cause);
+        this.loginId = loginId;
+    }
+
+    public String getLoginId() {
+        return loginId;
+    }
+}
@@ -0,0 +1,75 @@
+package hello.login.domain.member;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * JDBC 회원 저장소 (내장 H2)
+ * login_id 에 유니크 인덱스가 있으므로 로그인 조회는 전체 회원을 읽지 않고, 중복 가입은 DB 가 막는다.
+ */
+public class JdbcMemberStore implements MemberStore {
+
+    private static final String SELECT = "select id, login_id, name, password from member";
+
+    private static final RowMapper<Member> MEMBER_ROW_MAPPER = (rs, rowNum) -> {
+        Member member = new Member();
+        member.setId(rs.getLong("id"));
+        member.setLoginId(rs.getString("login_id"));
+        member.setName(rs.getString("name"));
+        member.setPassword(rs.getString("password"));
+        return member;
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    // 이미 저장된 가장 큰 ID 다음부터 발급
+    private final AtomicLong sequence = new AtomicLong();
+
+    public JdbcMemberStore(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        sequence.set(maxId());
+    }
+
+    @Override
+    public void insert(Member member) {
+        member.setId(sequence.incrementAndGet());
+        try {
+            jdbcTemplate.update("insert into member (id, login_id, name, password) values (?, ?, ?, ?)",
+                    member.getId(), member.getLoginId(), member.getName(), member.getPassword());
+        } catch (DuplicateKeyException e) {
+            throw new DuplicateMemberException(member.getLoginId(), e);
+        }
+    }
+
+    @Override
+    public Member findById(Long id) {
+        List<Member> result = jdbcTemplate.query(SELECT + " where id = ?", MEMBER_ROW_MAPPER, id);
+        return result.isEmpty() ? null : result.get(0);
+    }
+
+    @Override
+    public List<Member> findAll() {
+        return jdbcTemplate.query(SELECT + " order by id", MEMBER_ROW_MAPPER);
+    }
+
+    @Override
+    public Optional<Member> findByLoginId(String loginId) {
+        List<Member> result = jdbcTemplate.query(SELECT + " where login_id = ?", MEMBER_ROW_MAPPER, loginId);
+        return result.isEmpty() ? Optional.empty() : Optional.of(result.get(0));
+    }
+
+    private long maxId() {
+        Long maxId = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from member", Long.class);
+        return maxId == null ? 0 : maxId;
+    }
+
+    @Override
+    public void clear() {
+        jdbcTemplate.update("delete from member");
+    }
+}
@@ -0,0 +1,212 @@
+package hello.login.domain.member;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 로그인 ID 존재 여부 필터 (scalable Bloom filter)
+ * mightContain 이 false 이면 그 로그인 ID 는 확실히 없다. true 이면 있을 수도 있으므로 저장소에서 확인한다.
+ * 없는 ID 로 계속 시도하는 요청(크리덴셜 스터핑)은 저장소를 조회하지 않고 거절할 수 있다.
+ *
+ * 필터 하나가 정해진 개수만큼 차면 두 배 크기, 절반의 오탐률로 필터를 하나 더 만든다.
+ * 모든 필터의 오탐률을 합쳐도 설정한 오탐률(falsePositiveRate)을 넘지 않는다.
+ * 삭제는 지원하지 않는다. (회원 삭제 기능 없음)
+ */
+public class LoginIdFilter {
+
+    // 다음 필터의 오탐률 비율 : p, p/2, p/4 ... 합계 2p 이므로 첫 필터는 p/2 로 시작
+    private static final double TIGHTENING_RATIO = 0.5;
+    private static final int GROWTH = 2;
+    private static final VarHandle BITS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final long initialCapacity;
+    private final double falsePositiveRate;
+    private volatile Segment[] segments;
+
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder passed = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+
+    /**
+     * @param initialCapacity 첫 필터에 담을 로그인 ID 수
+     * @param falsePositiveRate 없는 ID 를 있다고 잘못 판단할 최대 확률
+     */
+    public LoginIdFilter(long initialCapacity, double falsePositiveRate) {
+        if (initialCapacity <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("initialCapacity=" + initialCapacity + ", falsePositiveRate=" + falsePositiveRate);
+        }
+        this.initialCapacity = initialCapacity;
+        this.falsePositiveRate = falsePositiveRate;
+        this.segments = new Segment[]{new Segment(initialCapacity, falsePositiveRate * (1 - TIGHTENING_RATIO))};
+    }
+
+    public void add(String loginId) {
+        long hash = hash(loginId);
+        Segment last = lastSegment();
+        if (last.count.incrementAndGet() > last.capacity) {
+            last = grow(last);
+            last.count.incrementAndGet();
+        }
+        last.add(hash);
+    }
+
+    public boolean mightContain(String loginId) {
+        long hash = hash(loginId);
+        for (Segment segment : segments) {
+            if (segment.mightContain(hash)) {
+                passed.increment();
+                return true;
+            }
+        }
+        rejected.increment();
+        return false;
+    }
+
+    /**
+     * mightContain 이 true 였지만 저장소에 없었던 경우 (실제 오탐률 측정용)
+     */
+    public void recordFalsePositive() {
+        falsePositives.increment();
+    }
+
+    public synchronized void clear() {
+        segments = new Segment[]{new Segment(initialCapacity, falsePositiveRate * (1 - TIGHTENING_RATIO))};
+    }
+
+    public Stats stats() {
+        Segment[] current = segments;
+        long count = 0;
+        long bits = 0;
+        double notFalsePositive = 1.0;
+        for (Segment segment : current) {
+            count += Math.min(segment.count.get(), segment.capacity);
+            bits += segment.bitSize;
+            notFalsePositive *= 1 - segment.estimatedFalsePositiveRate();
+        }
+        return new Stats(count, current.length, bits / 8, falsePositiveRate, 1 - notFalsePositive,
+                rejected.sum(), passed.sum(), falsePositives.sum());
+    }
+
+    private Segment lastSegment() {
+        Segment[] current = segments;
+        return current[current.length - 1];
+    }
+
+    /**
+     * 가득 찬 필터 다음에 새 필터 추가 (다른 스레드가 먼저 추가했으면 그 필터 사용)
+     */
+    private synchronized Segment grow(Segment full) {
+        Segment last = lastSegment();
+        if (last != full && last.count.get() < last.capacity) {
+            return last;
+        }
+        Segment[] current = segments;
+        Segment[] next = new Segment[current.length + 1];
+        System.arraycopy(current, 0, next, 0, current.length);
+        next[current.length] = new Segment(last.capacity * GROWTH, last.falsePositiveRate * TIGHTENING_RATIO);
+        segments = next;
+        return next[current.length];
+    }
+
+    /**
+     * 64비트 FNV-1a 후 비트를 섞어서(murmur3 fmix64) 고르게 분포시킨다.
+     */
+    static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * 필터 통계
+     * {"count":1000,"segments":1,"memoryBytes":1800,"targetFalsePositiveRate":0.001,"estimatedFalsePositiveRate":0.0001,
+     *  "rejectedCount":950,"passedCount":52,"falsePositiveCount":2}
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class Stats {
+        private final long count;
+        private final int segments;
+        private final long memoryBytes;
+        private final double targetFalsePositiveRate;
+        // 현재 채워진 비트 비율로 계산한 오탐률
+        private final double estimatedFalsePositiveRate;
+        // 저장소를 조회하지 않고 거절한 수
+        private final long rejectedCount;
+        private final long passedCount;
+        private final long falsePositiveCount;
+    }
+
+    /**
+     * 고정 크기 Bloom filter
+     * 비트 배열은 CAS(getAndBitwiseOr) 로 설정하므로 lock 없이 여러 스레드가 동시에 추가할 수 있다.
+     */
+    private static final class Segment {
+
+        private final long capacity;
+        private final double falsePositiveRate;
+        private final long bitSize;
+        private final int hashCount;
+        private final long[] words;
+        private final AtomicLong count = new AtomicLong();
+
+        private Segment(long capacity, double falsePositiveRate) {
+            this.capacity = capacity;
+            this.falsePositiveRate = falsePositiveRate;
+            // m = -n ln p / (ln 2)^2, k = m / n ln 2
+            long bits = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            this.words = new long[(int) Math.max(1, (bits + 63) >>> 6)];
+            this.bitSize = (long) words.length << 6;
+            this.hashCount = Math.max(1, (int) Math.round((double) bitSize / capacity * Math.log(2)));
+        }
+
+        void add(long hash) {
+            // 해시 두 개를 조합해서 k 개의 위치를 만든다. (Kirsch-Mitzenmacher)
+            long h2 = secondHash(hash);
+            for (int i = 1; i <= hashCount; i++) {
+                long bit = index(hash + i * h2);
+                BITS.getAndBitwiseOr(words, (int) (bit >>> 6), 1L << bit);
+            }
+        }
+
+        boolean mightContain(long hash) {
+            long h2 = secondHash(hash);
+            for (int i = 1; i <= hashCount; i++) {
+                long bit = index(hash + i * h2);
+                if (((long) BITS.getAcquire(words, (int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static long secondHash(long hash) {
+            return Long.rotateLeft(hash, 32) * 0x9e3779b97f4a7c15L | 1;
+        }
+
+        private long index(long combined) {
+            return (combined & Long.MAX_VALUE) % bitSize;
+        }
+
+        double estimatedFalsePositiveRate() {
+            long set = 0;
+            for (int i = 0; i < words.length; i++) {
+                set += Long.bitCount((long) BITS.getAcquire(words, i));
+            }
+            return Math.pow((double) set / bitSize, hashCount);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package hello.login.domain.member;
 
 import lombok.Data;
+import lombok.ToString;
 
 import javax.validation.constraints.NotEmpty;
 
@@ -15,6 +16,8 @@ public class Member {
     @NotEmpty
     private String name;
 
+    // 비밀번호 해시는 로그에 남기지 않음
     @NotEmpty
+    @ToString.Exclude
     private String password;
 }
@@ -0,0 +1,95 @@
+package hello.login.domain.member;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 회원 바이너리 형식 (세션 저장용)
+ * 자바 직렬화는 클래스 이름과 필드 정보까지 기록해서 크고 느리므로, 필요한 값만 정해진 순서로 기록한다.
+ *
+ * 형식 : [version byte][id varint][loginId][name]
+ * 문자열은 [길이 + 1 varint][UTF-8] (0 이면 null), id 는 null 이면 0
+ * 비밀번호(해시)는 로그인 이후에는 필요 없으므로 기록하지 않는다. (읽은 회원의 password 는 null)
+ */
+public final class MemberCodec {
+
+    private static final byte VERSION = 1;
+
+    private MemberCodec() {
+    }
+
+    /**
+     * @throws java.nio.BufferOverflowException 남은 공간이 부족하면
+     */
+    public static void encode(Member member, ByteBuffer out) {
+        out.put(VERSION);
+        writeVarLong(out, member.getId() == null ? 0 : member.getId());
+        writeString(out, member.getLoginId());
+        writeString(out, member.getName());
+    }
+
+    /**
+     * @throws IllegalArgumentException 알 수 없는 형식이면
+     */
+    public static Member decode(ByteBuffer in) {
+        byte version = in.get();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("unknown member format version=" + version);
+        }
+        Member member = new Member();
+        long id = readVarLong(in);
+        member.setId(id == 0 ? null : id);
+        member.setLoginId(readString(in));
+        member.setName(readString(in));
+        return member;
+    }
+
+    /**
+     * 문자열 : [길이 + 1 varint][UTF-8] (세션 복제 형식에서도 사용)
+     */
+    public static void writeString(ByteBuffer out, String value) {
+        if (value == null) {
+            writeVarLong(out, 0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length + 1L);
+        out.put(bytes);
+    }
+
+    public static String readString(ByteBuffer in) {
+        long length = readVarLong(in);
+        if (length == 0) {
+            return null;
+        }
+        if (length - 1 > in.remaining()) {
+            throw new IllegalArgumentException("string length=" + (length - 1) + ", remaining=" + in.remaining());
+        }
+        byte[] bytes = new byte[(int) (length - 1)];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 7비트씩 나눠서 기록 (작은 값은 1바이트)
+     */
+    public static void writeVarLong(ByteBuffer out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    public static long readVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("malformed varint");
+    }
+}
@@ -1,45 +1,94 @@
 package hello.login.domain.member;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
-import java.util.*;
+import java.util.List;
+import java.util.Optional;
 
 /**
- * 동시성 문제가 고려되어 있지 않음
- * 실무에서는 ConcurrentHashMap, AtomicLong 사용 고려해야 함
+ * 회원 저장소
+ * ID 발급과 보관은 MemberStore 백엔드(메모리, JDBC)에 맡긴다.
+ * 로그인 ID 는 중복될 수 없고, 로그인 조회는 백엔드의 로그인 ID 인덱스를 사용한다.
+ * 없는 로그인 ID 는 LoginIdFilter(Bloom filter) 에서 먼저 걸러내므로 백엔드를 조회하지 않는다.
  */
 @Slf4j
 @Repository
 public class MemberRepository {
 
-    // static 사용
-    private static Map<Long, Member> store = new HashMap<>();
-    private static long sequence = 0L;
+    private final MemberStore store;
+    private final LoginIdFilter loginIdFilter;
 
+    public MemberRepository() {
+        this(new MemoryMemberStore());
+    }
+
+    public MemberRepository(MemberStore store) {
+        this(store, 100_000, 0.001);
+    }
+
+    /**
+     * 백엔드에 이미 저장된 회원의 로그인 ID 로 필터를 채운다.
+     * @param filterCapacity 필터가 처음에 담을 로그인 ID 수 (넘으면 필터를 추가해서 늘림)
+     * @param filterFalsePositiveRate 없는 로그인 ID 가 필터를 통과할 최대 확률
+     */
+    @Autowired
+    public MemberRepository(MemberStore store,
+                            @Value("${member.login-filter.expected-members:100000}") long filterCapacity,
+                            @Value("${member.login-filter.false-positive-rate:0.001}") double filterFalsePositiveRate) {
+        this.store = store;
+        this.loginIdFilter = new LoginIdFilter(filterCapacity, filterFalsePositiveRate);
+        for (Member member : store.iterateAll()) {
+            loginIdFilter.add(member.getLoginId());
+        }
+    }
+
+    /**
+     * @throws DuplicateMemberException 같은 로그인 ID 의 회원이 이미 있으면
+     */
     public Member save(Member member) {
-        member.setId(++sequence);
-        log.info("save: member={}", member);
-        store.put(member.getId(), member);
+        // 저장 전에 필터에 먼저 추가 (저장 직후의 조회가 필터에서 걸러지지 않도록, 중복으로 실패해도 오탐이 하나 늘 뿐)
+        loginIdFilter.add(member.getLoginId());
+        store.insert(member);
+        log.debug("save: id={}, loginId={}", member.getId(), member.getLoginId());
         return member;
     }
 
     public Member findById(Long id) {
-        return store.get(id);
+        return store.findById(id);
     }
 
     public List<Member> findAll(){
-        return new ArrayList<>(store.values());
+        return store.findAll();
+    }
+
+    /**
+     * 전체 회원을 복사하지 않고 ID 순서로 순회
+     */
+    public Iterable<Member> iterateAll() {
+        return store.iterateAll();
     }
 
     public Optional<Member> findByLoginId(String loginId) {
-        return findAll().stream()
-                .filter(m -> m.getLoginId().equals(loginId))
-                .findFirst();
+        if (loginId == null || !loginIdFilter.mightContain(loginId)) {
+            return Optional.empty();
+        }
+        Optional<Member> member = store.findByLoginId(loginId);
+        if (member.isEmpty()) {
+            loginIdFilter.recordFalsePositive();
+        }
+        return member;
+    }
+
+    public LoginIdFilter.Stats loginIdFilterStats() {
+        return loginIdFilter.stats();
     }
 
     public void clearStore(){
         store.clear();
+        loginIdFilter.clear();
     }
 
 }
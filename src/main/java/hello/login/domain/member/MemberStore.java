@@ -0,0 +1,37 @@
+package hello.login.domain.member;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 회원 저장소 백엔드 (SPI)
+ * ID 발급도 백엔드가 담당한다. (메모리 : 조각별 ID 블록, JDBC : 가장 큰 ID 다음부터)
+ *
+ * member.store 설정으로 선택 : memory (기본), jdbc
+ */
+public interface MemberStore {
+
+    /**
+     * 새 ID 를 발급해서 member 에 설정하고 추가
+     * @throws DuplicateMemberException 같은 로그인 ID 의 회원이 이미 있으면 (저장하지 않음)
+     */
+    void insert(Member member);
+
+    Member findById(Long id);
+
+    List<Member> findAll();
+
+    /**
+     * 전체를 복사하지 않고 ID 순서로 순회 (기본 구현은 findAll)
+     */
+    default Iterable<Member> iterateAll() {
+        return findAll();
+    }
+
+    /**
+     * 로그인 ID 인덱스로 조회 (회원 수와 상관없이 일정한 시간)
+     */
+    Optional<Member> findByLoginId(String loginId);
+
+    void clear();
+}
@@ -0,0 +1,175 @@
+package hello.login.domain.member;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 메모리 회원 저장소 (기본 백엔드)
+ * 로그인 ID 해시로 나눈 여러 조각(shard)에 보관한다. 조각마다 ID 발급기, ID Map, 로그인 ID Map 을 따로 가지므로
+ * 서로 다른 조각에 가입하는 요청은 같은 메모리(캐시 라인)를 두고 경합하지 않는다. (코어 수만큼 가입 처리량 증가)
+ *
+ * ID 발급 : ID 를 BLOCK_SIZE 개씩 묶은 블록을 조각에 번갈아 배정한다. (블록 번호 % 조각 수 = 조각 번호)
+ * 조각 안에서는 자기 블록만 차례로 사용하므로 다른 조각과 공유하는 카운터가 없고, ID 만 보고 조각을 찾을 수 있다.
+ * 따라서 ID 는 가입 순서와 다를 수 있다. 예) 조각 4개 : 1, 1025, 2, 3073, ...
+ *
+ * 같은 로그인 ID 는 항상 같은 조각으로 가므로, 조각의 로그인 ID Map 에 putIfAbsent 로 먼저 차지한 요청만 저장된다.
+ */
+public class MemoryMemberStore implements MemberStore {
+
+    static final int BLOCK_SIZE = 1024;
+
+    private final Shard[] shards;
+    private final int mask;
+
+    public MemoryMemberStore() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param shards 조각 수 (2의 제곱수로 올림)
+     */
+    public MemoryMemberStore(int shards) {
+        int size = shards <= 1 ? 1 : Integer.highestOneBit(shards - 1) << 1;
+        this.shards = new Shard[size];
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            this.shards[i] = new Shard(i);
+        }
+    }
+
+    @Override
+    public void insert(Member member) {
+        Shard shard = shardFor(member.getLoginId());
+        member.setId(shard.nextId());
+        if (shard.byLoginId.putIfAbsent(member.getLoginId(), member) != null) {
+            throw new DuplicateMemberException(member.getLoginId());
+        }
+        shard.byId.put(member.getId(), member);
+    }
+
+    @Override
+    public Member findById(Long id) {
+        if (id == null || id <= 0) {
+            return null;
+        }
+        long block = (id - 1) / BLOCK_SIZE;
+        return shards[(int) (block & mask)].byId.get(id);
+    }
+
+    @Override
+    public List<Member> findAll() {
+        List<Member> result = new ArrayList<>();
+        for (Member member : iterateAll()) {
+            result.add(member);
+        }
+        return result;
+    }
+
+    /**
+     * 조각마다 ID 순서로 정렬되어 있으므로, 각 조각의 현재 회원 중 가장 작은 ID 를 꺼내면서 합친다. (k-way merge)
+     * 전체를 복사하지 않고 조각 수만큼의 iterator 만 사용한다.
+     * 순회 도중의 가입은 반영될 수도 있고 아닐 수도 있다. (weakly consistent)
+     */
+    @Override
+    public Iterable<Member> iterateAll() {
+        return () -> new MergingIterator(shards);
+    }
+
+    @Override
+    public Optional<Member> findByLoginId(String loginId) {
+        if (loginId == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(shardFor(loginId).byLoginId.get(loginId));
+    }
+
+    @Override
+    public void clear() {
+        for (Shard shard : shards) {
+            shard.byLoginId.clear();
+            shard.byId.clear();
+        }
+    }
+
+    public int shardCount() {
+        return shards.length;
+    }
+
+    private Shard shardFor(String loginId) {
+        int h = loginId.hashCode();
+        // 해시 상위 비트도 섞어서 조각이 고르게 나뉘도록
+        return shards[(h ^ (h >>> 16)) & mask];
+    }
+
+    private final class Shard {
+
+        private final int index;
+        // 이 조각이 발급한 ID 수
+        private final AtomicLong issued = new AtomicLong();
+        // ConcurrentSkipListMap : ID 순서로 순회 (합칠 때 사용)
+        private final ConcurrentSkipListMap<Long, Member> byId = new ConcurrentSkipListMap<>();
+        private final ConcurrentHashMap<String, Member> byLoginId = new ConcurrentHashMap<>();
+
+        private Shard(int index) {
+            this.index = index;
+        }
+
+        /**
+         * n 번째 발급 ID : 이 조각의 (n / BLOCK_SIZE) 번째 블록 안의 (n % BLOCK_SIZE) 번째
+         */
+        long nextId() {
+            long n = issued.getAndIncrement();
+            long block = (n / BLOCK_SIZE) * shards.length + index;
+            return block * BLOCK_SIZE + n % BLOCK_SIZE + 1;
+        }
+    }
+
+    private static final class MergingIterator implements Iterator<Member> {
+
+        private final PriorityQueue<Head> heads = new PriorityQueue<>((a, b) -> Long.compare(a.member.getId(), b.member.getId()));
+
+        private MergingIterator(Shard[] shards) {
+            for (Shard shard : shards) {
+                Iterator<Member> iterator = shard.byId.values().iterator();
+                if (iterator.hasNext()) {
+                    heads.add(new Head(iterator.next(), iterator));
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !heads.isEmpty();
+        }
+
+        @Override
+        public Member next() {
+            Head head = heads.poll();
+            if (head == null) {
+                throw new NoSuchElementException();
+            }
+            Member member = head.member;
+            if (head.rest.hasNext()) {
+                heads.add(new Head(head.rest.next(), head.rest));
+            }
+            return member;
+        }
+    }
+
+    private static final class Head {
+        private final Member member;
+        private final Iterator<Member> rest;
+
+        private Head(Member member, Iterator<Member> rest) {
+            this.member = member;
+            this.rest = rest;
+        }
+    }
+}
@@ -1,7 +1,8 @@
 package hello.login.web.argumentresolver;
 
 import hello.login.domain.member.Member;
-import hello.login.web.SessionConstant;
+import hello.login.web.session.LoginSessionStrategy;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.MethodParameter;
 import org.springframework.web.bind.support.WebDataBinderFactory;
@@ -10,13 +11,25 @@ import org.springframework.web.method.support.HandlerMethodArgumentResolver;
 import org.springframework.web.method.support.ModelAndViewContainer;
 
 import javax.servlet.http.HttpServletRequest;
-import javax.servlet.http.HttpSession;
+import javax.servlet.http.HttpServletResponse;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Slf4j
+@RequiredArgsConstructor
 public class LoginMemberArgumentResolver implements HandlerMethodArgumentResolver {
 
+    private final LoginSessionStrategy loginSessionStrategy;
+    // 파라미터별 supportsParameter 결과 (컨트롤러 메소드 파라미터 수만큼만 쌓인다)
+    private final Map<MethodParameter, Boolean> supports = new ConcurrentHashMap<>();
+
     @Override
     public boolean supportsParameter(MethodParameter parameter) {
+        // 어노테이션 조회는 리플렉션이므로 파라미터마다 처음 한 번만 확인한다.
+        return supports.computeIfAbsent(parameter, this::hasLoginMember);
+    }
+
+    private boolean hasLoginMember(MethodParameter parameter) {
         log.info("supportsParameter 실행");
 
         boolean hasLoginAnnotation = parameter.hasParameterAnnotation(Login.class);
@@ -33,12 +46,10 @@ public class LoginMemberArgumentResolver implements HandlerMethodArgumentResolve
         log.info("resolverArgument 실행");
 
         HttpServletRequest request = (HttpServletRequest) webRequest.getNativeRequest();
-        HttpSession session = request.getSession(false);
-
-        if (session == null) {
-            return null;
-        }
+        HttpServletResponse response = (HttpServletResponse) webRequest.getNativeResponse();
 
-        return session.getAttribute(SessionConstant.LOGIN_MEMBER);
+        // 로그인하지 않았으면 null (세션 방식은 LoginSessionStrategy)
+        // 로그인 체크 필터나 인터셉터가 이미 조회했으면 요청 속성에 보관된 회원 (RequestScopedLoginStrategy)
+        return loginSessionStrategy.getLoginMember(request, response);
     }
 }
@@ -1,16 +1,22 @@
 package hello.login.web.filter;
 
+import hello.login.web.id.IdGenerator;
 import lombok.extern.slf4j.Slf4j;
 
 import javax.servlet.*;
 import javax.servlet.http.HttpServletRequest;
 import java.io.IOException;
-import java.util.UUID;
 
 @Slf4j
 public class LogFilter implements Filter {
     // Filter 는 인터페이스이므로 구현해야 한다.
 
+    private final IdGenerator idGenerator;
+
+    public LogFilter(IdGenerator idGenerator) {
+        this.idGenerator = idGenerator;
+    }
+
     @Override
     public void init(FilterConfig filterConfig) throws ServletException {
         log.info("log filter init");
@@ -24,8 +30,9 @@ public class LogFilter implements Filter {
         HttpServletRequest httpRequest = (HttpServletRequest) request;
         String requestURI = httpRequest.getRequestURI();
 
-        // HTTP 요청을 구분하기 위해 요청당 임의의 uuid 를 생성한다.
-        String uuid = UUID.randomUUID().toString();
+        // HTTP 요청을 구분하기 위해 요청당 ID 를 생성한다.
+        // 처음에는 UUID.randomUUID() 를 사용했지만, 로그 구분에는 추측할 수 없는 난수가 필요 없으므로 시간 순서 ID 사용 (SequentialIdGenerator)
+        String uuid = idGenerator.nextId();
         try{
             log.info("REQUEST [{}][{}]", uuid, requestURI);
             // 가장 중요
@@ -1,6 +1,7 @@
 package hello.login.web.filter;
 
-import hello.login.web.SessionConstant;
+import hello.login.web.session.LoginSessionStrategy;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.util.PatternMatchUtils;
 import org.thymeleaf.util.PatternUtils;
@@ -8,10 +9,10 @@ import org.thymeleaf.util.PatternUtils;
 import javax.servlet.*;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import javax.servlet.http.HttpSession;
 import java.io.IOException;
 
 @Slf4j
+@RequiredArgsConstructor
 public class LoginCheckFilter implements Filter {
 
     // 인증 필터를 적용해도 홈, 회원가입, 로그인 화면, css 등과 같은 리소스에는 접근할 수 있어야 한다.
@@ -19,6 +20,8 @@ public class LoginCheckFilter implements Filter {
     // 화이트 리소스를 제외한 나머지 모든 경로에는 인증체크 로직을 적용한다.
     private static final String[] whiteList = {"/", "/members/add", "/login", "/logout", "/css/*"};
 
+    private final LoginSessionStrategy loginSessionStrategy;
+
     @Override
     public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
         // ServletRequest 다운 캐스팅
@@ -34,9 +37,7 @@ public class LoginCheckFilter implements Filter {
             // 화이트 리스트가 아니면 인증체크 로직을 실행
             if (isLoginCheckPath(requestURI)){
                 log.info("인증체크 로직 실행 {}", requestURI);
-                HttpSession session = httpServletRequest.getSession(false);
-
-                if (session == null || session.getAttribute(SessionConstant.LOGIN_MEMBER) == null ){
+                if (loginSessionStrategy.getLoginMember(httpServletRequest, httpServletResponse) == null) {
                     log.info("미인증 유저 요청 {}", requestURI);
                     // 미인증 유저는 로그인으로 redirect
                     // 로그인 이후 다시 홈으로 이동하면 원하는 경로를 다시 찾아가야 하는 번거로움이 있다.
@@ -0,0 +1,40 @@
+package hello.login.web.filter;
+
+import hello.login.web.session.HttpSessionSnapshotListener;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.servlet.*;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpSession;
+import java.io.IOException;
+
+/**
+ * 재시작 전, 또는 다른 서버에서 로그인한 세션 복구
+ * 요청한 세션 ID(JSESSIONID)가 서블릿 컨테이너에 없으면 보조 저장소(세션 저장 파일, 다른 서버에서 받은 세션)에서 찾아서, 새 세션에 로그인 회원을 넣는다.
+ * 세션 ID 는 새로 발급되고(쿠키 변경) 사용자는 로그인 상태를 유지한다.
+ * 다른 필터(LoginCheckFilter)보다 먼저 실행되어야 한다.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class SessionRestoreFilter implements Filter {
+
+    private final HttpSessionSnapshotListener snapshotListener;
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
+        HttpServletRequest httpRequest = (HttpServletRequest) request;
+        String requestedSessionId = httpRequest.getRequestedSessionId();
+        if (requestedSessionId != null) {
+            if (httpRequest.isRequestedSessionIdValid()) {
+                HttpSession session = httpRequest.getSession(false);
+                if (session != null) {
+                    snapshotListener.touch(session);
+                }
+            } else if (snapshotListener.restore(requestedSessionId, httpRequest::getSession)) {
+                log.info("session restored [{}]", httpRequest.getRequestURI());
+            }
+        }
+        chain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,11 @@
+package hello.login.web.id;
+
+/**
+ * 식별자 생성기
+ * 세션 ID 처럼 추측할 수 없어야 하는 값은 RandomIdGenerator, 로그 구분용 요청 ID 처럼 겹치지만 않으면 되는 값은 SequentialIdGenerator 를 사용한다.
+ * 기본 생성기는 IdGeneratorConfig 에서 등록한다.
+ */
+public interface IdGenerator {
+
+    String nextId();
+}
@@ -0,0 +1,47 @@
+package hello.login.web.id;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * 시간 순서 ID (로그 구분용 요청 ID)
+ * 추측할 수 없을 필요는 없고, 겹치지 않고 만든 순서대로 정렬되면 충분하므로 난수 대신 카운터를 사용한다.
+ *
+ * 값 : 상위 비트는 현재 시각(밀리초), 하위 COUNTER_BITS 비트는 같은 밀리초 안의 순번
+ * 항상 직전 값보다 크다. (시계가 뒤로 가거나 밀리초당 순번을 다 쓰면 직전 값 + 1)
+ * 결과는 13자 base32 (Crockford) : 문자열 순서와 값 순서가 같다. 예) 01HF3K2Q8C000
+ */
+public class SequentialIdGenerator implements IdGenerator {
+
+    private static final int COUNTER_BITS = 16;
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+
+    private final AtomicLong last = new AtomicLong();
+    private final LongSupplier clock;
+
+    public SequentialIdGenerator() {
+        this(System::currentTimeMillis);
+    }
+
+    SequentialIdGenerator(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public String nextId() {
+        long next = clock.getAsLong() << COUNTER_BITS;
+        return encode(last.accumulateAndGet(next, (previous, now) -> Math.max(previous + 1, now)));
+    }
+
+    /**
+     * 64비트를 5비트씩 13자로 (첫 글자는 상위 4비트)
+     */
+    static String encode(long value) {
+        char[] chars = new char[13];
+        for (int i = 12; i >= 0; i--) {
+            chars[i] = ALPHABET[(int) (value & 31)];
+            value >>>= 5;
+        }
+        return new String(chars);
+    }
+}
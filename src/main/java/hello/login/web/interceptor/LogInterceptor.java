@@ -1,5 +1,6 @@
 package hello.login.web.interceptor;
 
+import hello.login.web.id.IdGenerator;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.servlet.HandlerInterceptor;
@@ -7,7 +8,6 @@ import org.springframework.web.servlet.ModelAndView;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import java.util.UUID;
 
 /**
  * 요청 로그 인터셉터
@@ -17,13 +17,19 @@ public class LogInterceptor implements HandlerInterceptor {
 
     public static final String LOG_ID = "logId";
 
+    private final IdGenerator idGenerator;
+
+    public LogInterceptor(IdGenerator idGenerator) {
+        this.idGenerator = idGenerator;
+    }
+
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
 
         String requestURI = request.getRequestURI();
 
-        // 요청 로그 구분하기 위해 UUID 생성
-        String uuid = UUID.randomUUID().toString();
+        // 요청 로그 구분하기 위해 ID 생성 (UUID 대신 시간 순서 ID : SequentialIdGenerator)
+        String uuid = idGenerator.nextId();
         // 서블릿 필터의 경우 지역변수로 해결이 가능하지만, 스프링 인터셉터는 호출 시점이 완전히 분리되어 있다.
         // 즉 preHandle 에서 지정한 값을 postHandle, afterCompletion 에서 함께 사용하려면 어딘가에 담아둬야 한다.
         // LogInterceptor 도 싱글톤 처럼 사용되기 때문에 멤버변수를 사용하면 위험하다.
@@ -1,24 +1,26 @@
 package hello.login.web.interceptor;
 
-import hello.login.web.SessionConstant;
+import hello.login.web.session.LoginSessionStrategy;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.servlet.HandlerInterceptor;
 import org.springframework.web.servlet.ModelAndView;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import javax.servlet.http.HttpSession;
 
 @Slf4j
+@RequiredArgsConstructor
 public class LoginCheckInterceptor implements HandlerInterceptor {
 
+    private final LoginSessionStrategy loginSessionStrategy;
+
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
         String requestURI = request.getRequestURI();
 
         log.info("인증체크 인터셉터 실행 {}", requestURI);
-        HttpSession session = request.getSession(false);
-        if (session == null || session.getAttribute(SessionConstant.LOGIN_MEMBER) == null) {
+        if (loginSessionStrategy.getLoginMember(request, response) == null) {
             log.info("미인증 사용자 요청");
             // 로그인 화면 redirect
             response.sendRedirect("/login?redirectURL=" + requestURI);
@@ -0,0 +1,43 @@
+package hello.login.web.item;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 대량 등록 결과
+ * 오류는 앞에서부터 MAX_ERRORS 개만 보관하고 나머지는 개수만 센다. (입력 크기와 상관없이 메모리 일정)
+ */
+@Getter
+public class ImportResult {
+
+    private static final int MAX_ERRORS = 100;
+
+    private long imported;
+    private long rejected;
+    private final List<LineError> errors = new ArrayList<>();
+
+    void imported(int count) {
+        imported += count;
+    }
+
+    void reject(long line, String message) {
+        rejected++;
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(new LineError(line, message));
+        }
+    }
+
+    @Getter
+    public static class LineError {
+
+        private final long line;
+        private final String message;
+
+        LineError(long line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+    }
+}
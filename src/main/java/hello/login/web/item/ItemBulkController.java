@@ -0,0 +1,109 @@
+package hello.login.web.item;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import hello.login.domain.item.Item;
+import hello.login.domain.item.ItemRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * 상품 대량 등록/내보내기 (NDJSON, CSV)
+ * 요청/응답 본문을 한번에 메모리에 올리지 않고 스트림으로 처리한다.
+ *
+ * curl -X POST -H 'Content-Type: application/x-ndjson' --data-binary @items.ndjson -b JSESSIONID=... localhost:8080/items/import
+ * curl -b JSESSIONID=... 'localhost:8080/items/export?format=csv' > items.csv
+ */
+@RestController
+@RequestMapping("/items")
+@RequiredArgsConstructor
+public class ItemBulkController {
+
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+
+    private final ItemRepository itemRepository;
+    private final ItemImporter itemImporter;
+    private final ObjectMapper objectMapper;
+
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ImportResult importNdjson(InputStream body, Locale locale) throws IOException {
+        return itemImporter.importNdjson(body, locale);
+    }
+
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ImportResult importCsv(InputStream body, Locale locale) throws IOException {
+        return itemImporter.importCsv(body, locale);
+    }
+
+    /**
+     * 전체 상품 내보내기
+     * 요청 스레드를 반환한 뒤 비동기로 상품을 하나씩 응답에 쓴다. (chunked 응답)
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(defaultValue = "ndjson") String format) {
+        boolean csv = "csv".equalsIgnoreCase(format);
+        StreamingResponseBody body = out -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 1 << 16);
+            if (csv) {
+                writeCsv(writer);
+            } else {
+                writeNdjson(writer);
+            }
+            writer.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(csv ? TEXT_CSV : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"items." + (csv ? "csv" : "ndjson") + "\"")
+                .body(body);
+    }
+
+    private void writeNdjson(Writer writer) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(writer);
+        // 응답 스트림은 서블릿 컨테이너가 닫는다.
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(null);
+        // 상품마다 flush 하지 않고 버퍼가 찰 때만 내보낸다.
+        ObjectWriter itemWriter = objectMapper.writerFor(Item.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        for (Item item : itemRepository.iterateAll()) {
+            itemWriter.writeValue(generator, item);
+            generator.writeRaw('\n');
+        }
+        generator.flush();
+    }
+
+    private void writeCsv(Writer writer) throws IOException {
+        writer.write(ItemCsv.HEADER);
+        writer.write('\n');
+        StringBuilder line = new StringBuilder(64);
+        for (Item item : itemRepository.iterateAll()) {
+            line.setLength(0);
+            ItemCsv.appendValue(line, item.getId());
+            line.append(',');
+            ItemCsv.appendValue(line, item.getItemName());
+            line.append(',');
+            ItemCsv.appendValue(line, item.getPrice());
+            line.append(',');
+            ItemCsv.appendValue(line, item.getQuantity());
+            line.append('\n');
+            writer.append(line);
+        }
+    }
+}
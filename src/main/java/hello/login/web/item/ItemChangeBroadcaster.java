@@ -0,0 +1,219 @@
+package hello.login.web.item;
+
+import hello.login.domain.item.ItemChange;
+import hello.login.domain.item.ItemChangeFeed;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 상품 변경 피드를 SSE 구독자에게 전달
+ *
+ * 변경이 기록되면 dispatcher 스레드가 깨어나서, 밀린 이벤트가 있는 구독자마다 전송 작업을 sender 스레드 풀에 넘긴다.
+ * 구독자 하나는 한번에 하나의 sender 스레드만 사용하므로, 느린 구독자가 다른 구독자를 막는 범위가 스레드 하나로 제한된다.
+ * 느린 구독자가 링 버퍼 크기보다 뒤처지면 reset 이벤트를 보내고 가장 오래된 이벤트부터 다시 보낸다. (화면 전체 다시 조회)
+ */
+@Slf4j
+@Component
+public class ItemChangeBroadcaster {
+
+    private static final int SEND_BATCH = 256;
+    private static final long HEARTBEAT_SECONDS = 15;
+
+    private final ItemChangeFeed feed;
+    private final int maxSubscribers;
+    private final long timeoutMillis;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean dispatchScheduled = new AtomicBoolean();
+    private final ScheduledExecutorService dispatcher;
+    private final ExecutorService senders;
+
+    public ItemChangeBroadcaster(ItemChangeFeed feed,
+                                 @Value("${item.changes.max-subscribers:1000}") int maxSubscribers,
+                                 @Value("${item.changes.sender-threads:2}") int senderThreads,
+                                 @Value("${item.changes.timeout-minutes:30}") long timeoutMinutes) {
+        this.feed = feed;
+        this.maxSubscribers = maxSubscribers;
+        this.timeoutMillis = TimeUnit.MINUTES.toMillis(timeoutMinutes);
+        this.dispatcher = Executors.newSingleThreadScheduledExecutor(daemon("item-changes-dispatcher"));
+        this.senders = Executors.newFixedThreadPool(senderThreads, daemon("item-changes-sender"));
+        // 쓰는 스레드는 dispatcher 에 작업을 넘기기만 하고 바로 돌아간다. (이미 예약되어 있으면 생략)
+        feed.addPublishHook(this::wakeUp);
+        dispatcher.scheduleWithFixedDelay(this::heartbeat, HEARTBEAT_SECONDS, HEARTBEAT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * @param lastEventId 마지막으로 받은 이벤트 순번 (없으면 구독 이후의 변경만 전달)
+     * @return 구독자가 너무 많으면 null
+     */
+    public SseEmitter subscribe(Long lastEventId) {
+        if (subscribers.size() >= maxSubscribers) {
+            return null;
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        long last = feed.lastSequence();
+        Subscriber subscriber = new Subscriber(emitter, lastEventId == null ? last + 1 : lastEventId + 1);
+        if (subscriber.cursor > last + 1) {
+            // 서버가 재시작되어 순번이 처음부터 다시 시작된 경우
+            subscriber.cursor = last + 1;
+            subscriber.resetPending = true;
+        }
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        log.debug("item changes subscribed: cursor={}, subscribers={}", subscriber.cursor, subscribers.size());
+        wakeUp();
+        return emitter;
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    public void close() {
+        dispatcher.shutdownNow();
+        senders.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+        subscribers.clear();
+    }
+
+    private void wakeUp() {
+        if (dispatchScheduled.compareAndSet(false, true)) {
+            try {
+                dispatcher.execute(this::dispatch);
+            } catch (RuntimeException e) {
+                // 종료 중
+                dispatchScheduled.set(false);
+            }
+        }
+    }
+
+    private void dispatch() {
+        dispatchScheduled.set(false);
+        long last = feed.lastSequence();
+        for (Subscriber subscriber : subscribers) {
+            if ((subscriber.cursor <= last || subscriber.resetPending) && subscriber.sending.compareAndSet(false, true)) {
+                senders.execute(() -> drain(subscriber));
+            }
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        boolean sent = false;
+        try {
+            if (subscriber.resetPending) {
+                subscriber.resetPending = false;
+                sendReset(subscriber);
+            }
+            while (true) {
+                ItemChangeFeed.Batch batch = feed.read(subscriber.cursor, SEND_BATCH);
+                for (ItemChange change : batch.getChanges()) {
+                    subscriber.emitter.send(SseEmitter.event()
+                            .id(String.valueOf(change.getSequence()))
+                            .name(change.getType().name().toLowerCase())
+                            .data(change.getItem(), MediaType.APPLICATION_JSON));
+                }
+                subscriber.cursor = batch.getNext();
+                if (batch.isOverrun()) {
+                    sendReset(subscriber);
+                    continue;
+                }
+                if (batch.getChanges().isEmpty()) {
+                    break;
+                }
+            }
+            sent = true;
+        } catch (IOException | IllegalStateException e) {
+            // 연결이 끊긴 구독자
+            subscribers.remove(subscriber);
+            subscriber.emitter.completeWithError(e);
+        } finally {
+            release(subscriber, sent);
+        }
+    }
+
+    /**
+     * 전송을 마친 구독자의 sending 을 놓는다. (drain, heartbeat 모두)
+     * 전송하는 동안 dispatch() 는 이 구독자를 건너뛰므로, 그 사이 기록된 이벤트를 놓치지 않도록 다시 확인한다.
+     * @param sent false 이면 전송 실패 (다시 확인하지 않음)
+     */
+    private void release(Subscriber subscriber, boolean sent) {
+        subscriber.sending.set(false);
+        if (sent && (subscriber.cursor <= feed.lastSequence() || subscriber.resetPending)) {
+            wakeUp();
+        }
+    }
+
+    private void sendReset(Subscriber subscriber) throws IOException {
+        log.info("item changes subscriber overrun: resume from {}", subscriber.cursor);
+        subscriber.emitter.send(SseEmitter.event()
+                .id(String.valueOf(subscriber.cursor - 1))
+                .name("reset")
+                .data(Map.of("next", subscriber.cursor), MediaType.APPLICATION_JSON));
+    }
+
+    /**
+     * 변경이 없어도 주기적으로 주석을 보내서 끊긴 연결을 정리한다.
+     */
+    private void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.sending.compareAndSet(false, true)) {
+                senders.execute(() -> {
+                    boolean sent = false;
+                    try {
+                        subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+                        sent = true;
+                    } catch (IOException | IllegalStateException e) {
+                        subscribers.remove(subscriber);
+                        subscriber.emitter.completeWithError(e);
+                    } finally {
+                        release(subscriber, sent);
+                    }
+                });
+            }
+        }
+    }
+
+    private static ThreadFactory daemon(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static class Subscriber {
+
+        private final SseEmitter emitter;
+        private final AtomicBoolean sending = new AtomicBoolean();
+        // 다음에 보낼 순번 (sending 을 가진 스레드만 변경)
+        private volatile long cursor;
+        private volatile boolean resetPending;
+
+        Subscriber(SseEmitter emitter, long cursor) {
+            this.emitter = emitter;
+            this.cursor = cursor;
+        }
+    }
+}
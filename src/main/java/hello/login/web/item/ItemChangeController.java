@@ -0,0 +1,36 @@
+package hello.login.web.item;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * 상품 변경 구독 (Server-Sent Events)
+ * event: save | update -> data: 변경된 상품 JSON, id: 변경 순번
+ * event: reset -> 놓친 변경이 있으므로 목록 전체를 다시 조회해야 함
+ *
+ * 다시 연결할 때 브라우저(EventSource)가 Last-Event-ID 헤더로 마지막 순번을 보내면 그 다음 변경부터 이어서 받는다.
+ * 헤더를 보낼 수 없는 클라이언트는 ?since=순번 으로 지정한다.
+ */
+@RestController
+@RequiredArgsConstructor
+public class ItemChangeController {
+
+    private final ItemChangeBroadcaster broadcaster;
+
+    @GetMapping(value = "/items/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter changes(@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+                              @RequestParam(required = false) Long since) {
+        SseEmitter emitter = broadcaster.subscribe(lastEventId != null ? lastEventId : since);
+        if (emitter == null) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "too many subscribers");
+        }
+        return emitter;
+    }
+}
@@ -1,7 +1,10 @@
 package hello.login.web.item;
 
 import hello.login.domain.item.Item;
+import hello.login.domain.item.ItemCache;
 import hello.login.domain.item.ItemRepository;
+import hello.login.domain.item.ItemSearchCond;
+import hello.login.domain.item.ItemSearchIndex;
 import hello.login.web.item.form.ItemSaveForm;
 import hello.login.web.item.form.ItemUpdateForm;
 import lombok.RequiredArgsConstructor;
@@ -11,6 +14,7 @@ import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.util.List;
@@ -21,18 +25,60 @@ import java.util.List;
 @RequiredArgsConstructor
 public class ItemController {
 
-    private final ItemRepository itemRepository;
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int MAX_SEARCH_RESULTS = 100;
 
+    private final ItemRepository itemRepository;
+    private final ItemSearchIndex itemSearchIndex;
+    private final ItemCache itemCache;
+
+    /**
+     * 상품 목록
+     * 검색 조건이 있으면 보조 인덱스 순서로, after(마지막으로 본 상품 ID) 다음부터 size 개씩 키셋 페이지로 조회 (size 가 없으면 DEFAULT_PAGE_SIZE)
+     * 검색 조건이 없을 때 size 가 없으면 전체 목록, 있으면 ID 순서로 키셋 페이지 조회
+     */
     @GetMapping
-    public String items(Model model) {
-        List<Item> items = itemRepository.findAll();
-        model.addAttribute("items", items);
+    public String items(@ModelAttribute("itemSearch") ItemSearchCond itemSearch,
+                        @RequestParam(required = false) Long after,
+                        @RequestParam(required = false) Integer size, Model model) {
+        if (itemSearch.hasCondition()) {
+            int limit = pageSize(size == null ? DEFAULT_PAGE_SIZE : size);
+            addPage(model, itemRepository.findPage(itemSearch, after, limit), limit);
+            return "items/items";
+        }
+
+        if (size == null) {
+            // 전체 목록을 리스트로 복사하지 않고, 타임리프가 렌더링하면서 순회하도록 넘긴다.
+            model.addAttribute("items", itemRepository.iterateAll());
+            return "items/items";
+        }
+
+        int limit = pageSize(size);
+        addPage(model, itemRepository.findPage(after, limit), limit);
         return "items/items";
     }
 
+    /**
+     * 상품명 검색 (검색어의 모든 단어를 포함하는 상품을 관련도 순서로)
+     */
+    @GetMapping("/search")
+    public String search(@RequestParam(defaultValue = "") String q, Model model) {
+        model.addAttribute("itemSearch", new ItemSearchCond());
+        model.addAttribute("items", itemSearchIndex.search(q, MAX_SEARCH_RESULTS));
+        model.addAttribute("q", q);
+        return "items/items";
+    }
+
+    /**
+     * 상품 버전으로 ETag 를 만들어서, 변경이 없으면 렌더링 없이 304 Not Modified 로 응답
+     */
     @GetMapping("/{itemId}")
-    public String item(@PathVariable long itemId, Model model) {
-        Item item = itemRepository.findById(itemId);
+    public String item(@PathVariable long itemId, WebRequest webRequest, Model model) {
+        Item item = itemCache.findById(itemId);
+        if (item != null && webRequest.checkNotModified(etag(item))) {
+            return null;
+        }
         model.addAttribute("item", item);
         return "items/item";
     }
@@ -72,8 +118,11 @@ public class ItemController {
     }
 
     @GetMapping("/{itemId}/edit")
-    public String editForm(@PathVariable Long itemId, Model model) {
-        Item item = itemRepository.findById(itemId);
+    public String editForm(@PathVariable Long itemId, WebRequest webRequest, Model model) {
+        Item item = itemCache.findById(itemId);
+        if (item != null && webRequest.checkNotModified(etag(item))) {
+            return null;
+        }
         model.addAttribute("item", item);
         return "items/editForm";
     }
@@ -99,8 +148,29 @@ public class ItemController {
         itemParam.setPrice(form.getPrice());
         itemParam.setQuantity(form.getQuantity());
 
-        itemRepository.update(itemId, itemParam);
+        //폼을 연 이후에 다른 사용자가 수정했으면 덮어쓰지 않는다.
+        if (!itemRepository.update(itemId, form.getVersion(), itemParam)) {
+            bindingResult.reject("staleVersion");
+            return "items/editForm";
+        }
         return "redirect:/items/{itemId}";
     }
 
+    private static int pageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    private static void addPage(Model model, List<Item> items, int limit) {
+        model.addAttribute("items", items);
+        model.addAttribute("size", limit);
+        if (items.size() == limit) {
+            // 다음 페이지 커서 : 현재 페이지의 마지막 상품 ID
+            model.addAttribute("nextAfter", items.get(limit - 1).getId());
+        }
+    }
+
+    private String etag(Item item) {
+        return "W/\"" + item.getId() + "-" + item.getVersion() + "\"";
+    }
+
 }
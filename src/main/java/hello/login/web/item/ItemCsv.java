@@ -0,0 +1,92 @@
+package hello.login.web.item;
+
+import org.springframework.context.MessageSourceResolvable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 상품 CSV 한 줄 읽기/쓰기 (RFC 4180)
+ * 쉼표, 큰따옴표가 들어간 값은 큰따옴표로 감싸고 안의 큰따옴표는 두 번 쓴다.
+ * 값 안의 줄바꿈은 지원하지 않는다. (한 줄이 상품 하나)
+ */
+class ItemCsv {
+
+    static final String HEADER = "id,itemName,price,quantity";
+
+    private ItemCsv() {
+    }
+
+    static List<String> parseLine(String line) {
+        List<String> values = new ArrayList<>(4);
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    value.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        if (quoted) {
+            throw new FormatException("import.csv.unclosedQuote");
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    static void appendValue(StringBuilder out, Object value) {
+        if (value == null) {
+            return;
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            out.append(text);
+            return;
+        }
+        out.append('"').append(text.replace("\"", "\"\"")).append('"');
+    }
+
+    /**
+     * CSV 값 형식 오류 : 메시지는 errors.properties 의 코드로 요청 locale 에 맞게 찾는다.
+     */
+    static class FormatException extends IllegalArgumentException implements MessageSourceResolvable {
+
+        private final String code;
+        private final Object[] arguments;
+
+        FormatException(String code, Object... arguments) {
+            super(code);
+            this.code = code;
+            this.arguments = arguments;
+        }
+
+        @Override
+        public String[] getCodes() {
+            return new String[]{code};
+        }
+
+        @Override
+        public Object[] getArguments() {
+            return arguments;
+        }
+
+        @Override
+        public String getDefaultMessage() {
+            return code;
+        }
+    }
+}
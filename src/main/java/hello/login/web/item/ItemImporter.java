@@ -0,0 +1,214 @@
+package hello.login.web.item;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import hello.login.domain.item.Item;
+import hello.login.domain.item.ItemRepository;
+import hello.login.web.item.form.ItemSaveForm;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.MessageSource;
+import org.springframework.stereotype.Component;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * 상품 대량 등록
+ * 입력을 한 줄씩 읽어서 ItemSaveForm 검증(Bean Validation + totalPriceMin)을 거친 뒤 batchSize 개씩 saveAll 로 저장한다.
+ * 전체 입력을 메모리에 올리지 않으므로 입력 크기와 상관없이 메모리 사용량이 일정하다.
+ * 검증에 실패한 줄은 건너뛰고 결과에 줄 번호와 함께 남긴다.
+ */
+@Slf4j
+@Component
+public class ItemImporter {
+
+    private final ItemRepository itemRepository;
+    private final Validator validator;
+    private final MessageSource messageSource;
+    private final ObjectReader formReader;
+    private final int batchSize;
+
+    public ItemImporter(ItemRepository itemRepository, Validator validator, MessageSource messageSource,
+                        ObjectMapper objectMapper, @Value("${item.import.batch-size:1000}") int batchSize) {
+        this.itemRepository = itemRepository;
+        this.validator = validator;
+        this.messageSource = messageSource;
+        // ObjectReader 는 불변 객체라서 한번 만들어 두고 모든 요청에서 재사용한다.
+        // 내보내기 결과의 id, version 처럼 폼에 없는 필드는 무시한다.
+        this.formReader = objectMapper.readerFor(ItemSaveForm.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * NDJSON : 한 줄에 상품 JSON 하나 {"itemName":"itemA","price":10000,"quantity":10}
+     */
+    public ImportResult importNdjson(InputStream in, Locale locale) throws IOException {
+        Batch batch = new Batch(locale);
+        BufferedReader reader = reader(in);
+        long lineNo = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNo++;
+            if (line.isBlank()) {
+                continue;
+            }
+            ItemSaveForm form;
+            try {
+                form = formReader.readValue(line);
+            } catch (JsonProcessingException e) {
+                batch.result.reject(lineNo, batch.message("import.json.invalid", e.getOriginalMessage()));
+                continue;
+            }
+            batch.add(lineNo, form);
+        }
+        return batch.finish();
+    }
+
+    /**
+     * CSV : 첫 줄은 헤더 (itemName, price, quantity 컬럼 필수, 순서 무관, 나머지 컬럼은 무시)
+     * 내보내기(export) 결과를 그대로 다시 등록할 수 있다.
+     */
+    public ImportResult importCsv(InputStream in, Locale locale) throws IOException {
+        Batch batch = new Batch(locale);
+        BufferedReader reader = reader(in);
+        String header = reader.readLine();
+        if (header == null) {
+            return batch.finish();
+        }
+        List<String> columns = ItemCsv.parseLine(header.startsWith("\uFEFF") ? header.substring(1) : header);
+        int nameColumn = columns.indexOf("itemName");
+        int priceColumn = columns.indexOf("price");
+        int quantityColumn = columns.indexOf("quantity");
+        if (nameColumn < 0 || priceColumn < 0 || quantityColumn < 0) {
+            batch.result.reject(1, batch.message("import.csv.header", header));
+            return batch.finish();
+        }
+
+        long lineNo = 1;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNo++;
+            if (line.isBlank()) {
+                continue;
+            }
+            ItemSaveForm form = new ItemSaveForm();
+            try {
+                List<String> values = ItemCsv.parseLine(line);
+                form.setItemName(column(values, nameColumn));
+                form.setPrice(toInteger(column(values, priceColumn)));
+                form.setQuantity(toInteger(column(values, quantityColumn)));
+            } catch (ItemCsv.FormatException e) {
+                batch.result.reject(lineNo, batch.message("import.csv.invalid", messageSource.getMessage(e, batch.locale)));
+                continue;
+            }
+            batch.add(lineNo, form);
+        }
+        return batch.finish();
+    }
+
+    private BufferedReader reader(InputStream in) {
+        return new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 1 << 16);
+    }
+
+    private static String column(List<String> values, int index) {
+        if (index >= values.size()) {
+            return null;
+        }
+        String value = values.get(index);
+        return value.isEmpty() ? null : value;
+    }
+
+    private static Integer toInteger(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            throw new ItemCsv.FormatException("import.csv.notNumber", value);
+        }
+    }
+
+    /**
+     * 요청 하나의 등록 진행 상태 (요청 스레드에서만 사용)
+     */
+    private class Batch {
+
+        private final Locale locale;
+        private final ImportResult result = new ImportResult();
+        private List<Item> items = new ArrayList<>(batchSize);
+
+        Batch(Locale locale) {
+            this.locale = locale;
+        }
+
+        void add(long lineNo, ItemSaveForm form) {
+            String error = validate(form);
+            if (error != null) {
+                result.reject(lineNo, error);
+                return;
+            }
+            items.add(new Item(form.getItemName(), form.getPrice(), form.getQuantity()));
+            if (items.size() == batchSize) {
+                flush();
+            }
+        }
+
+        /**
+         * 요청 locale 의 거절 메시지 (errors.properties)
+         */
+        String message(String code, Object... args) {
+            return messageSource.getMessage(code, args, locale);
+        }
+
+        ImportResult finish() {
+            flush();
+            log.info("item import: imported={}, rejected={}", result.getImported(), result.getRejected());
+            return result;
+        }
+
+        private void flush() {
+            if (items.isEmpty()) {
+                return;
+            }
+            itemRepository.saveAll(items);
+            result.imported(items.size());
+            // 저장된 리스트는 수신자가 참조할 수 있으므로 재사용하지 않는다.
+            items = new ArrayList<>(batchSize);
+        }
+
+        private String validate(ItemSaveForm form) {
+            Set<ConstraintViolation<ItemSaveForm>> violations = validator.validate(form);
+            if (!violations.isEmpty()) {
+                StringBuilder message = new StringBuilder();
+                for (ConstraintViolation<ItemSaveForm> violation : violations) {
+                    if (message.length() > 0) {
+                        message.append(", ");
+                    }
+                    message.append(violation.getPropertyPath()).append(": ").append(violation.getMessage());
+                }
+                return message.toString();
+            }
+
+            //특정 필드 예외가 아닌 전체 예외 (ItemController.addItem 과 같은 규칙)
+            long resultPrice = (long) form.getPrice() * form.getQuantity();
+            if (resultPrice < 10000) {
+                return messageSource.getMessage("totalPriceMin", new Object[]{10000, resultPrice}, locale);
+            }
+            return null;
+        }
+    }
+}
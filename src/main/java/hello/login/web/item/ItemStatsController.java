@@ -0,0 +1,32 @@
+package hello.login.web.item;
+
+import hello.login.domain.item.InventoryStats;
+import hello.login.domain.item.ItemCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 재고 집계 조회 : 상품 수와 상관없이 O(1)
+ * {"itemCount":3,"inventoryValue":1100000,"lowStockCount":1,"lowStockThreshold":10}
+ */
+@RestController
+@RequiredArgsConstructor
+public class ItemStatsController {
+
+    private final InventoryStats inventoryStats;
+    private final ItemCache itemCache;
+
+    @GetMapping("/items/stats")
+    public InventoryStats.Summary stats() {
+        return inventoryStats.summary();
+    }
+
+    /**
+     * 상품 상세 캐시 적중률, 평균 조회 시간 : 캐시 크기(item.cache.maximum-size)를 정하는데 사용
+     */
+    @GetMapping("/items/stats/cache")
+    public ItemCache.Stats cacheStats() {
+        return itemCache.stats();
+    }
+}
@@ -22,4 +22,7 @@ public class ItemUpdateForm {
     //수정에서는 수량은 자유롭게 변경할 수 있다.
     private Integer quantity;
 
+    //수정 폼을 열었을 때의 버전 (다른 사용자가 먼저 수정했는지 확인)
+    private Long version;
+
 }
\ No newline at end of file
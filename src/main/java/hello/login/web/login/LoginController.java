@@ -1,11 +1,15 @@
 package hello.login.web.login;
 
+import hello.login.domain.login.LoginOverloadException;
 import hello.login.domain.login.LoginService;
 import hello.login.domain.member.Member;
 import hello.login.web.SessionConstant;
+import hello.login.web.session.LoginSessionStrategy;
 import hello.login.web.session.SessionManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -18,6 +22,7 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.HttpSession;
 import javax.validation.Valid;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Controller
@@ -26,6 +31,9 @@ public class LoginController {
 
     private final LoginService loginService;
     private final SessionManager sessionManager;
+    private final LoginThrottle loginThrottle;
+    // 로그인 상태 보관 방식 (session.mode : http-session, token)
+    private final LoginSessionStrategy loginSessionStrategy;
 
     @GetMapping("/login")
     public String loginForm(@ModelAttribute("loginForm") LoginForm loginForm) {
@@ -118,14 +126,34 @@ public class LoginController {
      * 로그인 이후 redirect 처리
      */
     @PostMapping("/login")
-    public String loginV4(@Valid @ModelAttribute LoginForm loginForm, BindingResult bindingResult, @RequestParam(defaultValue = "/") String redirectURL, HttpServletRequest request) {
+    public String loginV4(@Valid @ModelAttribute LoginForm loginForm, BindingResult bindingResult, @RequestParam(defaultValue = "/") String redirectURL,
+                          HttpServletRequest request, HttpServletResponse response) {
 
         if (bindingResult.hasErrors()) {
             log.error("login validation error");
             return "login/loginFrom";
         }
 
-        Member loginMember = loginService.login(loginForm.getLoginId(), loginForm.getPassword());
+        // 시도 제한 : 비밀번호 확인 전에 거절
+        long retryAfterNanos = loginThrottle.tryAcquire(loginForm.getLoginId(), request.getRemoteAddr());
+        if (retryAfterNanos > 0) {
+            log.warn("login throttled: loginId={}, address={}", loginForm.getLoginId(), request.getRemoteAddr());
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(TimeUnit.NANOSECONDS.toSeconds(retryAfterNanos) + 1));
+            bindingResult.reject("loginThrottled", "로그인 시도가 너무 많습니다. 잠시 후 다시 시도해주세요.");
+            return "login/loginForm";
+        }
+
+        Member loginMember;
+        try {
+            loginMember = loginService.login(loginForm.getLoginId(), loginForm.getPassword());
+        } catch (LoginOverloadException e) {
+            // 비밀번호 확인 대기열이 가득 참 : 기다리지 않고 바로 503 응답
+            log.warn("login overload: {}", e.getMessage());
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            bindingResult.reject("loginBusy", "로그인 요청이 많습니다. 잠시 후 다시 시도해주세요.");
+            return "login/loginForm";
+        }
         log.info("login? {}", loginMember);
 
         if (loginMember == null) {
@@ -136,12 +164,8 @@ public class LoginController {
         }
 
         // 로그인 성공처리
-        // 세션이 존재하는 경우 세션 반환 , 없는 경우 신규 세션 생성
-        HttpSession session = request.getSession();
-        // getSession(true) 면 세션 신규 생성
-
-        // 세션에 로그인 회원 정보 보관, 복수 값 지정 가능
-        session.setAttribute(SessionConstant.LOGIN_MEMBER, loginMember);
+        // http-session : 세션에 로그인 회원 정보 보관 (HttpSessionLoginStrategy), token : 서명된 쿠키 발급 (TokenLoginStrategy)
+        loginSessionStrategy.login(loginMember, request, response);
 
         // redirectURL 적용
         // 로그인 체크필터에서 미인증 유저는 요청 경로를 포함해서 /login 에 redirectURL 요청 파라미터를 추가해서 요청했다.
@@ -168,12 +192,9 @@ public class LoginController {
     }
 
     @PostMapping("/logout")
-    public String logoutV3(HttpServletRequest request) {
-        // 세션 삭제
-        HttpSession session = request.getSession(false);
-        if (session != null) {
-            session.invalidate(); // 세션을 제거한다
-        }
+    public String logoutV3(HttpServletRequest request, HttpServletResponse response) {
+        // 세션 삭제 (token 이면 쿠키 삭제)
+        loginSessionStrategy.logout(request, response);
         return "redirect:/";
     }
 
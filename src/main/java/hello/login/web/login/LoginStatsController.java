@@ -0,0 +1,20 @@
+package hello.login.web.login;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 로그인 시도 제한 통계 : 허용/거절 수, 기억 중인 키 수
+ */
+@RestController
+@RequiredArgsConstructor
+public class LoginStatsController {
+
+    private final LoginThrottle loginThrottle;
+
+    @GetMapping("/login/stats/throttle")
+    public LoginThrottle.Stats throttleStats() {
+        return loginThrottle.stats();
+    }
+}
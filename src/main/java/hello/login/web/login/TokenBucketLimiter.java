@@ -0,0 +1,144 @@
+package hello.login.web.login;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongPredicate;
+import java.util.function.LongSupplier;
+
+/**
+ * 키(로그인 ID, 클라이언트 주소)별 토큰 버킷
+ * 최대 capacity 번까지 연속으로 허용하고, 이후에는 refillPerMinute 속도로 다시 채워진다.
+ *
+ * 버킷 상태는 "다음 토큰이 모두 채워지는 시각" 하나(long)로 표현하고 CAS 로 갱신한다. (GCRA : lock 없이 채우기와 꺼내기를 한번에)
+ * 이 시각이 현재보다 과거인 버킷은 가득 찬 상태라서 지워도 동작이 같으므로, 키가 너무 많아지면 먼저 지운다. (메모리 제한)
+ * 키는 여러 조각(stripe)에 나눠 담고, 정리는 키가 많아진 조각만 한다.
+ */
+public class TokenBucketLimiter {
+
+    private static final int STRIPES = 16;
+
+    private final int capacity;
+    // 토큰 하나가 채워지는 시간
+    private final long intervalNanos;
+    private final int maxKeysPerStripe;
+    private final LongSupplier clock;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder throttled = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+
+    /**
+     * @param maxKeys 기억할 최대 키 수 (넘으면 가득 찬 버킷부터, 그래도 많으면 가장 많이 채워진 버킷부터 지움)
+     */
+    public TokenBucketLimiter(int capacity, int refillPerMinute, int maxKeys, LongSupplier clock) {
+        if (capacity <= 0 || refillPerMinute <= 0 || maxKeys <= 0) {
+            throw new IllegalArgumentException("capacity=" + capacity + ", refillPerMinute=" + refillPerMinute + ", maxKeys=" + maxKeys);
+        }
+        this.capacity = capacity;
+        this.intervalNanos = TimeUnit.MINUTES.toNanos(1) / refillPerMinute;
+        this.maxKeysPerStripe = Math.max(1, maxKeys / STRIPES);
+        this.clock = clock;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * 토큰 하나를 꺼낸다.
+     * @return 0 이면 허용, 0 보다 크면 거절하고 다음 토큰까지 남은 시간(나노초)
+     */
+    public long tryAcquire(String key) {
+        Stripe stripe = stripes[(key.hashCode() ^ (key.hashCode() >>> 16)) & (STRIPES - 1)];
+        AtomicLong bucket = stripe.buckets.get(key);
+        if (bucket == null) {
+            // 새 키를 추가하기 전에 정리 (추가한 버킷이 바로 지워지지 않도록)
+            if (stripe.buckets.size() >= maxKeysPerStripe) {
+                stripe.evict(clock.getAsLong());
+            }
+            bucket = stripe.buckets.computeIfAbsent(key, k -> new AtomicLong(Long.MIN_VALUE));
+        }
+        long now = clock.getAsLong();
+        while (true) {
+            long full = bucket.get();
+            // 이미 가득 찬 버킷은 지금부터 계산
+            long next = Math.max(full, now) + intervalNanos;
+            long wait = next - now - capacity * intervalNanos;
+            if (wait > 0) {
+                throttled.increment();
+                return wait;
+            }
+            if (bucket.compareAndSet(full, next)) {
+                admitted.increment();
+                return 0;
+            }
+        }
+    }
+
+    public Stats stats() {
+        long keys = 0;
+        for (Stripe stripe : stripes) {
+            keys += stripe.buckets.size();
+        }
+        return new Stats(capacity, TimeUnit.MINUTES.toNanos(1) / intervalNanos, keys, admitted.sum(), throttled.sum(), evicted.sum());
+    }
+
+    /**
+     * {"capacity":5,"refillPerMinute":5,"keys":120,"admittedCount":1000,"throttledCount":35,"evictedCount":0}
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class Stats {
+        private final int capacity;
+        private final long refillPerMinute;
+        private final long keys;
+        private final long admittedCount;
+        private final long throttledCount;
+        private final long evictedCount;
+    }
+
+    private final class Stripe {
+
+        private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+        // 정리는 한 스레드만 (다른 스레드는 기다리지 않고 넘어감)
+        private final ReentrantLock evictLock = new ReentrantLock();
+
+        void evict(long now) {
+            if (!evictLock.tryLock()) {
+                return;
+            }
+            try {
+                // 1. 가득 찬(다 채워진) 버킷 제거 : 지워도 다음 요청에서 같은 상태로 다시 만들어진다.
+                removeIf(full -> full <= now);
+                // 2. 그래도 많으면 가장 많이 채워진 버킷부터 제거 (공격으로 키가 폭증하는 경우, 최대 크기의 3/4 까지)
+                int target = maxKeysPerStripe * 3 / 4;
+                long threshold = now;
+                while (buckets.size() > target) {
+                    threshold += capacity * intervalNanos / 4 + 1;
+                    long limit = threshold;
+                    removeIf(full -> full <= limit);
+                }
+            } finally {
+                evictLock.unlock();
+            }
+        }
+
+        private void removeIf(LongPredicate condition) {
+            Iterator<Map.Entry<String, AtomicLong>> iterator = buckets.entrySet().iterator();
+            while (iterator.hasNext()) {
+                if (condition.test(iterator.next().getValue().get())) {
+                    iterator.remove();
+                    evicted.increment();
+                }
+            }
+        }
+    }
+}
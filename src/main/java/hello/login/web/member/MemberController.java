@@ -1,7 +1,9 @@
 package hello.login.web.member;
 
+import hello.login.domain.login.LoginOverloadException;
+import hello.login.domain.login.LoginService;
+import hello.login.domain.member.DuplicateMemberException;
 import hello.login.domain.member.Member;
-import hello.login.domain.member.MemberRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.BindingResult;
@@ -10,6 +12,7 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 
 @Controller
@@ -17,7 +20,7 @@ import javax.validation.Valid;
 @RequestMapping("/members")
 public class MemberController {
 
-    private final MemberRepository memberRepository;
+    private final LoginService loginService;
 
     // @ModelAttribute("members") 에서 "members" 삭제해도 동일
     @GetMapping("/add")
@@ -26,12 +29,22 @@ public class MemberController {
     }
 
     @PostMapping("/add")
-    public String save(@Valid @ModelAttribute("members") Member member, BindingResult bindingResult) {
+    public String save(@Valid @ModelAttribute("member") Member member, BindingResult bindingResult, HttpServletResponse response) {
 
         if (bindingResult.hasErrors()) {
             return "members/addMemberForm";
         }
-        memberRepository.save(member);
+        // 중복 확인은 저장과 함께 한번에 (따로 조회하면 그 사이에 같은 ID 로 가입할 수 있음)
+        try {
+            loginService.join(member);
+        } catch (DuplicateMemberException e) {
+            bindingResult.rejectValue("loginId", "duplicate");
+            return "members/addMemberForm";
+        } catch (LoginOverloadException e) {
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            bindingResult.reject("loginBusy", "요청이 많습니다. 잠시 후 다시 시도해주세요.");
+            return "members/addMemberForm";
+        }
         return "redirect:/";
     }
 }
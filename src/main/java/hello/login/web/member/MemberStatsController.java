@@ -0,0 +1,23 @@
+package hello.login.web.member;
+
+import hello.login.domain.member.LoginIdFilter;
+import hello.login.domain.member.MemberRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 로그인 ID 필터 통계 : 메모리 사용량, 오탐률, 저장소 조회 없이 거절한 수
+ * 실제 오탐률 = falsePositiveCount / (rejectedCount + falsePositiveCount) 에 가까움
+ */
+@RestController
+@RequiredArgsConstructor
+public class MemberStatsController {
+
+    private final MemberRepository memberRepository;
+
+    @GetMapping("/members/stats/login-filter")
+    public LoginIdFilter.Stats loginFilterStats() {
+        return memberRepository.loginIdFilterStats();
+    }
+}
@@ -0,0 +1,39 @@
+package hello.login.web.session;
+
+import hello.login.domain.member.Member;
+import hello.login.web.SessionConstant;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+
+/**
+ * HttpSession 에 로그인 회원 보관 (기본)
+ */
+public class HttpSessionLoginStrategy implements LoginSessionStrategy {
+
+    @Override
+    public void login(Member member, HttpServletRequest request, HttpServletResponse response) {
+        // 세션이 존재하는 경우 세션 반환 , 없는 경우 신규 세션 생성
+        HttpSession session = request.getSession();
+        session.setAttribute(SessionConstant.LOGIN_MEMBER, member);
+    }
+
+    @Override
+    public Member getLoginMember(HttpServletRequest request, HttpServletResponse response) {
+        // 로그인 확인만 하는 경우 세션을 새로 만들지 않는다.
+        HttpSession session = request.getSession(false);
+        if (session == null) {
+            return null;
+        }
+        return (Member) session.getAttribute(SessionConstant.LOGIN_MEMBER);
+    }
+
+    @Override
+    public void logout(HttpServletRequest request, HttpServletResponse response) {
+        HttpSession session = request.getSession(false);
+        if (session != null) {
+            session.invalidate();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package hello.login.web.session;
+
+import org.springframework.stereotype.Component;
+
+import javax.servlet.http.HttpSessionEvent;
+import javax.servlet.http.HttpSessionListener;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 서블릿 컨테이너(HttpSession) 세션 통계
+ * 컨테이너마다 세션 목록을 조회하는 방법이 다르므로, 서블릿 표준 리스너로 생성/제거만 센다. (SessionMetrics)
+ * 컨테이너 세션에는 아무 값이나 담을 수 있으므로 크기는 추정하지 않는다.
+ *
+ * HttpSessionListener 를 구현한 빈은 스프링 부트가 서블릿 컨테이너에 리스너로 등록한다.
+ */
+@Component
+public class HttpSessionMetricsListener implements HttpSessionListener {
+
+    // 세션 생성 시각(getCreationTime)이 epoch 밀리초이므로 같은 기준의 시각 사용
+    private final SessionMetrics metrics = new SessionMetrics(() -> TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis()));
+
+    @Override
+    public void sessionCreated(HttpSessionEvent se) {
+        metrics.added(createdAt(se), -1);
+    }
+
+    @Override
+    public void sessionDestroyed(HttpSessionEvent se) {
+        metrics.removed(createdAt(se), -1);
+    }
+
+    public SessionMetrics.Stats stats() {
+        return metrics.stats();
+    }
+
+    private static long createdAt(HttpSessionEvent se) {
+        return TimeUnit.MILLISECONDS.toNanos(se.getSession().getCreationTime());
+    }
+}
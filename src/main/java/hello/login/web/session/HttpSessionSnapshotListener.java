@@ -0,0 +1,165 @@
+package hello.login.web.session;
+
+import hello.login.domain.member.Member;
+import hello.login.web.SessionConstant;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+
+import javax.servlet.http.HttpSession;
+import javax.servlet.http.HttpSessionAttributeListener;
+import javax.servlet.http.HttpSessionBindingEvent;
+import javax.servlet.http.HttpSessionEvent;
+import javax.servlet.http.HttpSessionListener;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * 서블릿 HttpSession 의 로그인 회원(SessionConstant.LOGIN_MEMBER)을 보조 저장소(SessionBackup)에 기록
+ * 로그인하면 기록하고, 로그아웃(invalidate)이나 만료되면 지운다.
+ * 다시 시작한 뒤, 또는 다른 서버에서 로그인한 세션은 SessionRestoreFilter 가 보조 저장소에서 찾아서 새 HttpSession 에 넣는다.
+ * (세션 ID 는 서블릿 컨테이너가 정하므로, 다른 서버로 옮길 때마다 세션 ID 가 새로 발급된다)
+ *
+ * 종료할 때 톰캣은 남은 세션을 모두 만료시키므로, 종료가 시작된 뒤의 만료는 보조 저장소에 반영하지 않는다.
+ */
+public class HttpSessionSnapshotListener implements HttpSessionListener, HttpSessionAttributeListener, SessionBackup.Listener {
+
+    private static final String KEY_PREFIX = "h:";
+
+    private final SessionBackup snapshots;
+    // 접근 시각을 다시 기록하기까지의 최소 간격 (밀리초)
+    private final long touchIntervalMillis;
+    private final LongSupplier clock;
+    // 로그인한 세션 : 다른 서버에서 로그아웃하거나 세션을 옮겨가면 이 서버의 세션도 로그아웃
+    private final Map<String, LoginSession> loginSessions = new ConcurrentHashMap<>();
+    private volatile boolean closing;
+
+    /**
+     * @param touchInterval 같은 세션의 접근 시각은 이 간격에 한번만 기록 (SessionManager 의 expiry-tick 과 같은 값)
+     */
+    public HttpSessionSnapshotListener(SessionBackup snapshots, Duration touchInterval) {
+        this(snapshots, touchInterval, System::currentTimeMillis);
+    }
+
+    /**
+     * @param clock 현재 시각 (epoch 밀리초, 테스트용)
+     */
+    HttpSessionSnapshotListener(SessionBackup snapshots, Duration touchInterval, LongSupplier clock) {
+        this.snapshots = snapshots;
+        this.touchIntervalMillis = touchInterval.toMillis();
+        this.clock = clock;
+        snapshots.addListener(this);
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public void onClose() {
+        closing = true;
+    }
+
+    @Override
+    public void attributeAdded(HttpSessionBindingEvent event) {
+        save(event);
+    }
+
+    @Override
+    public void attributeReplaced(HttpSessionBindingEvent event) {
+        save(event);
+    }
+
+    @Override
+    public void attributeRemoved(HttpSessionBindingEvent event) {
+        if (SessionConstant.LOGIN_MEMBER.equals(event.getName())) {
+            loginSessions.remove(event.getSession().getId());
+            if (!closing) {
+                snapshots.remove(key(event.getSession().getId()));
+            }
+        }
+    }
+
+    @Override
+    public void sessionDestroyed(HttpSessionEvent event) {
+        loginSessions.remove(event.getSession().getId());
+        if (!closing) {
+            snapshots.remove(key(event.getSession().getId()));
+        }
+    }
+
+    /**
+     * 접근 시각은 보조 저장소에만 반영된다. (HttpSession 의 접근 시각은 바꿀 수 없음)
+     */
+    @Override
+    public void touched(String key, long lastAccessedAt) {
+    }
+
+    @Override
+    public void removed(String key) {
+        LoginSession loginSession = key.startsWith(KEY_PREFIX) ? loginSessions.remove(key.substring(KEY_PREFIX.length())) : null;
+        if (loginSession != null) {
+            try {
+                loginSession.session.removeAttribute(SessionConstant.LOGIN_MEMBER);
+            } catch (IllegalStateException e) {
+                // 그 사이 만료됨
+            }
+        }
+    }
+
+    /**
+     * 요청마다 마지막 접근 시각 갱신 (SessionRestoreFilter 에서 호출)
+     * 로그인하지 않은 세션은 보조 저장소에 없으므로 건너뛰고,
+     * 같은 세션은 touchInterval 안에 다시 쓰지 않는다. (SessionManager.getSession 과 같은 방식, 파일 lock 과 복제 변경을 요청 수만큼 만들지 않도록)
+     */
+    public void touch(HttpSession session) {
+        LoginSession loginSession = loginSessions.get(session.getId());
+        if (loginSession == null) {
+            return;
+        }
+        long now = clock.getAsLong();
+        if (now - loginSession.touchedAt >= touchIntervalMillis) {
+            loginSession.touchedAt = now;
+            snapshots.touch(key(session.getId()), now);
+        }
+    }
+
+    /**
+     * 보조 저장소에서 찾은 로그인 회원을 새 세션에 넣는다. (생성 시각은 처음 로그인한 시각 유지)
+     * @param sessionFactory 보조 저장소에 있을 때만 새 세션을 만든다.
+     * @return 다시 만들었으면 true
+     */
+    public boolean restore(String sessionId, Supplier<HttpSession> sessionFactory) {
+        SessionBackup.Record record = snapshots.find(key(sessionId), clock.getAsLong());
+        if (record == null) {
+            return false;
+        }
+        snapshots.remove(key(sessionId));
+        HttpSession newSession = sessionFactory.get();
+        newSession.setAttribute(SessionConstant.LOGIN_MEMBER, record.getMember());
+        snapshots.put(key(newSession.getId()), record.getCreatedAt(), clock.getAsLong(), record.getMember());
+        return true;
+    }
+
+    private void save(HttpSessionBindingEvent event) {
+        if (SessionConstant.LOGIN_MEMBER.equals(event.getName()) && event.getValue() instanceof Member) {
+            HttpSession session = event.getSession();
+            long now = clock.getAsLong();
+            loginSessions.put(session.getId(), new LoginSession(session, now));
+            snapshots.put(key(session.getId()), session.getCreationTime(), now, (Member) event.getValue());
+        }
+    }
+
+    private static String key(String sessionId) {
+        return KEY_PREFIX + sessionId;
+    }
+
+    private static final class LoginSession {
+        private final HttpSession session;
+        // 보조 저장소에 마지막으로 기록한 접근 시각
+        private volatile long touchedAt;
+
+        private LoginSession(HttpSession session, long touchedAt) {
+            this.session = session;
+            this.touchedAt = touchedAt;
+        }
+    }
+}
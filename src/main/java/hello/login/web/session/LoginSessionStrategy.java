@@ -0,0 +1,25 @@
+package hello.login.web.session;
+
+import hello.login.domain.member.Member;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * 로그인 상태 보관 방식 (session.mode)
+ * 로그인, 로그아웃, 로그인 체크(필터, 인터셉터), @Login 조회가 모두 이 인터페이스를 사용하므로 방식을 바꿔도 코드는 그대로다.
+ * http-session : HttpSession 에 로그인 회원 보관 (HttpSessionLoginStrategy)
+ * token : 서명된 쿠키에 로그인 회원 보관, 서버 저장소 없음 (TokenLoginStrategy)
+ */
+public interface LoginSessionStrategy {
+
+    void login(Member member, HttpServletRequest request, HttpServletResponse response);
+
+    /**
+     * @param response 로그인 유지 시간을 늘리기 위해 쿠키를 다시 보낼 수 있다.
+     * @return 로그인하지 않았거나 만료되었으면 null
+     */
+    Member getLoginMember(HttpServletRequest request, HttpServletResponse response);
+
+    void logout(HttpServletRequest request, HttpServletResponse response);
+}
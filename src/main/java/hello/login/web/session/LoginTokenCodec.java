@@ -0,0 +1,264 @@
+package hello.login.web.session;
+
+import hello.login.domain.member.Member;
+import hello.login.domain.member.MemberCodec;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * 로그인 토큰 (서명된 쿠키 값)
+ * 서버에 세션을 저장하지 않고, 회원 정보와 만료 시각을 쿠키에 담아서 HMAC-SHA256 서명을 붙인다.
+ * 서명만 확인하면 되므로 저장소를 조회하지 않는다. (서버가 여러 대여도 키만 같으면 된다)
+ *
+ * 형식 : [키 ID].[내용 base64url].[서명 base64url]  (서명 대상은 "[키 ID].[내용 base64url]")
+ * 내용 : [format byte][로그인 시각 u32][만료 시각 u32][회원 (MemberCodec)]  (시각은 epoch 초)
+ * encrypt 면 format 다음부터를 AES-GCM 으로 암호화한다. [format=2][nonce 12바이트][암호문] (클라이언트가 회원 정보를 읽을 수 없음)
+ *
+ * 키 교체 : 첫 번째 키로 서명하고, 모든 키로 확인한다.
+ * 새 키를 맨 앞에 추가 → 이전 키로 서명한 토큰이 모두 만료된 뒤(absolute-timeout) 이전 키 삭제
+ */
+@Slf4j
+public class LoginTokenCodec {
+
+    // 키는 최소 256비트 (HMAC-SHA256 출력 길이)
+    private static final int MINIMUM_SECRET_BYTES = 32;
+    private static final int MAX_PAYLOAD_BYTES = 512;
+    private static final int NONCE_BYTES = 12;
+    private static final int TAG_BITS = 128;
+    private static final byte FORMAT_PLAIN = 1;
+    private static final byte FORMAT_ENCRYPTED = 2;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final List<Key> keys;
+    private final boolean encrypt;
+    private final SecureRandom random = new SecureRandom();
+    private final ThreadLocal<Cipher> cipher = ThreadLocal.withInitial(LoginTokenCodec::newCipher);
+
+    /**
+     * @param keys 첫 번째 키로 서명
+     */
+    public LoginTokenCodec(List<Key> keys, boolean encrypt) {
+        if (keys.isEmpty()) {
+            throw new IllegalArgumentException("at least one key is required");
+        }
+        this.keys = List.copyOf(keys);
+        this.encrypt = encrypt;
+    }
+
+    /**
+     * "키ID:base64비밀값,키ID:base64비밀값" 형식의 설정 값
+     */
+    public static List<Key> parseKeys(String value) {
+        List<Key> keys = new ArrayList<>();
+        for (String entry : value.split(",")) {
+            String trimmed = entry.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            int colon = trimmed.indexOf(':');
+            if (colon <= 0) {
+                throw new IllegalArgumentException("key must be id:base64secret");
+            }
+            keys.add(new Key(trimmed.substring(0, colon), Base64.getDecoder().decode(trimmed.substring(colon + 1))));
+        }
+        return keys;
+    }
+
+    /**
+     * 재시작하면 이전 토큰은 모두 무효가 되는 임시 키 (키를 설정하지 않은 경우)
+     */
+    public static Key randomKey() {
+        byte[] secret = new byte[MINIMUM_SECRET_BYTES];
+        new SecureRandom().nextBytes(secret);
+        return new Key("tmp", secret);
+    }
+
+    /**
+     * @param loginAt   로그인 시각 (epoch 초)
+     * @param expiresAt 만료 시각 (epoch 초)
+     */
+    public String issue(Member member, long loginAt, long expiresAt) {
+        ByteBuffer body = ByteBuffer.allocate(MAX_PAYLOAD_BYTES);
+        body.putInt((int) loginAt);
+        body.putInt((int) expiresAt);
+        try {
+            MemberCodec.encode(member, body);
+        } catch (BufferOverflowException e) {
+            throw new IllegalArgumentException("member too large for token: " + member.getId());
+        }
+        body.flip();
+
+        byte[] payload = encrypt ? seal(body) : plain(body);
+        Key key = keys.get(0);
+        String signed = key.getId() + '.' + ENCODER.encodeToString(payload);
+        return signed + '.' + ENCODER.encodeToString(key.sign(signed, signed.length()));
+    }
+
+    /**
+     * 서명 확인 후 내용 반환 (만료 여부는 호출하는 쪽에서 확인)
+     * @return 형식이 맞지 않거나 서명이 다르면 null
+     */
+    public Token verify(String token) {
+        int first = token.indexOf('.');
+        int second = token.indexOf('.', first + 1);
+        if (first <= 0 || second < 0) {
+            return null;
+        }
+        Key key = findKey(token, first);
+        if (key == null) {
+            return null;
+        }
+        try {
+            // 서명 비교는 일치하는 앞부분 길이와 상관없이 같은 시간이 걸려야 한다.
+            if (!MessageDigest.isEqual(key.sign(token, second), DECODER.decode(token.substring(second + 1)))) {
+                return null;
+            }
+            ByteBuffer body = open(ByteBuffer.wrap(DECODER.decode(token.substring(first + 1, second))), key);
+            long loginAt = Integer.toUnsignedLong(body.getInt());
+            long expiresAt = Integer.toUnsignedLong(body.getInt());
+            return new Token(key.getId(), loginAt, expiresAt, MemberCodec.decode(body));
+        } catch (RuntimeException | GeneralSecurityException e) {
+            log.debug("invalid login token: {}", e.toString());
+            return null;
+        }
+    }
+
+    private Key findKey(String token, int length) {
+        for (Key key : keys) {
+            if (key.getId().length() == length && token.startsWith(key.getId())) {
+                return key;
+            }
+        }
+        return null;
+    }
+
+    private static byte[] plain(ByteBuffer body) {
+        byte[] payload = new byte[1 + body.remaining()];
+        payload[0] = FORMAT_PLAIN;
+        body.get(payload, 1, body.remaining());
+        return payload;
+    }
+
+    private byte[] seal(ByteBuffer body) {
+        byte[] nonce = new byte[NONCE_BYTES];
+        random.nextBytes(nonce);
+        try {
+            Cipher aes = cipher.get();
+            aes.init(Cipher.ENCRYPT_MODE, keys.get(0).encryptionKey, new GCMParameterSpec(TAG_BITS, nonce));
+            byte[] payload = new byte[1 + NONCE_BYTES + aes.getOutputSize(body.remaining())];
+            payload[0] = FORMAT_ENCRYPTED;
+            System.arraycopy(nonce, 0, payload, 1, NONCE_BYTES);
+            aes.doFinal(body, ByteBuffer.wrap(payload, 1 + NONCE_BYTES, payload.length - 1 - NONCE_BYTES));
+            return payload;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 암호화 설정을 바꾸는 동안에도 이미 발급한 토큰은 형식에 맞게 읽는다. (서명은 이미 확인함)
+     */
+    private ByteBuffer open(ByteBuffer payload, Key key) throws GeneralSecurityException {
+        byte format = payload.get();
+        if (format == FORMAT_PLAIN) {
+            return payload;
+        }
+        if (format != FORMAT_ENCRYPTED) {
+            throw new IllegalArgumentException("unknown token format=" + format);
+        }
+        byte[] nonce = new byte[NONCE_BYTES];
+        payload.get(nonce);
+        Cipher aes = cipher.get();
+        aes.init(Cipher.DECRYPT_MODE, key.encryptionKey, new GCMParameterSpec(TAG_BITS, nonce));
+        ByteBuffer body = ByteBuffer.allocate(aes.getOutputSize(payload.remaining()));
+        aes.doFinal(payload, body);
+        return body.flip();
+    }
+
+    private static Cipher newCipher() {
+        try {
+            return Cipher.getInstance("AES/GCM/NoPadding");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Mac newMac(SecretKeySpec key) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 서명 키
+     * 비밀값을 그대로 쓰지 않고 용도별(서명, 암호화)로 키를 나눠서 만든다.
+     * Mac 은 스레드 안전하지 않으므로 스레드마다 하나씩 (getInstance() 는 매번 부르기에는 비쌈)
+     */
+    public static final class Key {
+
+        private final String id;
+        private final SecretKeySpec signingKey;
+        private final SecretKeySpec encryptionKey;
+        private final ThreadLocal<Mac> mac;
+
+        public Key(String id, byte[] secret) {
+            if (!id.matches("[A-Za-z0-9_-]+")) {
+                throw new IllegalArgumentException("key id must be [A-Za-z0-9_-]+ : " + id);
+            }
+            if (secret.length < MINIMUM_SECRET_BYTES) {
+                throw new IllegalArgumentException("key secret must be at least " + MINIMUM_SECRET_BYTES + " bytes : " + id);
+            }
+            this.id = id;
+            this.signingKey = new SecretKeySpec(derive(secret, "sign"), "HmacSHA256");
+            this.encryptionKey = new SecretKeySpec(Arrays.copyOf(derive(secret, "encrypt"), 16), "AES");
+            this.mac = ThreadLocal.withInitial(() -> newMac(signingKey));
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        /**
+         * value 의 앞 length 글자(ASCII)에 대한 서명
+         */
+        byte[] sign(String value, int length) {
+            Mac instance = mac.get();
+            instance.update(value.getBytes(StandardCharsets.US_ASCII), 0, length);
+            return instance.doFinal();
+        }
+
+        private static byte[] derive(byte[] secret, String purpose) {
+            return newMac(new SecretKeySpec(secret, "HmacSHA256")).doFinal(purpose.getBytes(StandardCharsets.US_ASCII));
+        }
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Token {
+        private final String keyId;
+        private final long loginAt;
+        private final long expiresAt;
+        private final Member member;
+    }
+}
@@ -0,0 +1,49 @@
+package hello.login.web.session;
+
+import hello.login.domain.member.Member;
+import lombok.RequiredArgsConstructor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * 요청마다 로그인 회원을 한 번만 조회
+ * 한 요청에서 로그인 체크 필터, 로그인 체크 인터셉터, @Login ArgumentResolver 가 모두 로그인 회원을 조회한다.
+ * 처음 조회한 결과를 요청 속성(request attribute)에 보관하고, 같은 요청의 나머지 조회는 요청 속성에서 꺼낸다.
+ * - http-session : 세션 조회(getSession) + 속성 조회가 한 번
+ * - token : 서명 확인이 한 번, 토큰을 다시 발급해도 쿠키를 한 번만 보낸다.
+ *
+ * 요청 속성은 요청이 끝나면 사라지므로 따로 지울 필요가 없다. (forward, 에러 페이지 처리도 같은 요청)
+ */
+@RequiredArgsConstructor
+public class RequestScopedLoginStrategy implements LoginSessionStrategy {
+
+    public static final String LOGIN_MEMBER_ATTRIBUTE = RequestScopedLoginStrategy.class.getName() + ".loginMember";
+    // 조회했지만 로그인하지 않은 요청 (null 은 아직 조회하지 않음)
+    private static final Object NOT_LOGGED_IN = new Object();
+
+    private final LoginSessionStrategy delegate;
+
+    @Override
+    public void login(Member member, HttpServletRequest request, HttpServletResponse response) {
+        delegate.login(member, request, response);
+        request.setAttribute(LOGIN_MEMBER_ATTRIBUTE, member);
+    }
+
+    @Override
+    public Member getLoginMember(HttpServletRequest request, HttpServletResponse response) {
+        Object cached = request.getAttribute(LOGIN_MEMBER_ATTRIBUTE);
+        if (cached == null) {
+            Member member = delegate.getLoginMember(request, response);
+            request.setAttribute(LOGIN_MEMBER_ATTRIBUTE, member == null ? NOT_LOGGED_IN : member);
+            return member;
+        }
+        return cached == NOT_LOGGED_IN ? null : (Member) cached;
+    }
+
+    @Override
+    public void logout(HttpServletRequest request, HttpServletResponse response) {
+        delegate.logout(request, response);
+        request.setAttribute(LOGIN_MEMBER_ATTRIBUTE, NOT_LOGGED_IN);
+    }
+}
@@ -0,0 +1,67 @@
+package hello.login.web.session;
+
+import hello.login.domain.member.Member;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 로그인 세션 보조 저장소
+ * SessionManager 와 HttpSessionSnapshotListener 가 로그인/접근/로그아웃마다 기록하고, 메모리에 없는 세션 ID 로 조회되면 여기서 찾는다.
+ * - SessionSnapshotFile : 파일에 기록 (재시작해도 로그인 유지)
+ * - SessionReplicator : 다른 서버에 전달 (다른 서버에서 로그인해도 로그인 유지)
+ *
+ * 키는 세션 종류 + 세션 ID ("m:" SessionManager, "h:" HttpSession), 시각은 epoch 밀리초
+ */
+public interface SessionBackup {
+
+    /**
+     * @return 저장하지 못했으면 false
+     */
+    boolean put(String key, long createdAt, long lastAccessedAt, Member member);
+
+    void touch(String key, long lastAccessedAt);
+
+    void remove(String key);
+
+    /**
+     * 만료되지 않은 세션 조회
+     * @return 없거나 만료되었으면 null
+     */
+    Record find(String key, long now);
+
+    /**
+     * 만료된 세션을 조금씩 정리 (SessionManager 만료 스레드에서 tick 마다 호출)
+     * @return 지운 세션 수
+     */
+    int sweep(int slots, long now);
+
+    /**
+     * 다른 곳(다른 서버)에서 바뀐 세션을 알려줄 대상 등록
+     * 파일처럼 이 서버만 기록하는 저장소는 알려줄 일이 없다.
+     */
+    default void addListener(Listener listener) {
+    }
+
+    /**
+     * 저장된 세션
+     */
+    @Getter
+    @RequiredArgsConstructor
+    class Record {
+        private final String key;
+        private final long createdAt;
+        private final long lastAccessedAt;
+        private final Member member;
+    }
+
+    /**
+     * 다른 서버에서 바뀐 세션 (이 서버의 메모리에 있는 세션에 반영)
+     * 받은 변경을 반영하는 스레드에서 호출되므로 빠르게 반환해야 한다.
+     */
+    interface Listener {
+
+        void touched(String key, long lastAccessedAt);
+
+        void removed(String key);
+    }
+}
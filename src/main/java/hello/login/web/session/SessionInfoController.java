@@ -6,17 +6,27 @@ import org.springframework.web.bind.annotation.RestController;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpSession;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
+/**
+ * 요청한 사용자 자신의 세션 정보
+ * 서버 전체 세션 통계(세션 수, 생성/제거 속도, 크기와 나이 분포)는 /sessions/stats/live (SessionStatsController)
+ */
 @Slf4j
 @RestController
 public class SessionInfoController {
 
     @GetMapping("/session-info")
-    public String sessionInfo(HttpServletRequest request) {
+    public Map<String, Object> sessionInfo(HttpServletRequest request) {
+        Map<String, Object> info = new LinkedHashMap<>();
         HttpSession session = request.getSession(false);
         if (session == null) {
-            return "세션이 없습니다";
+            info.put("session", false);
+            return info;
         }
 
         // 세션 데이터 출력
@@ -34,7 +44,16 @@ public class SessionInfoController {
         // isNew : 새로 생성된 세션인지, 기존에 존재했던 세션인지 여부
         log.info("isNew={}", session.isNew());
 
-        return "세션 출력";
+        // 세션 ID 와 값은 응답에 담지 않는다. (스크립트가 응답을 읽을 수 있으면 HttpOnly 쿠키를 읽은 것과 같음)
+        List<String> attributeNames = new ArrayList<>();
+        session.getAttributeNames().asIterator().forEachRemaining(attributeNames::add);
+        info.put("session", true);
+        info.put("attributeNames", attributeNames);
+        info.put("maxInactiveInterval", session.getMaxInactiveInterval());
+        info.put("creationTime", new Date(session.getCreationTime()));
+        info.put("lastAccessedTime", new Date(session.getLastAccessedTime()));
+        info.put("isNew", session.isNew());
+        return info;
     }
 }
 /* 세션 타임아웃 설정 */
@@ -1,33 +1,156 @@
 package hello.login.web.session;
 
+import hello.login.domain.member.Member;
+import hello.login.web.id.IdGenerator;
+import hello.login.web.id.RandomIdGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.servlet.http.Cookie;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import java.time.Duration;
 import java.util.Arrays;
-import java.util.Map;
-import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
 
 /**
  * 세션 관리
+ * 세션은 마지막 조회 후 idleTimeout (server.servlet.session.timeout, 기본 30분),
+ * 또는 생성 후 absoluteTimeout (session.absolute-timeout) 이 지나면 만료된다.
+ *
+ * 만료 처리는 타이밍 휠(TimingWheel)로 한다. 세션을 만들 때 만료 예정 시각의 칸에 넣어두고, 전용 스레드가 tick 마다 한 칸씩 꺼낸다.
+ * 조회(getSession)는 마지막 접근 시각만 기록하고 휠은 건드리지 않는다. (조회마다 드는 비용은 값 하나 쓰기)
+ * 칸에서 꺼낸 세션이 그 사이 조회되어 연장되었으면 새 만료 시각의 칸으로 다시 넣는다.
+ * 따라서 tick 마다 드는 비용은 전체 세션 수가 아니라 그 시각에 만료 예정인 세션 수에 비례한다.
+ *
+ * 세션은 최대 세션 수와 최대 메모리(추정값)가 정해진 SessionStore 에 보관한다. 넘으면 가장 오래 사용하지 않은 세션부터 지운다.
+ *
+ * 로그인 회원 세션은 보조 저장소(SessionBackup)에도 기록한다.
+ * - session.persistence.enabled=true : SessionSnapshotFile 에 기록해서 재시작해도 로그인이 유지된다.
+ * - session.replication.enabled=true : SessionReplicator 로 다른 서버에 전달해서 어느 서버로 요청해도 로그인이 유지된다.
+ * 시작할 때 모두 읽지 않고, 저장소에 없는 세션 ID 로 조회될 때 보조 저장소에서 찾아서 다시 만든다.
+ * (LRU 로 지운 세션도 만료 전이면 다시 만들어진다. 메모리는 최근 사용한 세션만 담는 캐시 역할)
  */
+@Slf4j
 @Component
 public class SessionManager {
 
     public static final String SESSION_COOKIE_NAME = "mySessionId";
+    // tick 마다 확인할 보조 저장소 칸 수
+    private static final int SWEEP_SLOTS = 1024;
+    private static final String BACKUP_KEY_PREFIX = "m:";
 
-    // ConcurrentHashMap : HashMap 은 동시 요청에 안전하지 않으므로 ConcurrentHashMap 사용
-    private Map<String, Object> sessionStore = new ConcurrentHashMap<>();
+    // 처음에는 ConcurrentHashMap 을 사용했지만(HashMap 은 동시 요청에 안전하지 않음), 크기 제한이 없어서 SessionStore 로 변경
+    private final SessionStore sessionStore;
+    private final IdGenerator idGenerator;
+    // 보조 저장소 (사용하지 않으면 null)
+    private final SessionBackup backup;
+    // System.nanoTime 기준 시각을 보조 저장소에 기록할 epoch 밀리초로 바꾸기 위한 차이
+    private final long epochOffsetMillis;
+    // 새로 만든 세션 : 휠은 만료 스레드만 사용하므로, 요청 스레드는 여기에 넣기만 한다.
+    private final Queue<Session> created = new ConcurrentLinkedQueue<>();
+
+    private final long idleNanos;
+    private final long absoluteNanos;
+    private final long tickNanos;
+    private final LongSupplier clock;
+    private final TimingWheel<Session> wheel;
+    private ScheduledExecutorService expiry;
+
+    public SessionManager() {
+        this(Duration.ofMinutes(30), Duration.ofHours(12), Duration.ofSeconds(1), System::nanoTime);
+    }
+
+    SessionManager(Duration idleTimeout, Duration absoluteTimeout, Duration tick, LongSupplier clock) {
+        this(idleTimeout, absoluteTimeout, tick,
+                new SessionStore(SessionStore.DEFAULT_MAXIMUM_SESSIONS, SessionStore.DEFAULT_MAXIMUM_BYTES, clock), new RandomIdGenerator(128), clock);
+    }
+
+    /**
+     * @param idleTimeout 마지막 조회 후 유지 시간
+     * @param absoluteTimeout 조회와 상관없이 생성 후 최대 유지 시간
+     * @param tick 만료 확인 간격 (만료는 최대 tick 만큼 늦게 처리될 수 있지만, 조회할 때 다시 확인하므로 만료된 세션이 조회되지는 않음)
+     * @param maximumSessions 최대 세션 수
+     * @param maximumSize 세션이 사용하는 최대 메모리 (추정값)
+     * @param idGenerator 세션 ID 생성기 (추측할 수 없는 값이어야 함)
+     * @param backup 보조 저장소 (session.persistence.enabled, session.replication.enabled 인 경우에만 등록됨)
+     */
+    @Autowired
+    public SessionManager(@Value("${server.servlet.session.timeout:30m}") Duration idleTimeout,
+                          @Value("${session.absolute-timeout:12h}") Duration absoluteTimeout,
+                          @Value("${session.expiry-tick:1s}") Duration tick,
+                          @Value("${session.store.maximum-sessions:1000000}") int maximumSessions,
+                          @Value("${session.store.maximum-size:256MB}") DataSize maximumSize,
+                          @Qualifier("sessionIdGenerator") IdGenerator idGenerator,
+                          ObjectProvider<SessionBackup> backup) {
+        this(idleTimeout, absoluteTimeout, tick, new SessionStore(maximumSessions, maximumSize.toBytes()), idGenerator,
+                backup.getIfAvailable(), System::nanoTime);
+    }
+
+    SessionManager(Duration idleTimeout, Duration absoluteTimeout, Duration tick, SessionStore sessionStore,
+                   IdGenerator idGenerator, LongSupplier clock) {
+        this(idleTimeout, absoluteTimeout, tick, sessionStore, idGenerator, null, clock);
+    }
+
+    SessionManager(Duration idleTimeout, Duration absoluteTimeout, Duration tick, SessionStore sessionStore,
+                   IdGenerator idGenerator, SessionBackup backup, LongSupplier clock) {
+        this.sessionStore = sessionStore;
+        this.idGenerator = idGenerator;
+        this.backup = backup;
+        this.epochOffsetMillis = System.currentTimeMillis() - TimeUnit.NANOSECONDS.toMillis(clock.getAsLong());
+        this.idleNanos = idleTimeout.toNanos();
+        this.absoluteNanos = absoluteTimeout.toNanos();
+        this.tickNanos = Math.max(1, tick.toNanos());
+        this.clock = clock;
+        this.wheel = new TimingWheel<>(toTick(clock.getAsLong()));
+        if (backup != null) {
+            backup.addListener(new RemoteChanges());
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        expiry = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "session-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        expiry.scheduleAtFixedRate(this::expireSessions, tickNanos, tickNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @PreDestroy
+    public void close() {
+        if (expiry != null) {
+            expiry.shutdownNow();
+        }
+    }
 
     /**
      * 세션 생성
      */
     public void createSession(Object value, HttpServletResponse response) {
         // sessionId 생성, 값을 세션에 저장
-        String sessionId = UUID.randomUUID().toString();
-        sessionStore.put(sessionId, value);
+        String sessionId = idGenerator.nextId();
+        long now = clock.getAsLong();
+        Session session = new Session(sessionId, value, now, now);
+        sessionStore.put(session);
+        created.add(session);
+        // 로그인 회원만 보조 저장소에 기록 (다른 값은 이 서버의 메모리에만 있음)
+        if (backup != null && value instanceof Member) {
+            backup.put(backupKey(sessionId), toEpochMillis(now), toEpochMillis(now), (Member) value);
+        }
 
         // 쿠키 생성
         Cookie mySessionCookie = new Cookie(SESSION_COOKIE_NAME, sessionId);
@@ -36,13 +159,35 @@ public class SessionManager {
 
     /**
      * 세션 조회
+     * 만료 시각이 지났으면 (만료 스레드가 아직 처리하지 않았더라도) 제거하고 null
      */
     public Object getSession(HttpServletRequest request) {
         Cookie sessionCookie = findCookie(request, SESSION_COOKIE_NAME);
         if (sessionCookie == null) {
             return null;
         }
-        return sessionStore.get(sessionCookie.getValue());
+        long now = clock.getAsLong();
+        Session session = sessionStore.get(sessionCookie.getValue());
+        if (session == null) {
+            session = restore(sessionCookie.getValue(), now);
+            if (session == null) {
+                return null;
+            }
+        }
+        if (now - deadline(session) >= 0) {
+            if (sessionStore.remove(session) && backup != null) {
+                backup.remove(backupKey(session.id));
+            }
+            return null;
+        }
+        // 같은 tick 안의 조회는 다시 쓰지 않음 (여러 요청이 같은 값을 계속 쓰지 않도록)
+        if (now - session.lastAccessed >= tickNanos) {
+            session.lastAccessed = now;
+            if (backup != null) {
+                backup.touch(backupKey(session.id), toEpochMillis(now));
+            }
+        }
+        return session.value;
     }
 
     /**
@@ -51,10 +196,110 @@ public class SessionManager {
     public void expire(HttpServletRequest request) {
         Cookie sessionCookie = findCookie(request, SESSION_COOKIE_NAME);
         if (sessionCookie != null) {
+            // 휠에 남은 항목은 시각이 되었을 때 저장소에 없으므로 그냥 버려진다.
             sessionStore.remove(sessionCookie.getValue());
+            if (backup != null) {
+                backup.remove(backupKey(sessionCookie.getValue()));
+            }
         }
     }
 
+    public int sessionCount() {
+        return sessionStore.size();
+    }
+
+    /**
+     * 타이밍 휠에 있는 세션 수
+     */
+    synchronized int scheduledCount() {
+        return wheel.size();
+    }
+
+    public SessionStore.Stats storeStats() {
+        return sessionStore.stats();
+    }
+
+    /**
+     * 세션 수, 생성/제거 속도, 크기와 나이 분포 (세션 수와 상관없이 일정한 비용)
+     * 보조 저장소에서 다시 만든 세션도 생성으로 센다.
+     */
+    public SessionMetrics.Stats metrics() {
+        return sessionStore.metrics();
+    }
+
+    /**
+     * 현재 시각까지 휠을 진행하면서 만료된 세션 제거 (만료 스레드에서 tick 마다 호출)
+     */
+    synchronized void expireSessions() {
+        Session session;
+        while ((session = created.poll()) != null) {
+            if (!session.removed) {
+                wheel.schedule(session, toTick(deadline(session)));
+            }
+        }
+        // 제거된 세션은 만료 시각까지 기다리지 않고 휠에서 뺀다. (세션 폭주로 LRU 가 지운 세션이 휠에 쌓이지 않도록)
+        sessionStore.drainRemoved(wheel::cancel);
+        long now = clock.getAsLong();
+        wheel.advance(toTick(now), expired -> {
+            if (expired.removed) {
+                // 이미 로그아웃, LRU 등으로 제거됨
+                return;
+            }
+            long deadline = deadline(expired);
+            if (now - deadline >= 0) {
+                if (sessionStore.remove(expired) && backup != null) {
+                    backup.remove(backupKey(expired.id));
+                }
+            } else {
+                // 그 사이 조회되어 연장됨
+                wheel.schedule(expired, toTick(deadline));
+            }
+        });
+        if (backup != null) {
+            // 이전 실행에서 남은 세션 중 만료된 것도 조금씩 정리 (전체를 한번에 확인하지 않음)
+            backup.sweep(SWEEP_SLOTS, toEpochMillis(now));
+        }
+    }
+
+    /**
+     * 저장소에 없는 세션 : 보조 저장소에 있고 만료되지 않았으면 다시 만든다. (재시작 전 세션, LRU 로 지운 세션, 다른 서버에서 만든 세션)
+     */
+    private Session restore(String sessionId, long now) {
+        if (backup == null) {
+            return null;
+        }
+        SessionBackup.Record record = backup.find(backupKey(sessionId), toEpochMillis(now));
+        if (record == null) {
+            return null;
+        }
+        Session session = new Session(sessionId, record.getMember(),
+                fromEpochMillis(record.getCreatedAt()), fromEpochMillis(record.getLastAccessedAt()));
+        sessionStore.put(session);
+        created.add(session);
+        log.debug("session restored: loginId={}", record.getMember().getLoginId());
+        return session;
+    }
+
+    private static String backupKey(String sessionId) {
+        return BACKUP_KEY_PREFIX + sessionId;
+    }
+
+    private long toEpochMillis(long nanos) {
+        return epochOffsetMillis + TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    private long fromEpochMillis(long epochMillis) {
+        return TimeUnit.MILLISECONDS.toNanos(epochMillis - epochOffsetMillis);
+    }
+
+    private long deadline(Session session) {
+        return Math.min(session.lastAccessed + idleNanos, session.createdAt + absoluteNanos);
+    }
+
+    private long toTick(long nanos) {
+        return Math.floorDiv(nanos, tickNanos);
+    }
+
     private Cookie findCookie(HttpServletRequest request, String cookieName) {
         if (request.getCookies() == null) {
             return null;
@@ -63,6 +308,69 @@ public class SessionManager {
                 .findAny().orElse(null);
     }
 
+    /**
+     * 다른 서버의 요청으로 바뀐 세션 : 이 서버에 있는 같은 세션에도 반영한다.
+     * 반영만 하고 보조 저장소에는 다시 기록하지 않는다. (받은 변경을 다시 보내지 않음)
+     */
+    private class RemoteChanges implements SessionBackup.Listener {
+
+        @Override
+        public void touched(String key, long lastAccessedAt) {
+            Session session = key.startsWith(BACKUP_KEY_PREFIX) ? sessionStore.get(key.substring(BACKUP_KEY_PREFIX.length())) : null;
+            if (session != null) {
+                // 다른 서버에서 계속 사용 중인 세션을 이 서버의 만료 스레드가 지우지 않도록
+                long accessed = fromEpochMillis(lastAccessedAt);
+                if (accessed - session.lastAccessed > 0) {
+                    session.lastAccessed = accessed;
+                }
+            }
+        }
+
+        @Override
+        public void removed(String key) {
+            if (key.startsWith(BACKUP_KEY_PREFIX)) {
+                // 다른 서버에서 로그아웃 또는 만료
+                sessionStore.remove(key.substring(BACKUP_KEY_PREFIX.length()));
+            }
+        }
+    }
+
+    static final class Session extends TimingWheel.Node<Session> {
+        private final String id;
+        // 제거되면 null (휠에서 빠지기 전에도 값은 바로 놓아준다)
+        private volatile Object value;
+        private final long createdAt;
+        // 메모리 추정값
+        private final long bytes;
+        private volatile long lastAccessed;
+        // 저장소에서 제거됨 (휠에 남아 있어도 무시)
+        private volatile boolean removed;
+
+        private Session(String id, Object value, long createdAt, long lastAccessed) {
+            this.id = id;
+            this.value = value;
+            this.createdAt = createdAt;
+            this.bytes = SessionStore.estimateBytes(id, value);
+            this.lastAccessed = lastAccessed;
+        }
+
+        String getId() {
+            return id;
+        }
+
+        long getCreatedAt() {
+            return createdAt;
+        }
+
+        long getBytes() {
+            return bytes;
+        }
+
+        void markRemoved() {
+            removed = true;
+            value = null;
+        }
+    }
 }
 
 // 로그인 처리 - 세션 동작방식
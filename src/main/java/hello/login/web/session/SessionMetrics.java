@@ -0,0 +1,257 @@
+package hello.login.web.session;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * 살아있는 세션 통계 : 세션 수, 생성/제거 속도, 세션 크기(추정값) 분포, 세션 나이 분포
+ * 세션이 만들어지고 지워질 때 카운터만 바꾸고, 조회할 때 세션을 하나씩 확인하지 않는다.
+ * 세션이 수백만 개여도 조회 비용은 칸 수(나이 720칸 + 크기 64칸)에 비례하므로 몇 초마다 조회해도 된다.
+ *
+ * - 생성/제거 속도 : 누적 횟수를 1초마다 기록해두고(15분치), "지금 누적 - N분 전 누적" 으로 최근 1분, 5분, 15분 평균
+ * - 나이 : 생성 시각(분) 별 세션 수. 조회할 때 "지금 - 생성 시각" 으로 구간에 더한다. 12시간이 지난 칸은 12h+ 로 옮긴다.
+ * - 크기 : 2의 제곱 구간별 세션 수 (256~511 바이트, 512~1023 바이트 ...)
+ *
+ * 기록은 따로 스레드를 두지 않고, 세션 생성/제거나 조회 때 시간이 지났으면 그때 채운다.
+ * 동시에 바뀌는 중에 읽은 값은 근사치다. (카운터끼리 원자적으로 읽지 않음)
+ */
+public class SessionMetrics {
+
+    private static final long SECOND_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long MINUTE_NANOS = TimeUnit.MINUTES.toNanos(1);
+    // 속도 : 최근 1분, 5분, 15분
+    private static final int[] RATE_WINDOW_SECONDS = {60, 5 * 60, 15 * 60};
+    private static final int HISTORY_SECONDS = 15 * 60 + 1;
+    // 나이 구간 (분), 마지막 이후는 12h+
+    private static final int[] AGE_LIMIT_MINUTES = {1, 5, 15, 30, 60, 2 * 60, 4 * 60, 8 * 60, 12 * 60};
+    private static final String[] AGE_RANGES = {"0-1m", "1m-5m", "5m-15m", "15m-30m", "30m-1h", "1h-2h", "2h-4h", "4h-8h", "8h-12h", "12h+"};
+    private static final int AGE_MINUTES = 12 * 60;
+
+    private final LongSupplier clock;
+    private final Counter created;
+    private final Counter invalidated;
+    // 생성 시각(분) % AGE_MINUTES 칸별 세션 수
+    private final AtomicLongArray ages = new AtomicLongArray(AGE_MINUTES);
+    // AGE_MINUTES 보다 오래된 세션 수
+    private final AtomicLong oldSessions = new AtomicLong();
+    // ages 를 마지막으로 정리한 시각 (분)
+    private final AtomicLong agedMinute;
+    // 크기 구간 : 64 - numberOfLeadingZeros(bytes)
+    private final AtomicLongArray sizes = new AtomicLongArray(Long.SIZE + 1);
+
+    /**
+     * @param clock 현재 시각 (나노초, 세션 생성 시각과 같은 기준)
+     */
+    public SessionMetrics(LongSupplier clock) {
+        this.clock = clock;
+        long now = clock.getAsLong();
+        this.created = new Counter(toSecond(now));
+        this.invalidated = new Counter(toSecond(now));
+        this.agedMinute = new AtomicLong(toMinute(now));
+    }
+
+    /**
+     * @param createdAt 세션 생성 시각 (나노초)
+     * @param bytes 세션 크기 추정값, 모르면 음수 (크기 분포에서 제외)
+     */
+    public void added(long createdAt, long bytes) {
+        long now = clock.getAsLong();
+        created.increment(toSecond(now));
+        age(toMinute(now));
+        ages.incrementAndGet(ageSlot(toMinute(createdAt)));
+        if (bytes >= 0) {
+            sizes.incrementAndGet(sizeSlot(bytes));
+        }
+    }
+
+    /**
+     * added() 에 넘긴 값과 같은 값으로 호출해야 한다.
+     */
+    public void removed(long createdAt, long bytes) {
+        long now = clock.getAsLong();
+        invalidated.increment(toSecond(now));
+        long minute = toMinute(createdAt);
+        if (minute <= age(toMinute(now)) - AGE_MINUTES) {
+            oldSessions.decrementAndGet();
+        } else {
+            ages.decrementAndGet(ageSlot(minute));
+        }
+        if (bytes >= 0) {
+            sizes.decrementAndGet(sizeSlot(bytes));
+        }
+    }
+
+    public Stats stats() {
+        long now = clock.getAsLong();
+        long second = toSecond(now);
+        Rate createdRate = created.rate(second, now);
+        Rate invalidatedRate = invalidated.rate(second, now);
+
+        long minute = age(toMinute(now));
+        long[] ageCounts = new long[AGE_RANGES.length];
+        for (int age = 0; age < AGE_MINUTES; age++) {
+            ageCounts[ageRange(age)] += ages.get(ageSlot(minute - age));
+        }
+        ageCounts[AGE_RANGES.length - 1] += oldSessions.get();
+        List<Bucket> ageBuckets = new ArrayList<>();
+        for (int i = 0; i < AGE_RANGES.length; i++) {
+            ageBuckets.add(new Bucket(AGE_RANGES[i], Math.max(0, ageCounts[i])));
+        }
+
+        List<Bucket> sizeBuckets = new ArrayList<>();
+        for (int i = 0; i < sizes.length(); i++) {
+            long count = sizes.get(i);
+            if (count > 0) {
+                sizeBuckets.add(new Bucket(sizeRange(i), count));
+            }
+        }
+        return new Stats(createdRate.getTotal() - invalidatedRate.getTotal(), createdRate, invalidatedRate, sizeBuckets, ageBuckets);
+    }
+
+    /**
+     * 지난 분의 칸 중 AGE_MINUTES 가 지난 칸을 12h+ 로 옮긴다. (칸을 다음에 다시 사용하기 위해)
+     * @return 정리한 시각 (분)
+     */
+    private long age(long minute) {
+        long last = agedMinute.get();
+        if (minute > last && agedMinute.compareAndSet(last, minute)) {
+            // minute 칸은 minute - AGE_MINUTES 에 만든 세션이 쓰던 칸
+            for (long m = Math.max(last + 1, minute - AGE_MINUTES + 1); m <= minute; m++) {
+                oldSessions.addAndGet(ages.getAndSet(ageSlot(m), 0));
+            }
+            return minute;
+        }
+        return Math.max(last, minute);
+    }
+
+    private static int ageRange(int ageMinutes) {
+        for (int i = 0; i < AGE_LIMIT_MINUTES.length; i++) {
+            if (ageMinutes < AGE_LIMIT_MINUTES[i]) {
+                return i;
+            }
+        }
+        return AGE_LIMIT_MINUTES.length;
+    }
+
+    private static int ageSlot(long minute) {
+        return (int) Math.floorMod(minute, (long) AGE_MINUTES);
+    }
+
+    private static int sizeSlot(long bytes) {
+        return Long.SIZE - Long.numberOfLeadingZeros(bytes);
+    }
+
+    private static String sizeRange(int slot) {
+        if (slot == 0) {
+            return "0";
+        }
+        long from = 1L << (slot - 1);
+        return slot == Long.SIZE ? from + "+" : from + "-" + ((from << 1) - 1);
+    }
+
+    private static long toSecond(long nanos) {
+        return Math.floorDiv(nanos, SECOND_NANOS);
+    }
+
+    private static long toMinute(long nanos) {
+        return Math.floorDiv(nanos, MINUTE_NANOS);
+    }
+
+    /**
+     * 누적 횟수와 초마다 기록한 누적 횟수 (HISTORY_SECONDS 초 전까지)
+     */
+    private static final class Counter {
+
+        private final LongAdder total = new LongAdder();
+        // 초 % HISTORY_SECONDS 칸 : 그 초가 시작될 때의 누적 횟수
+        private final AtomicLongArray history = new AtomicLongArray(HISTORY_SECONDS);
+        private final long startSecond;
+        private final AtomicLong lastSecond;
+
+        private Counter(long second) {
+            this.startSecond = second;
+            this.lastSecond = new AtomicLong(second);
+        }
+
+        void increment(long second) {
+            record(second);
+            total.increment();
+        }
+
+        /**
+         * 마지막 기록 이후 지난 초들의 칸을 지금 누적 횟수로 채운다. (그 사이 변화가 없었으므로 모두 같은 값)
+         */
+        private void record(long second) {
+            long last = lastSecond.get();
+            if (second > last && lastSecond.compareAndSet(last, second)) {
+                long value = total.sum();
+                for (long s = Math.max(last + 1, second - HISTORY_SECONDS + 1); s <= second; s++) {
+                    history.set(slot(s), value);
+                }
+            }
+        }
+
+        Rate rate(long second, long now) {
+            record(second);
+            long value = total.sum();
+            double[] perSecond = new double[RATE_WINDOW_SECONDS.length];
+            for (int i = 0; i < RATE_WINDOW_SECONDS.length; i++) {
+                // 시작한 지 얼마 안 됐으면 시작 이후 평균
+                long from = Math.max(second - RATE_WINDOW_SECONDS[i], startSecond);
+                double seconds = Math.max(1, (double) (now - from * SECOND_NANOS) / SECOND_NANOS);
+                perSecond[i] = (value - history.get(slot(from))) / seconds;
+            }
+            return new Rate(value, perSecond[0], perSecond[1], perSecond[2]);
+        }
+
+        private static int slot(long second) {
+            return (int) Math.floorMod(second, (long) HISTORY_SECONDS);
+        }
+    }
+
+    /**
+     * {"active":1200,
+     *  "created":{"total":5000,"lastMinute":2.5,"last5Minutes":2.1,"last15Minutes":1.9},
+     *  "invalidated":{...},
+     *  "bytes":[{"range":"256-511","count":1100},{"range":"512-1023","count":100}],
+     *  "ages":[{"range":"0-1m","count":30},{"range":"1m-5m","count":120},...,{"range":"12h+","count":0}]}
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class Stats {
+        private final long active;
+        private final Rate created;
+        // 로그아웃, 만료, LRU 로 지운 세션 모두
+        private final Rate invalidated;
+        // 세션 크기 추정값 분포 (세션이 있는 구간만, 크기를 모르면 빈 목록)
+        private final List<Bucket> bytes;
+        private final List<Bucket> ages;
+    }
+
+    /**
+     * 누적 횟수와 최근 평균 (초당)
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class Rate {
+        private final long total;
+        private final double lastMinute;
+        private final double last5Minutes;
+        private final double last15Minutes;
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Bucket {
+        private final String range;
+        private final long count;
+    }
+}
@@ -0,0 +1,390 @@
+package hello.login.web.session;
+
+import hello.login.domain.member.Member;
+import hello.login.domain.member.MemberCodec;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.zip.CRC32;
+
+/**
+ * 로그인 세션 저장 파일 (재시작해도 로그인 유지)
+ *
+ * 파일 전체를 메모리 맵으로 열고, 파일 자체를 해시 테이블(고정 크기 칸, linear probing)로 사용한다.
+ * - 로그인/로그아웃/접근 시각 갱신은 맵의 칸에 바로 쓴다. (변경마다 파일에 반영 : 프로세스가 죽어도 OS 가 파일에 기록)
+ * - 시작할 때 파일을 읽어서 세션을 다시 만들지 않는다. 세션 ID 로 처음 조회될 때 해당 칸만 읽는다. (세션 수와 상관없이 시작 시간 일정)
+ * - 만료된 칸은 조회할 때, 그리고 sweep 으로 조금씩 정리한다.
+ * - 칸마다 CRC 를 기록해서, 쓰는 도중 종료되어 깨진 칸은 없는 것으로 처리한다.
+ *
+ * 파일 : [header 64 bytes][slot 256 bytes * capacity]
+ * 칸 : [state byte][unused][key length byte][unused][member length short][unused 2][crc int][unused 4]
+ *       [createdAt long][lastAccessedAt long][key 64 bytes][member 160 bytes]
+ * 시각은 epoch 밀리초, 키는 세션 종류 + 세션 ID (SessionManager 와 HttpSession 이 한 파일을 함께 사용)
+ */
+@Slf4j
+public class SessionSnapshotFile implements SessionBackup, Closeable {
+
+    private static final int MAGIC = 0x53455353;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 64;
+    private static final int SLOT_BYTES = 256;
+    private static final int MAX_CAPACITY = 1 << 22;
+    // 빈 칸을 찾을 때 최대로 확인할 칸 수 (넘으면 저장하지 않음)
+    private static final int MAX_PROBES = 64;
+
+    // header
+    private static final int H_MAGIC = 0;
+    private static final int H_VERSION = 4;
+    private static final int H_CAPACITY = 8;
+    private static final int H_SLOT_BYTES = 12;
+    private static final int H_CLEAN = 16;
+    private static final int H_RECORDS = 20;
+
+    // slot
+    private static final int S_STATE = 0;
+    private static final int S_KEY_LENGTH = 2;
+    private static final int S_MEMBER_LENGTH = 4;
+    private static final int S_CRC = 8;
+    private static final int S_CREATED = 16;
+    private static final int S_LAST_ACCESSED = 24;
+    private static final int S_KEY = 32;
+    private static final int MAX_KEY_BYTES = 64;
+    private static final int S_MEMBER = S_KEY + MAX_KEY_BYTES;
+    private static final int MAX_MEMBER_BYTES = SLOT_BYTES - S_MEMBER;
+
+    private static final byte EMPTY = 0;
+    private static final byte USED = 1;
+    // 지운 칸 : 뒤에 이어지는 칸을 찾을 수 있도록 EMPTY 가 아닌 값으로 남긴다.
+    private static final byte DELETED = 2;
+
+    private final Path file;
+    private final long idleMillis;
+    private final long absoluteMillis;
+
+    private FileChannel channel;
+    private MappedByteBuffer map;
+    private int capacity;
+    private int records;
+    private int sweepCursor;
+    private long restoredCount;
+    private long droppedCount;
+    private long expiredCount;
+
+    /**
+     * @param capacity 최대 세션 수 (2의 제곱수로 올림, 파일이 이미 있으면 파일의 값 사용)
+     * @param idleTimeout 마지막 접근 후 유지 시간
+     * @param absoluteTimeout 생성 후 최대 유지 시간
+     */
+    public SessionSnapshotFile(Path file, int capacity, Duration idleTimeout, Duration absoluteTimeout) {
+        if (capacity <= 0 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("capacity=" + capacity + " (1 ~ " + MAX_CAPACITY + ")");
+        }
+        this.file = file;
+        this.capacity = capacity <= 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.idleMillis = idleTimeout.toMillis();
+        this.absoluteMillis = absoluteTimeout.toMillis();
+    }
+
+    public synchronized void open() throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        boolean existing = channel.size() >= HEADER_BYTES && channel.read(header, 0) == HEADER_BYTES
+                && header.getInt(H_MAGIC) == MAGIC && header.getInt(H_VERSION) == VERSION && header.getInt(H_SLOT_BYTES) == SLOT_BYTES
+                && validCapacity(header.getInt(H_CAPACITY))
+                && header.getInt(H_RECORDS) >= 0 && header.getInt(H_RECORDS) <= header.getInt(H_CAPACITY);
+        if (existing) {
+            capacity = header.getInt(H_CAPACITY);
+            records = header.getInt(H_RECORDS);
+            log.info("session snapshot opened: file={}, capacity={}, records={}, clean={}",
+                    file, capacity, records, header.get(H_CLEAN) == 1);
+        } else {
+            // 형식이 다른 파일은 새로 만든다. (로그인이 풀릴 뿐 다른 영향 없음)
+            channel.truncate(0);
+        }
+        map = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES + (long) capacity * SLOT_BYTES);
+        if (!existing) {
+            map.putInt(H_MAGIC, MAGIC);
+            map.putInt(H_VERSION, VERSION);
+            map.putInt(H_CAPACITY, capacity);
+            map.putInt(H_SLOT_BYTES, SLOT_BYTES);
+            map.putInt(H_RECORDS, 0);
+            records = 0;
+        }
+        // 정상 종료(close)할 때 다시 1 로 기록 (records 값을 믿을 수 있는지 구분)
+        map.put(H_CLEAN, (byte) 0);
+    }
+
+    /**
+     * 칸 위치를 & (capacity - 1) 로 구하므로 2의 제곱수여야 한다. (헤더가 깨진 파일은 새로 만든다)
+     */
+    private static boolean validCapacity(int capacity) {
+        return capacity > 0 && capacity <= MAX_CAPACITY && Integer.bitCount(capacity) == 1;
+    }
+
+    /**
+     * 저장 (같은 키가 있으면 덮어씀)
+     * @return 저장하지 못했으면 false (회원 정보가 너무 크거나, 근처 칸이 모두 차 있음)
+     */
+    @Override
+    public synchronized boolean put(String key, long createdAt, long lastAccessedAt, Member member) {
+        ensureOpen();
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer encoded = ByteBuffer.allocate(MAX_MEMBER_BYTES);
+        try {
+            MemberCodec.encode(member, encoded);
+        } catch (BufferOverflowException e) {
+            droppedCount++;
+            return false;
+        }
+        if (keyBytes.length > MAX_KEY_BYTES) {
+            droppedCount++;
+            return false;
+        }
+        int slot = findSlot(keyBytes);
+        if (slot < 0) {
+            slot = freeSlot(keyBytes);
+            if (slot < 0) {
+                droppedCount++;
+                return false;
+            }
+            records++;
+            map.putInt(H_RECORDS, records);
+        }
+        int offset = offset(slot);
+        // 내용을 먼저 쓰고 상태는 마지막에 (CRC 로 다시 확인)
+        map.put(offset + S_STATE, DELETED);
+        map.put(offset + S_KEY_LENGTH, (byte) keyBytes.length);
+        map.putShort(offset + S_MEMBER_LENGTH, (short) encoded.position());
+        map.putLong(offset + S_CREATED, createdAt);
+        map.putLong(offset + S_LAST_ACCESSED, lastAccessedAt);
+        ByteBuffer target = map.duplicate();
+        target.position(offset + S_KEY);
+        target.put(keyBytes);
+        target.position(offset + S_MEMBER);
+        target.put(encoded.array(), 0, encoded.position());
+        map.putInt(offset + S_CRC, crc(offset));
+        map.put(offset + S_STATE, USED);
+        return true;
+    }
+
+    /**
+     * 마지막 접근 시각만 갱신 (CRC 대상이 아니므로 8바이트 쓰기)
+     */
+    @Override
+    public synchronized void touch(String key, long lastAccessedAt) {
+        ensureOpen();
+        int slot = findSlot(key.getBytes(StandardCharsets.UTF_8));
+        if (slot >= 0) {
+            map.putLong(offset(slot) + S_LAST_ACCESSED, lastAccessedAt);
+        }
+    }
+
+    @Override
+    public synchronized void remove(String key) {
+        ensureOpen();
+        int slot = findSlot(key.getBytes(StandardCharsets.UTF_8));
+        if (slot >= 0) {
+            delete(slot);
+        }
+    }
+
+    /**
+     * 만료되지 않은 세션 조회 (만료되었으면 지우고 null)
+     */
+    @Override
+    public synchronized Record find(String key, long now) {
+        ensureOpen();
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        int slot = findSlot(keyBytes);
+        if (slot < 0) {
+            return null;
+        }
+        int offset = offset(slot);
+        long createdAt = map.getLong(offset + S_CREATED);
+        long lastAccessedAt = map.getLong(offset + S_LAST_ACCESSED);
+        if (expired(createdAt, lastAccessedAt, now)) {
+            delete(slot);
+            expiredCount++;
+            return null;
+        }
+        ByteBuffer member = map.duplicate();
+        member.position(offset + S_MEMBER);
+        member.limit(offset + S_MEMBER + map.getShort(offset + S_MEMBER_LENGTH));
+        restoredCount++;
+        return new Record(key, createdAt, lastAccessedAt, MemberCodec.decode(member.slice()));
+    }
+
+    /**
+     * 다음 slots 개 칸을 확인해서 만료된 세션을 지운다. (전체를 한번에 확인하지 않고 주기적으로 조금씩)
+     * @return 지운 세션 수
+     */
+    @Override
+    public synchronized int sweep(int slots, long now) {
+        ensureOpen();
+        int removed = 0;
+        for (int i = 0; i < Math.min(slots, capacity); i++) {
+            int offset = offset(sweepCursor);
+            if (map.get(offset + S_STATE) == USED
+                    && expired(map.getLong(offset + S_CREATED), map.getLong(offset + S_LAST_ACCESSED), now)) {
+                delete(sweepCursor);
+                expiredCount++;
+                removed++;
+            }
+            sweepCursor = (sweepCursor + 1) & (capacity - 1);
+        }
+        return removed;
+    }
+
+    /**
+     * 변경 내용을 디스크에 반영
+     */
+    public synchronized void force() {
+        ensureOpen();
+        map.force();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel == null) {
+            return;
+        }
+        map.put(H_CLEAN, (byte) 1);
+        map.force();
+        channel.close();
+        channel = null;
+        log.info("session snapshot closed: file={}, records={}", file, records);
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(capacity, records, HEADER_BYTES + (long) capacity * SLOT_BYTES, restoredCount, droppedCount, expiredCount);
+    }
+
+    /**
+     * 세션 저장 파일 통계
+     * {"capacity":131072,"records":1200,"fileBytes":33554496,"restoredCount":35,"droppedCount":0,"expiredCount":12}
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class Stats {
+        private final int capacity;
+        // 비정상 종료 후에는 근사값
+        private final int records;
+        private final long fileBytes;
+        // 재시작 후 파일에서 다시 만든 세션
+        private final long restoredCount;
+        // 저장하지 못한 세션
+        private final long droppedCount;
+        private final long expiredCount;
+    }
+
+    private boolean expired(long createdAt, long lastAccessedAt, long now) {
+        return now - lastAccessedAt >= idleMillis || now - createdAt >= absoluteMillis;
+    }
+
+    /**
+     * 키가 저장된 칸 (없으면 -1)
+     */
+    private int findSlot(byte[] keyBytes) {
+        int slot = home(keyBytes);
+        for (int i = 0; i < MAX_PROBES; i++) {
+            int offset = offset(slot);
+            byte state = map.get(offset + S_STATE);
+            if (state == EMPTY) {
+                return -1;
+            }
+            if (state == USED && matches(offset, keyBytes)) {
+                return slot;
+            }
+            slot = (slot + 1) & (capacity - 1);
+        }
+        return -1;
+    }
+
+    /**
+     * 새로 저장할 칸 : 처음 만나는 빈 칸이나 지운 칸 (없으면 -1)
+     */
+    private int freeSlot(byte[] keyBytes) {
+        int slot = home(keyBytes);
+        for (int i = 0; i < MAX_PROBES; i++) {
+            if (map.get(offset(slot) + S_STATE) != USED) {
+                return slot;
+            }
+            slot = (slot + 1) & (capacity - 1);
+        }
+        return -1;
+    }
+
+    private boolean matches(int offset, byte[] keyBytes) {
+        if (map.get(offset + S_KEY_LENGTH) != keyBytes.length) {
+            return false;
+        }
+        for (int i = 0; i < keyBytes.length; i++) {
+            if (map.get(offset + S_KEY + i) != keyBytes[i]) {
+                return false;
+            }
+        }
+        // 쓰는 도중 종료되어 깨진 칸은 없는 것으로 처리
+        return map.getInt(offset + S_CRC) == crc(offset);
+    }
+
+    private void delete(int slot) {
+        int offset = offset(slot);
+        // 다음 칸이 비어 있으면 이 칸으로 이어지는 탐색이 없으므로 빈 칸으로 되돌린다.
+        int next = offset((slot + 1) & (capacity - 1));
+        map.put(offset + S_STATE, map.get(next + S_STATE) == EMPTY ? EMPTY : DELETED);
+        records = Math.max(0, records - 1);
+        map.putInt(H_RECORDS, records);
+    }
+
+    /**
+     * 키, 길이, 생성 시각, 회원 정보의 CRC (마지막 접근 시각은 제외)
+     */
+    private int crc(int offset) {
+        CRC32 crc = new CRC32();
+        ByteBuffer slot = map.duplicate();
+        slot.position(offset + S_KEY_LENGTH).limit(offset + S_CRC);
+        crc.update(slot);
+        slot.limit(offset + S_LAST_ACCESSED).position(offset + S_CREATED);
+        crc.update(slot);
+        int memberLength = map.getShort(offset + S_MEMBER_LENGTH);
+        slot.limit(offset + S_MEMBER + Math.max(0, Math.min(memberLength, MAX_MEMBER_BYTES))).position(offset + S_KEY);
+        crc.update(slot);
+        return (int) crc.getValue();
+    }
+
+    private int home(byte[] keyBytes) {
+        int h = 1;
+        for (byte b : keyBytes) {
+            h = 31 * h + b;
+        }
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        return h & (capacity - 1);
+    }
+
+    private static int offset(int slot) {
+        return HEADER_BYTES + slot * SLOT_BYTES;
+    }
+
+    private void ensureOpen() {
+        if (channel == null) {
+            throw new IllegalStateException("session snapshot is not open");
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package hello.login.web.session;
+
+import hello.login.web.session.replication.SessionReplicator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 살아있는 세션 통계 : SessionManager 세션과 서블릿 컨테이너 세션 각각의 세션 수, 생성/제거 속도, 크기와 나이 분포
+ * 세션 수와 상관없이 비용이 일정하므로 몇 초마다 조회해도 된다.
+ * SessionManager 세션 저장소 통계 : 세션 수, 메모리 추정값, LRU 로 지운 세션 수
+ * 세션 복제 통계 : 보낸/받은 변경 수, 서버별 연결 상태 (session.replication.enabled=true 가 아니면 빈 응답)
+ */
+@RestController
+@RequiredArgsConstructor
+public class SessionStatsController {
+
+    private final SessionManager sessionManager;
+    private final HttpSessionMetricsListener httpSessionMetrics;
+    private final ObjectProvider<SessionReplicator> sessionReplicator;
+
+    /**
+     * {"manager":{SessionMetrics.Stats},"container":{SessionMetrics.Stats}}
+     */
+    @GetMapping("/sessions/stats/live")
+    public Map<String, SessionMetrics.Stats> liveStats() {
+        Map<String, SessionMetrics.Stats> stats = new LinkedHashMap<>();
+        stats.put("manager", sessionManager.metrics());
+        stats.put("container", httpSessionMetrics.stats());
+        return stats;
+    }
+
+    @GetMapping("/sessions/stats/store")
+    public SessionStore.Stats storeStats() {
+        return sessionManager.storeStats();
+    }
+
+    @GetMapping("/sessions/stats/replication")
+    public SessionReplicator.Stats replicationStats() {
+        SessionReplicator replicator = sessionReplicator.getIfAvailable();
+        return replicator == null ? null : replicator.stats();
+    }
+}
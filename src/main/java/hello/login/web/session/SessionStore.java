@@ -0,0 +1,245 @@
+package hello.login.web.session;
+
+import hello.login.domain.member.Member;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * SessionManager 의 세션 저장소
+ * 세션 수와 세션이 사용하는 메모리(추정값) 모두 최대값을 넘지 않도록, 넘으면 가장 오래 사용하지 않은 세션부터 지운다. (LRU)
+ * 세션이 한꺼번에 많이 만들어져도(세션 폭주) 힙을 다 쓰지 않고, 정해진 크기의 컨테이너에서도 안전하게 동작한다.
+ *
+ * 세션 ID 로 여러 조각(shard)에 나눠 담고, 조각마다 LinkedHashMap(접근 순서)과 최대값의 1/SHARDS 를 갖는다.
+ * 조회도 접근 순서를 바꾸므로 조각 lock 안에서 처리한다.
+ *
+ * 세션을 넣고 뺄 때 SessionMetrics 에도 기록한다. (생성/제거 속도, 크기, 나이 분포)
+ */
+public class SessionStore {
+
+    static final int DEFAULT_MAXIMUM_SESSIONS = 1_000_000;
+    static final long DEFAULT_MAXIMUM_BYTES = 256L * 1024 * 1024;
+
+    // 조각 수 (2의 제곱수)
+    private static final int SHARDS = 16;
+
+    // 메모리 추정값 (64비트 JVM, compressed oops 기준)
+    // 세션 객체 + LinkedHashMap 항목 + 세션 ID 문자열 객체
+    private static final int SESSION_OVERHEAD_BYTES = 48 + 40 + 40;
+    // 알 수 없는 타입의 값은 넉넉하게 계산
+    private static final int UNKNOWN_VALUE_BYTES = 256;
+
+    private final int maximumSessions;
+    private final long maximumBytes;
+    private final Shard[] shards = new Shard[SHARDS];
+
+    private final LongAdder evictionCount = new LongAdder();
+    private final LongAdder evictedBytes = new LongAdder();
+    private final SessionMetrics metrics;
+    // 제거한 세션 : 만료 스레드가 타이밍 휠에서 뺄 때까지 (drainRemoved)
+    private final Queue<SessionManager.Session> removed = new ConcurrentLinkedQueue<>();
+
+    SessionStore(int maximumSessions, long maximumBytes) {
+        this(maximumSessions, maximumBytes, System::nanoTime);
+    }
+
+    /**
+     * @param maximumSessions 최대 세션 수
+     * @param maximumBytes 세션이 사용하는 최대 메모리 (추정값 기준)
+     * @param clock 세션 생성 시각과 같은 기준의 현재 시각 (SessionMetrics)
+     */
+    SessionStore(int maximumSessions, long maximumBytes, LongSupplier clock) {
+        if (maximumSessions <= 0 || maximumBytes <= 0) {
+            throw new IllegalArgumentException("maximumSessions=" + maximumSessions + ", maximumBytes=" + maximumBytes);
+        }
+        this.maximumSessions = maximumSessions;
+        this.maximumBytes = maximumBytes;
+        this.metrics = new SessionMetrics(clock);
+        // 조각마다 최대값을 나눠 갖는다. (전체 최대값보다 조금 클 수 있음)
+        int shardSessions = maximumSessions / SHARDS + (maximumSessions % SHARDS == 0 ? 0 : 1);
+        long shardBytes = maximumBytes / SHARDS + (maximumBytes % SHARDS == 0 ? 0 : 1);
+        for (int i = 0; i < SHARDS; i++) {
+            shards[i] = new Shard(shardSessions, shardBytes);
+        }
+    }
+
+    SessionManager.Session get(String sessionId) {
+        return shardFor(sessionId).get(sessionId);
+    }
+
+    /**
+     * 저장 후 최대값을 넘으면 가장 오래 사용하지 않은 세션부터 지운다. (방금 저장한 세션은 지우지 않음)
+     */
+    void put(SessionManager.Session session) {
+        shardFor(session.getId()).put(session);
+    }
+
+    void remove(String sessionId) {
+        shardFor(sessionId).remove(sessionId, null);
+    }
+
+    /**
+     * 같은 세션일 때만 제거
+     * @return 제거했으면 true
+     */
+    boolean remove(SessionManager.Session session) {
+        return shardFor(session.getId()).remove(session.getId(), session);
+    }
+
+    int size() {
+        int size = 0;
+        for (Shard shard : shards) {
+            size += shard.size();
+        }
+        return size;
+    }
+
+    Stats stats() {
+        long sessions = 0;
+        long bytes = 0;
+        for (Shard shard : shards) {
+            synchronized (shard) {
+                sessions += shard.entries.size();
+                bytes += shard.bytes;
+            }
+        }
+        double occupancy = Math.max((double) sessions / maximumSessions, (double) bytes / maximumBytes);
+        return new Stats(sessions, maximumSessions, bytes, maximumBytes, sessions == 0 ? 0 : bytes / sessions,
+                occupancy, evictionCount.sum(), evictedBytes.sum());
+    }
+
+    /**
+     * 지난 호출 이후 제거한 세션 (로그아웃, 만료, LRU)
+     */
+    void drainRemoved(Consumer<SessionManager.Session> consumer) {
+        SessionManager.Session session;
+        while ((session = removed.poll()) != null) {
+            consumer.accept(session);
+        }
+    }
+
+    SessionMetrics.Stats metrics() {
+        return metrics.stats();
+    }
+
+    /**
+     * 세션이 사용하는 메모리 추정값 : 정확한 값이 아니라 최대값을 지키기 위한 근사치
+     * 로그인 회원(Member)처럼 자주 저장하는 타입은 필드 크기까지 계산하고, 나머지는 UNKNOWN_VALUE_BYTES 로 계산한다.
+     */
+    static long estimateBytes(String sessionId, Object value) {
+        return SESSION_OVERHEAD_BYTES + stringBytes(sessionId) + valueBytes(value);
+    }
+
+    private static long valueBytes(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof Member) {
+            Member member = (Member) value;
+            // 객체 헤더 + 참조 4개, Long
+            return 32 + (member.getId() == null ? 0 : 16)
+                    + stringBytes(member.getLoginId()) + stringBytes(member.getName()) + stringBytes(member.getPassword());
+        }
+        if (value instanceof String) {
+            return stringBytes((String) value);
+        }
+        if (value instanceof Number || value instanceof Boolean) {
+            return 24;
+        }
+        return UNKNOWN_VALUE_BYTES;
+    }
+
+    private static long stringBytes(String value) {
+        // String 객체 + byte[] 헤더 + 문자 (한글 등 Latin-1 이 아니면 문자당 2바이트)
+        return value == null ? 0 : 24 + 16 + value.length() * 2L;
+    }
+
+    private Shard shardFor(String sessionId) {
+        int h = sessionId.hashCode();
+        return shards[(h ^ (h >>> 16)) & (SHARDS - 1)];
+    }
+
+    /**
+     * 세션 저장소 통계
+     * {"sessions":1200,"maximumSessions":1000000,"bytes":540000,"maximumBytes":268435456,"averageBytes":450,
+     *  "occupancy":0.0012,"evictionCount":0,"evictedBytes":0}
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class Stats {
+        private final long sessions;
+        private final int maximumSessions;
+        // 추정값
+        private final long bytes;
+        private final long maximumBytes;
+        private final long averageBytes;
+        // 세션 수, 메모리 중 최대값에 더 가까운 쪽의 사용 비율 (1 에 가까우면 곧 LRU 로 지우기 시작)
+        private final double occupancy;
+        // 최대값을 넘어서 지운 세션 (만료, 로그아웃은 제외)
+        private final long evictionCount;
+        private final long evictedBytes;
+    }
+
+    private final class Shard {
+
+        private final int maximumSessions;
+        private final long maximumBytes;
+        private final LinkedHashMap<String, SessionManager.Session> entries = new LinkedHashMap<>(16, 0.75f, true);
+        private long bytes;
+
+        private Shard(int maximumSessions, long maximumBytes) {
+            this.maximumSessions = maximumSessions;
+            this.maximumBytes = maximumBytes;
+        }
+
+        synchronized SessionManager.Session get(String sessionId) {
+            return entries.get(sessionId);
+        }
+
+        synchronized void put(SessionManager.Session session) {
+            SessionManager.Session previous = entries.put(session.getId(), session);
+            if (previous != null) {
+                removed(previous);
+            }
+            bytes += session.getBytes();
+            metrics.added(session.getCreatedAt(), session.getBytes());
+            // 가장 앞(가장 오래 사용하지 않은 세션)부터 지운다.
+            Iterator<SessionManager.Session> eldest = entries.values().iterator();
+            while ((entries.size() > maximumSessions || bytes > maximumBytes) && entries.size() > 1) {
+                SessionManager.Session victim = eldest.next();
+                eldest.remove();
+                removed(victim);
+                evictionCount.increment();
+                evictedBytes.add(victim.getBytes());
+            }
+        }
+
+        synchronized boolean remove(String sessionId, SessionManager.Session expected) {
+            SessionManager.Session current = entries.get(sessionId);
+            if (current == null || (expected != null && current != expected)) {
+                return false;
+            }
+            entries.remove(sessionId);
+            removed(current);
+            return true;
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+
+        private void removed(SessionManager.Session session) {
+            bytes -= session.getBytes();
+            session.markRemoved();
+            metrics.removed(session.getCreatedAt(), session.getBytes());
+            SessionStore.this.removed.add(session);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package hello.login.web.session;
+
+import java.util.function.Consumer;
+
+/**
+ * 계층형 타이밍 휠 (hierarchical timing wheel)
+ * 시계 바늘처럼 한 칸(tick)씩 돌면서 그 칸에 걸린 항목만 꺼낸다. 항목이 아무리 많아도 한 칸을 처리하는 비용은 그 칸의 항목 수뿐이다.
+ *
+ * 한 바퀴는 64칸이고, 바퀴 4개를 겹쳐서 64^4 칸(1초 단위면 약 194일)까지 표현한다.
+ * 먼 시각은 윗 바퀴에 넣어두고, 아랫 바퀴가 한 바퀴 돌 때마다 윗 바퀴의 한 칸을 아랫 바퀴로 내려보낸다. (cascade)
+ *
+ * 칸은 양방향 연결 리스트라서 시각이 되기 전에 항목을 O(1) 로 뺄 수 있다. (cancel)
+ *
+ * 한 스레드(advance 를 호출하는 스레드)에서만 사용한다.
+ */
+final class TimingWheel<E extends TimingWheel.Node<E>> {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+
+    /**
+     * 휠에 넣는 항목 (칸마다 양방향 연결 리스트로 연결)
+     */
+    abstract static class Node<E> {
+        E next;
+        E prev;
+        long deadlineTick;
+        // 들어 있는 칸 (휠에 없으면 -1)
+        int level = -1;
+        int index;
+    }
+
+    @SuppressWarnings("unchecked")
+    private final E[][] slots = (E[][]) new Node[LEVELS][SLOTS];
+    private long currentTick;
+    private int size;
+
+    TimingWheel(long startTick) {
+        this.currentTick = startTick;
+    }
+
+    long currentTick() {
+        return currentTick;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * 이미 지난 시각이면 다음 칸에 넣는다.
+     */
+    void schedule(E node, long deadlineTick) {
+        node.deadlineTick = deadlineTick;
+        long tick = Math.max(deadlineTick, currentTick + 1);
+        long delta = tick - currentTick;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        // 표현할 수 있는 범위를 넘으면 가장 윗 바퀴의 가장 먼 칸 (내려올 때 다시 배치됨)
+        long maxDelta = 1L << (SLOT_BITS * LEVELS);
+        if (delta >= maxDelta) {
+            tick = currentTick + maxDelta - 1;
+        }
+        link(node, level, (int) ((tick >>> (SLOT_BITS * level)) & SLOT_MASK));
+    }
+
+    /**
+     * 시각이 되기 전에 휠에서 뺀다. (로그아웃, LRU 로 지운 세션이 만료 시각까지 메모리에 남지 않도록)
+     * @return 휠에 있었으면 true
+     */
+    boolean cancel(E node) {
+        if (node.level < 0) {
+            return false;
+        }
+        if (node.prev != null) {
+            node.prev.next = node.next;
+        } else {
+            slots[node.level][node.index] = node.next;
+        }
+        if (node.next != null) {
+            node.next.prev = node.prev;
+        }
+        unlinked(node);
+        return true;
+    }
+
+    /**
+     * toTick 까지 한 칸씩 진행하면서 시각이 된 항목을 expired 에 넘긴다.
+     * expired 안에서 schedule 로 다시 넣을 수 있다. (연장된 세션)
+     */
+    void advance(long toTick, Consumer<E> expired) {
+        while (currentTick < toTick) {
+            currentTick++;
+            cascade(1);
+            int index = (int) (currentTick & SLOT_MASK);
+            E node = slots[0][index];
+            slots[0][index] = null;
+            while (node != null) {
+                E next = node.next;
+                unlinked(node);
+                if (node.deadlineTick <= currentTick) {
+                    expired.accept(node);
+                } else {
+                    schedule(node, node.deadlineTick);
+                }
+                node = next;
+            }
+        }
+    }
+
+    /**
+     * 아랫 바퀴가 한 바퀴를 다 돌았으면 윗 바퀴의 현재 칸을 꺼내서 다시 배치
+     */
+    private void cascade(int level) {
+        if (level >= LEVELS || (currentTick & ((1L << (SLOT_BITS * level)) - 1)) != 0) {
+            return;
+        }
+        cascade(level + 1);
+        int index = (int) ((currentTick >>> (SLOT_BITS * level)) & SLOT_MASK);
+        E node = slots[level][index];
+        slots[level][index] = null;
+        while (node != null) {
+            E next = node.next;
+            unlinked(node);
+            if (node.deadlineTick <= currentTick) {
+                // 바로 이어서 처리할 아랫 바퀴의 현재 칸으로
+                link(node, 0, (int) (currentTick & SLOT_MASK));
+            } else {
+                schedule(node, node.deadlineTick);
+            }
+            node = next;
+        }
+    }
+
+    private void link(E node, int level, int index) {
+        E head = slots[level][index];
+        node.prev = null;
+        node.next = head;
+        if (head != null) {
+            head.prev = node;
+        }
+        slots[level][index] = node;
+        node.level = level;
+        node.index = index;
+        size++;
+    }
+
+    private void unlinked(E node) {
+        node.next = null;
+        node.prev = null;
+        node.level = -1;
+        size--;
+    }
+}
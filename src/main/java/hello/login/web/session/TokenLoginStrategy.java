@@ -0,0 +1,111 @@
+package hello.login.web.session;
+
+import hello.login.domain.member.Member;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * 서명된 쿠키에 로그인 회원 보관 (LoginTokenCodec)
+ * 요청마다 서명만 확인하므로 세션 저장소, 세션 복제가 필요 없다.
+ *
+ * 만료 : 토큰의 만료 시각(마지막 발급 + idleTimeout)이 지나거나, 로그인 후 absoluteTimeout 이 지나면 만료
+ * 남은 시간이 idleTimeout 의 절반보다 적을 때만 토큰을 다시 발급한다. (요청마다 쿠키를 보내지 않기 위해)
+ * 로그아웃은 쿠키를 지우는 것이므로, 만료 전에 복사된 토큰은 만료 시각까지 사용할 수 있다. (저장소가 없으므로 강제 만료 불가)
+ */
+@Slf4j
+public class TokenLoginStrategy implements LoginSessionStrategy {
+
+    public static final String TOKEN_COOKIE_NAME = "loginToken";
+
+    private final LoginTokenCodec codec;
+    private final long idleSeconds;
+    private final long absoluteSeconds;
+    private final boolean secureCookie;
+    private final LongSupplier clock;
+
+    public TokenLoginStrategy(LoginTokenCodec codec, Duration idleTimeout, Duration absoluteTimeout, boolean secureCookie) {
+        this(codec, idleTimeout, absoluteTimeout, secureCookie, System::currentTimeMillis);
+    }
+
+    /**
+     * @param clock 현재 시각 (epoch 밀리초)
+     */
+    TokenLoginStrategy(LoginTokenCodec codec, Duration idleTimeout, Duration absoluteTimeout, boolean secureCookie, LongSupplier clock) {
+        this.codec = codec;
+        this.idleSeconds = idleTimeout.getSeconds();
+        this.absoluteSeconds = absoluteTimeout.getSeconds();
+        this.secureCookie = secureCookie;
+        this.clock = clock;
+    }
+
+    @Override
+    public void login(Member member, HttpServletRequest request, HttpServletResponse response) {
+        long now = nowSeconds();
+        issue(member, now, now, response);
+    }
+
+    @Override
+    public Member getLoginMember(HttpServletRequest request, HttpServletResponse response) {
+        String value = findToken(request);
+        if (value == null) {
+            return null;
+        }
+        LoginTokenCodec.Token token = codec.verify(value);
+        if (token == null) {
+            log.info("invalid login token");
+            return null;
+        }
+
+        long now = nowSeconds();
+        if (now >= token.getExpiresAt() || now >= token.getLoginAt() + absoluteSeconds) {
+            return null;
+        }
+        if (token.getExpiresAt() - now < idleSeconds / 2) {
+            issue(token.getMember(), token.getLoginAt(), now, response);
+        }
+        return token.getMember();
+    }
+
+    @Override
+    public void logout(HttpServletRequest request, HttpServletResponse response) {
+        response.addCookie(cookie(null, 0));
+    }
+
+    private void issue(Member member, long loginAt, long now, HttpServletResponse response) {
+        long expiresAt = Math.min(now + idleSeconds, loginAt + absoluteSeconds);
+        // 세션 쿠키 (만료 시각은 토큰 안에 있음)
+        response.addCookie(cookie(codec.issue(member, loginAt, expiresAt), -1));
+    }
+
+    private Cookie cookie(String value, int maxAge) {
+        Cookie cookie = new Cookie(TOKEN_COOKIE_NAME, value);
+        cookie.setPath("/");
+        cookie.setHttpOnly(true);
+        cookie.setSecure(secureCookie);
+        cookie.setMaxAge(maxAge);
+        return cookie;
+    }
+
+    private static String findToken(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return null;
+        }
+        for (Cookie cookie : cookies) {
+            if (TOKEN_COOKIE_NAME.equals(cookie.getName())) {
+                return cookie.getValue();
+            }
+        }
+        return null;
+    }
+
+    private long nowSeconds() {
+        return TimeUnit.MILLISECONDS.toSeconds(clock.getAsLong());
+    }
+}
@@ -0,0 +1,303 @@
+package hello.login.web.session.replication;
+
+import hello.login.domain.member.Member;
+import hello.login.domain.member.MemberCodec;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 세션 복제 전송 형식
+ *
+ * 프레임 : [길이 int][본문][HMAC-SHA256 앞 16바이트]  (길이는 본문 + HMAC)
+ * 본문
+ *   변경 묶음 : [type=1][마지막 순번 long][변경 수 short][기준 시각 varint] 변경...
+ *   확인(ack) : [type=2][순번 long]
+ *   시작(hello) : [type=3][nonce 16바이트]  받는 서버가 연결되자마자 보낸다.
+ * 변경 : [op byte][키 (MemberCodec 문자열)]
+ *   PUT    : [생성 시각][마지막 접근 시각][회원 (MemberCodec)]
+ *   TOUCH  : [마지막 접근 시각]
+ *   REMOVE : 없음
+ * 시각은 기준 시각(보낸 시각)과의 차이 (zigzag varint) : epoch 밀리초 8바이트 대신 보통 1~4바이트
+ *
+ * 같은 비밀값(session.replication.secret)을 가진 서버가 보낸 프레임만 받는다. (아무나 세션을 만들 수 없도록)
+ * hello 이후의 프레임은 서명에 [type][연결 nonce][프레임 번호] 를 함께 넣는다. (Channel)
+ * 가로챈 프레임을 다른 연결이나 같은 연결에 다시 보내면 서명이 맞지 않으므로, 로그아웃한 세션을 PUT 프레임으로 되살릴 수 없다.
+ */
+final class ReplicationCodec {
+
+    static final byte DELTAS = 1;
+    static final byte ACK = 2;
+    static final byte HELLO = 3;
+    static final int NONCE_BYTES = 16;
+    static final int MAX_FRAME_BYTES = 1 << 20;
+    // 한 프레임에 담는 최대 변경 수
+    static final int MAX_DELTAS = 1024;
+
+    private static final int MAC_BYTES = 16;
+    // [type][순번 long][변경 수 short]
+    private static final int SEQUENCE_OFFSET = 4 + 1;
+    private static final int COUNT_OFFSET = SEQUENCE_OFFSET + 8;
+
+    private final ThreadLocal<Mac> mac;
+
+    ReplicationCodec(byte[] secret) {
+        if (secret.length == 0) {
+            throw new IllegalArgumentException("secret is required");
+        }
+        SecretKeySpec key = new SecretKeySpec(secret, "HmacSHA256");
+        this.mac = ThreadLocal.withInitial(() -> {
+            try {
+                Mac instance = Mac.getInstance("HmacSHA256");
+                instance.init(key);
+                return instance;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    /**
+     * batch[from] 부터 frame 에 들어가는 만큼 담는다. (frame 은 보낼 수 있도록 flip 된 상태)
+     * @param base 기준 시각 (epoch 밀리초)
+     * @return 담은 변경 수 (0 이면 batch[from] 하나도 담을 수 없음)
+     */
+    int encodeDeltas(Channel channel, List<Delta> batch, int from, long base, ByteBuffer frame) {
+        frame.clear();
+        frame.limit(frame.capacity() - MAC_BYTES);
+        frame.position(4);
+        frame.put(DELTAS);
+        frame.putLong(0);
+        frame.putShort((short) 0);
+        MemberCodec.writeVarLong(frame, base);
+
+        int count = 0;
+        long lastSequence = 0;
+        for (int i = from; i < batch.size() && count < MAX_DELTAS; i++) {
+            Delta delta = batch.get(i);
+            frame.mark();
+            try {
+                write(delta, base, frame);
+            } catch (BufferOverflowException e) {
+                frame.reset();
+                break;
+            }
+            count++;
+            if (delta.sequence > 0) {
+                lastSequence = delta.sequence;
+            }
+        }
+        if (count == 0) {
+            return 0;
+        }
+        frame.putLong(SEQUENCE_OFFSET, lastSequence);
+        frame.putShort(COUNT_OFFSET, (short) count);
+        seal(channel, frame);
+        return count;
+    }
+
+    void encodeAck(Channel channel, long sequence, ByteBuffer frame) {
+        frame.clear();
+        frame.position(4);
+        frame.put(ACK);
+        frame.putLong(sequence);
+        seal(channel, frame);
+    }
+
+    void encodeHello(byte[] nonce, ByteBuffer frame) {
+        frame.clear();
+        frame.position(4);
+        frame.put(HELLO);
+        frame.put(nonce);
+        seal(null, frame);
+    }
+
+    /**
+     * 프레임 하나를 읽고 서명을 확인한다.
+     * @param channel hello 를 읽을 때는 null
+     * @return 본문 ([type] 부터)
+     * @throws IOException 연결이 끊기거나, 길이가 맞지 않거나, 서명이 다르면 (다른 연결의 프레임, 다시 보낸 프레임 포함)
+     */
+    ByteBuffer read(Channel channel, DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length <= MAC_BYTES || length > MAX_FRAME_BYTES) {
+            throw new IOException("invalid frame length=" + length);
+        }
+        byte[] frame = new byte[length];
+        in.readFully(frame);
+        Mac instance = mac.get();
+        begin(instance, channel);
+        instance.update(frame, 0, length - MAC_BYTES);
+        byte[] expected = Arrays.copyOf(instance.doFinal(), MAC_BYTES);
+        if (!MessageDigest.isEqual(expected, Arrays.copyOfRange(frame, length - MAC_BYTES, length))) {
+            throw new IOException("invalid frame signature");
+        }
+        return ByteBuffer.wrap(frame, 0, length - MAC_BYTES);
+    }
+
+    /**
+     * @param body read() 결과 (type 이 DELTAS)
+     * @return 마지막 순번 (확인 응답에 사용)
+     */
+    static long decodeDeltas(ByteBuffer body, Consumer<Delta> consumer) {
+        body.get();
+        long lastSequence = body.getLong();
+        int count = Short.toUnsignedInt(body.getShort());
+        long base = MemberCodec.readVarLong(body);
+        for (int i = 0; i < count; i++) {
+            consumer.accept(read(body, base));
+        }
+        return lastSequence;
+    }
+
+    /**
+     * @param body read() 결과 (type 이 ACK)
+     */
+    static long decodeAck(ByteBuffer body) {
+        body.get();
+        return body.getLong();
+    }
+
+    /**
+     * @param body read() 결과 (type 이 HELLO)
+     * @return 연결 nonce
+     */
+    static byte[] decodeHello(ByteBuffer body) {
+        body.get();
+        byte[] nonce = new byte[NONCE_BYTES];
+        body.get(nonce);
+        return nonce;
+    }
+
+    private static void write(Delta delta, long base, ByteBuffer out) {
+        out.put(delta.op);
+        MemberCodec.writeString(out, delta.key);
+        if (delta.op == Delta.PUT) {
+            writeTime(out, delta.createdAt, base);
+            writeTime(out, delta.lastAccessedAt, base);
+            MemberCodec.encode(delta.member, out);
+        } else if (delta.op == Delta.TOUCH) {
+            writeTime(out, delta.lastAccessedAt, base);
+        }
+    }
+
+    private static Delta read(ByteBuffer in, long base) {
+        byte op = in.get();
+        String key = MemberCodec.readString(in);
+        switch (op) {
+            case Delta.PUT:
+                long createdAt = readTime(in, base);
+                long lastAccessedAt = readTime(in, base);
+                return Delta.put(key, createdAt, lastAccessedAt, MemberCodec.decode(in), 0);
+            case Delta.TOUCH:
+                return Delta.touch(key, readTime(in, base));
+            case Delta.REMOVE:
+                return Delta.remove(key, 0);
+            default:
+                throw new IllegalArgumentException("unknown delta op=" + op);
+        }
+    }
+
+    private static void writeTime(ByteBuffer out, long time, long base) {
+        long diff = time - base;
+        MemberCodec.writeVarLong(out, (diff << 1) ^ (diff >> 63));
+    }
+
+    private static long readTime(ByteBuffer in, long base) {
+        long zigzag = MemberCodec.readVarLong(in);
+        return base + ((zigzag >>> 1) ^ -(zigzag & 1));
+    }
+
+    /**
+     * 길이와 서명을 채우고 보낼 수 있도록 flip
+     */
+    private void seal(Channel channel, ByteBuffer frame) {
+        int end = frame.position();
+        Mac instance = mac.get();
+        begin(instance, channel);
+        instance.update(frame.array(), frame.arrayOffset() + 4, end - 4);
+        frame.limit(frame.capacity());
+        frame.put(instance.doFinal(), 0, MAC_BYTES);
+        frame.putInt(0, frame.position() - 4);
+        frame.flip();
+    }
+
+    /**
+     * 연결 프레임의 서명 앞부분 : [type][nonce][프레임 번호]
+     */
+    private static void begin(Mac instance, Channel channel) {
+        if (channel == null) {
+            return;
+        }
+        long frameNo = channel.frames++;
+        instance.update(channel.type);
+        instance.update(channel.nonce);
+        for (int shift = Long.SIZE - Byte.SIZE; shift >= 0; shift -= Byte.SIZE) {
+            instance.update((byte) (frameNo >>> shift));
+        }
+    }
+
+    /**
+     * 연결 하나의 한 방향 (DELTAS : 보내는 서버 -> 받는 서버, ACK : 반대 방향)
+     * 프레임 번호는 양쪽이 각자 세므로, 프레임이 빠지거나 다시 오거나 순서가 바뀌면 서명이 맞지 않는다.
+     * 한 스레드에서만 사용한다.
+     */
+    static final class Channel {
+        private final byte type;
+        private final byte[] nonce;
+        private long frames;
+
+        Channel(byte type, byte[] nonce) {
+            this.type = type;
+            this.nonce = nonce.clone();
+        }
+    }
+
+    /**
+     * 세션 변경 하나
+     */
+    static final class Delta {
+
+        static final byte PUT = 1;
+        static final byte TOUCH = 2;
+        static final byte REMOVE = 3;
+
+        final byte op;
+        final String key;
+        final long createdAt;
+        final long lastAccessedAt;
+        final Member member;
+        // 확인 응답을 기다리는 변경(PUT, REMOVE)의 순번, TOUCH 는 0
+        final long sequence;
+
+        private Delta(byte op, String key, long createdAt, long lastAccessedAt, Member member, long sequence) {
+            this.op = op;
+            this.key = key;
+            this.createdAt = createdAt;
+            this.lastAccessedAt = lastAccessedAt;
+            this.member = member;
+            this.sequence = sequence;
+        }
+
+        static Delta put(String key, long createdAt, long lastAccessedAt, Member member, long sequence) {
+            return new Delta(PUT, key, createdAt, lastAccessedAt, member, sequence);
+        }
+
+        static Delta touch(String key, long lastAccessedAt) {
+            return new Delta(TOUCH, key, 0, lastAccessedAt, null, 0);
+        }
+
+        static Delta remove(String key, long sequence) {
+            return new Delta(REMOVE, key, 0, 0, null, sequence);
+        }
+    }
+}
@@ -0,0 +1,716 @@
+package hello.login.web.session.replication;
+
+import hello.login.domain.member.Member;
+import hello.login.web.session.SessionBackup;
+import hello.login.web.session.replication.ReplicationCodec.Delta;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.ByteBuffer;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * 서버 간 로그인 세션 복제 (TCP)
+ * 로그인(PUT), 접근(TOUCH), 로그아웃/만료(REMOVE)를 설정된 모든 서버(peers)에 보낸다.
+ * 다른 서버에서 받은 세션은 메모리(replicas)에 두고, 이 서버에 없는 세션 ID 로 조회되면 여기서 찾는다. (SessionBackup)
+ * 세션 저장 파일을 함께 사용하면(local) 기록은 파일에도 하고, 찾을 때는 파일을 먼저 본다.
+ *
+ * 보내기는 서버마다 전용 스레드가 한다. 요청 스레드는 큐에 넣기만 하고, 전용 스레드가 쌓인 변경을 한 프레임으로 묶어서 보낸다.
+ * - TOUCH 는 키마다 마지막 값만 남겨두었다가 touchInterval 마다 보낸다. (요청마다 보내지 않음)
+ * - PUT, REMOVE 는 순번을 붙여서 순서대로 보낸다. 받는 서버는 반영한 뒤 마지막 순번으로 확인(ack) 응답을 보낸다.
+ * - 보냈지만 확인 응답을 받지 못한 PUT, REMOVE 는 서버마다 보관하고(unacked), 다시 연결하면 먼저 다시 보낸다.
+ *   (소켓에 썼어도 받는 서버가 읽기 전에 연결이 끊겼을 수 있음, 같은 변경을 두 번 받아도 결과는 같음)
+ * - 큐가 가득 차면(연결이 오래 끊김) 새 변경은 버린다. (droppedCount)
+ *
+ * consistency
+ * - ASYNC : 큐에 넣고 바로 반환 (다른 서버에 반영되기 전에 그 서버로 요청이 가면 로그인되지 않았을 수 있음)
+ * - ONE_ACK : 로그인/로그아웃은 한 서버 이상이 반영했다고 응답할 때까지(최대 ackTimeout) 기다린다. TOUCH 는 기다리지 않는다.
+ *
+ * 받은 변경은 다른 서버로 다시 보내지 않는다. (모든 서버가 서로를 peers 로 설정)
+ * 연결마다 받는 서버가 nonce 를 정하고 프레임 서명에 포함하므로, 가로챈 프레임을 다시 보내도 받지 않는다. (ReplicationCodec)
+ */
+@Slf4j
+public class SessionReplicator implements SessionBackup, Closeable {
+
+    public enum Consistency {
+        ASYNC, ONE_ACK;
+
+        /**
+         * 설정 값 : async, one-ack
+         */
+        public static Consistency parse(String value) {
+            return valueOf(value.trim().toUpperCase().replace('-', '_'));
+        }
+    }
+
+    private static final int CONNECT_TIMEOUT_MILLIS = 1000;
+    private static final long RECONNECT_DELAY_MILLIS = 500;
+
+    private final int port;
+    // 받을 주소 (null 이면 모든 주소)
+    private final InetAddress bindAddress;
+    private final ReplicationCodec codec;
+    private final Consistency consistency;
+    private final long ackTimeoutNanos;
+    private final long touchIntervalMillis;
+    private final int maxPending;
+    private final int maxReplicas;
+    private final long idleMillis;
+    private final long absoluteMillis;
+    // 세션 저장 파일 (사용하지 않으면 null)
+    private final SessionBackup local;
+
+    private final Map<String, Replica> replicas = new ConcurrentHashMap<>();
+    private final List<Peer> peers = new CopyOnWriteArrayList<>();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final List<Socket> inbound = new CopyOnWriteArrayList<>();
+    private final SecureRandom random = new SecureRandom();
+    // 받은 변경을 반영하는 중 (이때 생긴 기록은 다시 보내지 않음)
+    private final ThreadLocal<Boolean> applying = ThreadLocal.withInitial(() -> false);
+
+    // 순번 발급과 큐에 넣기를 함께 해서 큐 안의 순번이 항상 오름차순이 되도록
+    private final Object publishLock = new Object();
+    private long sequence;
+    // 어느 한 서버라도 확인 응답한 마지막 순번
+    private final Object ackLock = new Object();
+    private long acknowledged;
+
+    private Iterator<Map.Entry<String, Replica>> sweepCursor;
+    private volatile boolean running;
+    private ServerSocket serverSocket;
+
+    private final LongAdder receivedDeltas = new LongAdder();
+    private final LongAdder droppedCount = new LongAdder();
+    private final LongAdder ackTimeoutCount = new LongAdder();
+
+    /**
+     * @param port 받을 포트 (0 이면 임의의 빈 포트)
+     * @param bindAddress 받을 주소 (null 이면 모든 주소, 서버 간 내부망 주소로 제한해서 사용)
+     * @param secret 모든 서버가 같은 값을 사용 (프레임 서명)
+     * @param ackTimeout ONE_ACK 에서 최대로 기다리는 시간
+     * @param touchInterval TOUCH 를 모아서 보내는 간격
+     * @param maxPending 서버마다 보내지 못하고 쌓아둘 최대 변경 수
+     * @param maxReplicas 다른 서버에서 받아서 보관할 최대 세션 수
+     * @param local 세션 저장 파일 (없으면 null)
+     */
+    public SessionReplicator(int port, InetAddress bindAddress, byte[] secret, Consistency consistency, Duration ackTimeout, Duration touchInterval,
+                             int maxPending, int maxReplicas, Duration idleTimeout, Duration absoluteTimeout, SessionBackup local) {
+        this.port = port;
+        this.bindAddress = bindAddress;
+        this.codec = new ReplicationCodec(secret);
+        this.consistency = consistency;
+        this.ackTimeoutNanos = ackTimeout.toNanos();
+        this.touchIntervalMillis = Math.max(1, touchInterval.toMillis());
+        this.maxPending = maxPending;
+        this.maxReplicas = maxReplicas;
+        this.idleMillis = idleTimeout.toMillis();
+        this.absoluteMillis = absoluteTimeout.toMillis();
+        this.local = local;
+    }
+
+    /**
+     * 보낼 서버 추가 (start 전후 모두 가능)
+     */
+    public void addPeer(InetSocketAddress address) {
+        Peer peer = new Peer(address);
+        peers.add(peer);
+        if (running) {
+            peer.start();
+        }
+    }
+
+    public synchronized void start() throws IOException {
+        serverSocket = new ServerSocket(port, 50, bindAddress);
+        running = true;
+        thread("session-replication-accept", this::accept).start();
+        for (Peer peer : peers) {
+            peer.start();
+        }
+        log.info("session replication started: address={}, port={}, peers={}, consistency={}",
+                bindAddress == null ? "*" : bindAddress.getHostAddress(), getPort(), peers.size(), consistency);
+    }
+
+    /**
+     * 받는 포트 (port 가 0 이면 실제로 열린 포트)
+     */
+    public int getPort() {
+        return serverSocket == null ? port : serverSocket.getLocalPort();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        serverSocket.close();
+        for (Socket socket : inbound) {
+            closeQuietly(socket);
+        }
+        for (Peer peer : peers) {
+            peer.stop();
+        }
+        synchronized (ackLock) {
+            ackLock.notifyAll();
+        }
+    }
+
+    @Override
+    public boolean put(String key, long createdAt, long lastAccessedAt, Member member) {
+        boolean saved = local == null || local.put(key, createdAt, lastAccessedAt, member);
+        if (!applying.get()) {
+            awaitAck(publish(seq -> Delta.put(key, createdAt, lastAccessedAt, member, seq)));
+        }
+        return saved;
+    }
+
+    @Override
+    public void touch(String key, long lastAccessedAt) {
+        if (local != null) {
+            local.touch(key, lastAccessedAt);
+        }
+        Replica replica = replicas.get(key);
+        if (replica != null) {
+            replica.touch(lastAccessedAt);
+        }
+        if (!applying.get()) {
+            for (Peer peer : peers) {
+                peer.touches.merge(key, lastAccessedAt, Math::max);
+            }
+        }
+    }
+
+    @Override
+    public void remove(String key) {
+        if (local != null) {
+            local.remove(key);
+        }
+        replicas.remove(key);
+        if (!applying.get()) {
+            awaitAck(publish(seq -> Delta.remove(key, seq)));
+        }
+    }
+
+    @Override
+    public Record find(String key, long now) {
+        Record record = local == null ? null : local.find(key, now);
+        if (record != null) {
+            return record;
+        }
+        Replica replica = replicas.get(key);
+        if (replica == null) {
+            return null;
+        }
+        if (replica.expired(now)) {
+            replicas.remove(key, replica);
+            return null;
+        }
+        return new Record(key, replica.createdAt, replica.lastAccessedAt, replica.member);
+    }
+
+    @Override
+    public int sweep(int slots, long now) {
+        int removed = local == null ? 0 : local.sweep(slots, now);
+        // 만료 스레드 하나에서만 호출
+        for (int i = 0; i < slots && !replicas.isEmpty(); i++) {
+            if (sweepCursor == null || !sweepCursor.hasNext()) {
+                sweepCursor = replicas.entrySet().iterator();
+                if (!sweepCursor.hasNext()) {
+                    break;
+                }
+            }
+            Map.Entry<String, Replica> entry = sweepCursor.next();
+            if (entry.getValue().expired(now) && replicas.remove(entry.getKey(), entry.getValue())) {
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    @Override
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public Stats stats() {
+        long sentFrames = 0;
+        long sentDeltas = 0;
+        long sentBytes = 0;
+        for (Peer peer : peers) {
+            sentFrames += peer.sentFrames.sum();
+            sentDeltas += peer.sentDeltas.sum();
+            sentBytes += peer.sentBytes.sum();
+        }
+        List<PeerStats> peerStats = peers.stream()
+                .map(peer -> new PeerStats(peer.address.getHostString() + ":" + peer.address.getPort(), peer.connected,
+                        peer.queue.size(), peer.touches.size(), peer.unackedCount(), peer.acknowledged))
+                .collect(Collectors.toList());
+        return new Stats(consistency.name(), replicas.size(), sentFrames, sentDeltas, sentBytes, receivedDeltas.sum(),
+                droppedCount.sum(), ackTimeoutCount.sum(), peerStats);
+    }
+
+    /**
+     * 모든 서버의 큐에 넣는다.
+     * @return 변경 순번
+     */
+    private long publish(SequencedDelta factory) {
+        synchronized (publishLock) {
+            long seq = ++sequence;
+            Delta delta = factory.create(seq);
+            for (Peer peer : peers) {
+                if (!peer.queue.offer(delta)) {
+                    droppedCount.increment();
+                }
+            }
+            return seq;
+        }
+    }
+
+    /**
+     * ONE_ACK : 연결된 서버가 있으면 그 중 하나가 반영할 때까지 기다린다.
+     */
+    private void awaitAck(long seq) {
+        if (consistency != Consistency.ONE_ACK || peers.stream().noneMatch(peer -> peer.connected)) {
+            return;
+        }
+        long deadline = System.nanoTime() + ackTimeoutNanos;
+        synchronized (ackLock) {
+            while (acknowledged < seq && running) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    ackTimeoutCount.increment();
+                    log.warn("session replication ack timeout: seq={}", seq);
+                    return;
+                }
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(ackLock, remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void acknowledge(long seq) {
+        synchronized (ackLock) {
+            if (seq > acknowledged) {
+                acknowledged = seq;
+                ackLock.notifyAll();
+            }
+        }
+    }
+
+    private void accept() {
+        while (running) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                inbound.add(socket);
+                thread("session-replication-in-" + socket.getRemoteSocketAddress(), () -> receive(socket)).start();
+            } catch (IOException e) {
+                if (running) {
+                    log.warn("session replication accept failed: {}", e.toString());
+                }
+            }
+        }
+    }
+
+    /**
+     * 연결 nonce 를 보낸 뒤, 받은 변경을 반영하고 프레임마다 마지막 순번으로 확인 응답
+     */
+    private void receive(Socket socket) {
+        ByteBuffer ack = ByteBuffer.allocate(64);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+             OutputStream out = socket.getOutputStream()) {
+            byte[] nonce = new byte[ReplicationCodec.NONCE_BYTES];
+            random.nextBytes(nonce);
+            codec.encodeHello(nonce, ack);
+            out.write(ack.array(), 0, ack.limit());
+            out.flush();
+            ReplicationCodec.Channel deltas = new ReplicationCodec.Channel(ReplicationCodec.DELTAS, nonce);
+            ReplicationCodec.Channel acks = new ReplicationCodec.Channel(ReplicationCodec.ACK, nonce);
+
+            while (running) {
+                ByteBuffer body = codec.read(deltas, in);
+                if (body.get(body.position()) != ReplicationCodec.DELTAS) {
+                    throw new IOException("unexpected frame type=" + body.get(body.position()));
+                }
+                long lastSequence = ReplicationCodec.decodeDeltas(body, this::apply);
+                if (lastSequence > 0) {
+                    codec.encodeAck(acks, lastSequence, ack);
+                    out.write(ack.array(), 0, ack.limit());
+                    out.flush();
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            if (running) {
+                log.info("session replication connection closed: {} ({})", socket.getRemoteSocketAddress(), e.toString());
+            }
+        } finally {
+            inbound.remove(socket);
+            closeQuietly(socket);
+        }
+    }
+
+    private void apply(Delta delta) {
+        receivedDeltas.increment();
+        applying.set(true);
+        try {
+            switch (delta.op) {
+                case Delta.PUT:
+                    if (replicas.size() < maxReplicas || replicas.containsKey(delta.key)) {
+                        replicas.put(delta.key, new Replica(delta.createdAt, delta.lastAccessedAt, delta.member));
+                    } else {
+                        droppedCount.increment();
+                    }
+                    break;
+                case Delta.TOUCH:
+                    touch(delta.key, delta.lastAccessedAt);
+                    for (Listener listener : listeners) {
+                        listener.touched(delta.key, delta.lastAccessedAt);
+                    }
+                    break;
+                case Delta.REMOVE:
+                    remove(delta.key);
+                    for (Listener listener : listeners) {
+                        listener.removed(delta.key);
+                    }
+                    break;
+                default:
+                    break;
+            }
+        } finally {
+            applying.set(false);
+        }
+    }
+
+    private static Thread thread(String name, Runnable task) {
+        Thread thread = new Thread(task, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // 무시
+        }
+    }
+
+    private interface SequencedDelta {
+        Delta create(long sequence);
+    }
+
+    /**
+     * 다른 서버에서 받은 세션
+     */
+    private final class Replica {
+        private final long createdAt;
+        private volatile long lastAccessedAt;
+        private final Member member;
+
+        private Replica(long createdAt, long lastAccessedAt, Member member) {
+            this.createdAt = createdAt;
+            this.lastAccessedAt = lastAccessedAt;
+            this.member = member;
+        }
+
+        void touch(long accessedAt) {
+            if (accessedAt > lastAccessedAt) {
+                lastAccessedAt = accessedAt;
+            }
+        }
+
+        boolean expired(long now) {
+            return now - lastAccessedAt >= idleMillis || now - createdAt >= absoluteMillis;
+        }
+    }
+
+    /**
+     * 보낼 서버 : 전용 스레드가 연결을 유지하면서 큐의 변경을 묶어서 보낸다.
+     */
+    private final class Peer {
+
+        private final InetSocketAddress address;
+        private final BlockingQueue<Delta> queue = new LinkedBlockingQueue<>(maxPending);
+        // 키별 마지막 접근 시각 (touchInterval 마다 보냄)
+        private final Map<String, Long> touches = new ConcurrentHashMap<>();
+        // 보냈지만 확인 응답을 받지 못한 PUT, REMOVE (순번 순서, 최대 maxPending 개)
+        private final Deque<Delta> unacked = new ArrayDeque<>();
+        private final ByteBuffer frame = ByteBuffer.allocate(ReplicationCodec.MAX_FRAME_BYTES);
+        private final LongAdder sentFrames = new LongAdder();
+        private final LongAdder sentDeltas = new LongAdder();
+        private final LongAdder sentBytes = new LongAdder();
+
+        private volatile boolean connected;
+        private volatile long acknowledged;
+        private Thread sender;
+        private volatile Socket socket;
+        // 현재 연결의 보내는 방향 (전용 스레드만 사용)
+        private ReplicationCodec.Channel channel;
+
+        private Peer(InetSocketAddress address) {
+            this.address = address;
+        }
+
+        void start() {
+            sender = thread("session-replication-out-" + address, this::run);
+            sender.start();
+        }
+
+        void stop() {
+            if (sender != null) {
+                sender.interrupt();
+            }
+            disconnect();
+        }
+
+        private void run() {
+            List<Delta> batch = new ArrayList<>();
+            long lastTouches = System.currentTimeMillis();
+            while (running) {
+                try {
+                    if (socket == null) {
+                        connect();
+                        resend();
+                    }
+                    if (batch.isEmpty()) {
+                        Delta first = queue.poll(touchIntervalMillis, TimeUnit.MILLISECONDS);
+                        if (first != null) {
+                            batch.add(first);
+                            queue.drainTo(batch, ReplicationCodec.MAX_DELTAS - 1);
+                        }
+                        long now = System.currentTimeMillis();
+                        if (now - lastTouches >= touchIntervalMillis) {
+                            drainTouches(batch);
+                            lastTouches = now;
+                        }
+                    }
+                    send(batch);
+                    batch.clear();
+                } catch (InterruptedException e) {
+                    return;
+                } catch (IOException e) {
+                    // 보내지 못한 batch 는 다시 연결한 뒤 다시 보낸다.
+                    if (running) {
+                        log.debug("session replication send failed: {} ({})", address, e.toString());
+                    }
+                    disconnect();
+                    try {
+                        Thread.sleep(RECONNECT_DELAY_MILLIS);
+                    } catch (InterruptedException interrupted) {
+                        return;
+                    }
+                }
+            }
+        }
+
+        /**
+         * 연결한 뒤 받는 서버가 보낸 nonce(hello)를 읽는다. 비밀값이 다르면 서명이 맞지 않아서 연결하지 않는다.
+         */
+        private void connect() throws IOException {
+            Socket connecting = new Socket();
+            DataInputStream in;
+            byte[] nonce;
+            try {
+                // 연결할 때마다 주소를 다시 찾는다. (서버가 다시 시작되면서 주소가 바뀔 수 있음)
+                connecting.connect(new InetSocketAddress(address.getHostString(), address.getPort()), CONNECT_TIMEOUT_MILLIS);
+                connecting.setTcpNoDelay(true);
+                connecting.setSoTimeout(CONNECT_TIMEOUT_MILLIS);
+                in = new DataInputStream(new BufferedInputStream(connecting.getInputStream()));
+                ByteBuffer hello = codec.read(null, in);
+                if (hello.get(hello.position()) != ReplicationCodec.HELLO) {
+                    throw new IOException("unexpected frame type=" + hello.get(hello.position()));
+                }
+                nonce = ReplicationCodec.decodeHello(hello);
+                connecting.setSoTimeout(0);
+            } catch (IOException e) {
+                closeQuietly(connecting);
+                throw e;
+            }
+            channel = new ReplicationCodec.Channel(ReplicationCodec.DELTAS, nonce);
+            ReplicationCodec.Channel acks = new ReplicationCodec.Channel(ReplicationCodec.ACK, nonce);
+            socket = connecting;
+            connected = true;
+            log.info("session replication connected: {}", address);
+            thread("session-replication-ack-" + address, () -> readAcks(connecting, in, acks)).start();
+        }
+
+        /**
+         * 이전 연결에서 보냈지만 확인 응답을 받지 못한 변경을 다시 보낸다. (큐의 변경보다 순번이 작으므로 먼저)
+         */
+        private void resend() throws IOException {
+            List<Delta> pending;
+            synchronized (unacked) {
+                pending = new ArrayList<>(unacked);
+            }
+            if (!pending.isEmpty()) {
+                log.info("session replication resend: {} deltas={}", address, pending.size());
+                send(pending);
+            }
+        }
+
+        /**
+         * 소켓에 쓴 PUT, REMOVE 를 확인 응답을 받을 때까지 보관 (이미 보관 중이거나 확인된 순번은 제외)
+         */
+        private void sent(List<Delta> batch, int from, int count) {
+            synchronized (unacked) {
+                long last = unacked.isEmpty() ? acknowledged : unacked.peekLast().sequence;
+                for (int i = from; i < from + count; i++) {
+                    Delta delta = batch.get(i);
+                    if (delta.sequence > last) {
+                        if (unacked.size() >= maxPending) {
+                            unacked.pollFirst();
+                            droppedCount.increment();
+                        }
+                        unacked.addLast(delta);
+                        last = delta.sequence;
+                    }
+                }
+            }
+        }
+
+        private void trimUnacked(long seq) {
+            synchronized (unacked) {
+                while (!unacked.isEmpty() && unacked.peekFirst().sequence <= seq) {
+                    unacked.pollFirst();
+                }
+            }
+        }
+
+        private int unackedCount() {
+            synchronized (unacked) {
+                return unacked.size();
+            }
+        }
+
+        private void disconnect() {
+            Socket current = socket;
+            socket = null;
+            if (current != null) {
+                closeQuietly(current);
+            }
+            if (connected) {
+                connected = false;
+                log.info("session replication disconnected: {}", address);
+            }
+        }
+
+        private void drainTouches(List<Delta> batch) {
+            for (Iterator<Map.Entry<String, Long>> it = touches.entrySet().iterator(); it.hasNext(); ) {
+                Map.Entry<String, Long> entry = it.next();
+                it.remove();
+                batch.add(Delta.touch(entry.getKey(), entry.getValue()));
+            }
+        }
+
+        private void send(List<Delta> batch) throws IOException {
+            if (batch.isEmpty()) {
+                return;
+            }
+            // 프레임을 버퍼에 만들어서 한번에 쓴다. (프레임마다 write 한번)
+            OutputStream out = socket.getOutputStream();
+            int from = 0;
+            while (from < batch.size()) {
+                int count = codec.encodeDeltas(channel, batch, from, System.currentTimeMillis(), frame);
+                if (count == 0) {
+                    // 한 프레임에 들어가지 않는 변경 (회원 정보가 너무 큼)
+                    droppedCount.increment();
+                    from++;
+                    continue;
+                }
+                out.write(frame.array(), 0, frame.limit());
+                sentFrames.increment();
+                sentDeltas.add(count);
+                sentBytes.add(frame.limit());
+                sent(batch, from, count);
+                from += count;
+            }
+        }
+
+        private void readAcks(Socket connection, DataInputStream in, ReplicationCodec.Channel acks) {
+            try {
+                while (running) {
+                    ByteBuffer body = codec.read(acks, in);
+                    if (body.get(body.position()) != ReplicationCodec.ACK) {
+                        throw new IOException("unexpected frame type=" + body.get(body.position()));
+                    }
+                    long seq = ReplicationCodec.decodeAck(body);
+                    acknowledged = Math.max(acknowledged, seq);
+                    trimUnacked(seq);
+                    acknowledge(seq);
+                }
+            } catch (SocketException e) {
+                // 연결 종료
+            } catch (IOException | RuntimeException e) {
+                log.debug("session replication ack reader closed: {} ({})", address, e.toString());
+            } finally {
+                if (socket == connection) {
+                    closeQuietly(connection);
+                }
+            }
+        }
+    }
+
+    /**
+     * 세션 복제 통계
+     * {"consistency":"ASYNC","replicas":1200,"sentFrames":830,"sentDeltas":2400,"sentBytes":98000,"receivedDeltas":2390,
+     *  "droppedCount":0,"ackTimeoutCount":0,
+     *  "peers":[{"address":"10.0.0.2:7070","connected":true,"pending":0,"pendingTouches":3,"unacknowledged":0,"acknowledged":1200}]}
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class Stats {
+        private final String consistency;
+        // 다른 서버에서 받아서 보관 중인 세션
+        private final int replicas;
+        private final long sentFrames;
+        private final long sentDeltas;
+        private final long sentBytes;
+        private final long receivedDeltas;
+        // 큐가 가득 차거나 보관 수를 넘어서 버린 변경
+        private final long droppedCount;
+        private final long ackTimeoutCount;
+        private final List<PeerStats> peers;
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class PeerStats {
+        private final String address;
+        private final boolean connected;
+        private final int pending;
+        private final int pendingTouches;
+        // 보냈지만 확인 응답을 받지 못한 변경 (다시 연결하면 다시 보냄)
+        private final int unacknowledged;
+        // 이 서버가 확인 응답한 마지막 순번
+        private final long acknowledged;
+    }
+}
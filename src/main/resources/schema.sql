@@ -0,0 +1,20 @@
+-- item.store=jdbc, member.store=jdbc 에서 사용 (내장 DB 는 시작할 때 자동 실행)
+create table if not exists item
+(
+    id        bigint primary key,
+    item_name varchar(255),
+    price     int,
+    quantity  int,
+    version   bigint not null default 0
+);
+
+create table if not exists member
+(
+    id       bigint primary key,
+    login_id varchar(255) not null,
+    name     varchar(255),
+    password varchar(255)
+);
+
+-- 로그인 ID 는 중복될 수 없음
+create unique index if not exists member_login_id_uk on member (login_id);
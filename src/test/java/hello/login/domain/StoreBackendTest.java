@@ -0,0 +1,215 @@
+package hello.login.domain;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import hello.login.domain.item.ColumnarItemStore;
+import hello.login.domain.item.Item;
+import hello.login.domain.item.ItemRepository;
+import hello.login.domain.item.ItemSearchCond;
+import hello.login.domain.item.ItemStore;
+import hello.login.domain.item.JdbcItemStore;
+import hello.login.domain.item.MemoryItemStore;
+import hello.login.domain.member.JdbcMemberStore;
+import hello.login.domain.member.Member;
+import hello.login.domain.member.MemberRepository;
+import hello.login.domain.member.MemberStore;
+import hello.login.domain.member.MemoryMemberStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * 저장소 백엔드(memory, columnar, jdbc)가 같은 결과를 내는지 확인하고, 컨트롤러가 사용하는 경로의 처리량을 비교한다.
+ */
+class StoreBackendTest {
+
+    // 측정 규모 : ./gradlew benchmark -Dbench.ops=100000 처럼 지정
+    private static final int BENCH_OPS = Integer.getInteger("bench.ops", 20000);
+
+    HikariDataSource dataSource;
+
+    @BeforeEach
+    void beforeEach() {
+        // application.properties 와 같은 설정
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:" + System.nanoTime() + ";DB_CLOSE_DELAY=-1;QUERY_CACHE_SIZE=64");
+        config.setUsername("sa");
+        config.setMaximumPoolSize(8);
+        config.setMinimumIdle(8);
+        dataSource = new HikariDataSource(config);
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+    }
+
+    @AfterEach
+    void afterEach() {
+        dataSource.close();
+    }
+
+    @Test
+    void itemBackends() {
+        for (Map.Entry<String, Supplier<ItemStore>> backend : itemStores().entrySet()) {
+            //given
+            ItemStore store = backend.getValue().get();
+            ItemRepository itemRepository = new ItemRepository(store);
+            Item itemA = itemRepository.save(new Item("itemA", 10000, 10));
+            itemRepository.save(new Item("itemB", 20000, 20));
+            itemRepository.saveAll(List.of(new Item("itemC", 30000, 30), new Item("itemD", 40000, 40)));
+
+            //when
+            boolean updated = itemRepository.update(itemA.getId(), 0L, new Item("itemA2", 15000, 5));
+            boolean stale = itemRepository.update(itemA.getId(), 0L, new Item("itemA3", 15000, 5));
+
+            //then
+            assertThat(updated).isTrue();
+            assertThat(stale).isFalse();
+            Item findItem = itemRepository.findById(itemA.getId());
+            assertThat(findItem.getItemName()).isEqualTo("itemA2");
+            assertThat(findItem.getVersion()).isEqualTo(1L);
+            assertThat(itemRepository.findAll().size()).isEqualTo(4);
+            assertThat(ids(itemRepository.findPage(2L, 10))).containsExactly(3L, 4L);
+            assertThat(ids(itemRepository.findAll(new ItemSearchCond(null, 20000, 30000, null)))).containsExactly(2L, 3L);
+
+            // 재시작 : 보조 인덱스를 다시 만들고 이어서 ID 발급
+            ItemRepository restarted = new ItemRepository(store);
+            assertThat(ids(restarted.findByItemNameStartingWith("itemA"))).containsExactly(1L);
+            assertThat(restarted.save(new Item("itemE", 50000, 50)).getId()).isEqualTo(5L);
+        }
+    }
+
+    @Test
+    void memberBackends() {
+        for (Map.Entry<String, Supplier<MemberStore>> backend : memberStores().entrySet()) {
+            //given
+            MemberStore store = backend.getValue().get();
+            MemberRepository memberRepository = new MemberRepository(store);
+            memberRepository.save(member("test"));
+            Member saved = memberRepository.save(member("spring"));
+
+            //when
+            Member findMember = memberRepository.findByLoginId("spring").get();
+
+            //then
+            assertThat(findMember.getId()).isEqualTo(saved.getId());
+            assertThat(memberRepository.findById(saved.getId()).getName()).isEqualTo("name-spring");
+            assertThat(memberRepository.findByLoginId("none")).isEmpty();
+            // 재시작 : 이미 발급한 ID 와 겹치지 않게 발급
+            Member jpa = new MemberRepository(store).save(member("jpa"));
+            assertThat(memberRepository.findById(jpa.getId()).getLoginId()).isEqualTo("jpa");
+            assertThat(memberRepository.findAll().size()).isEqualTo(3);
+        }
+    }
+
+    /**
+     * 컨트롤러 경로별 처리량 비교
+     * 상품 등록(save), 상품 상세(findById), 상품 수정(update), 목록 페이지(findPage 20개), 가격 검색(findAll(cond)), 로그인 조회(findByLoginId)
+     */
+    @Tag("benchmark")
+    @Test
+    void backendBenchmark(TestReporter reporter) {
+        for (Map.Entry<String, Supplier<ItemStore>> backend : itemStores().entrySet()) {
+            ItemRepository itemRepository = new ItemRepository(backend.getValue().get());
+            long start = System.nanoTime();
+            for (int i = 0; i < BENCH_OPS; i++) {
+                itemRepository.save(new Item("item" + i, 10000 + i % 1000, i % 100));
+            }
+            long save = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < BENCH_OPS; i++) {
+                assertThat(itemRepository.findById(1L + i % BENCH_OPS)).isNotNull();
+            }
+            long findById = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < BENCH_OPS; i++) {
+                long id = 1L + i % BENCH_OPS;
+                itemRepository.update(id, itemRepository.findById(id).getVersion(), new Item("item" + i, 20000, 10));
+            }
+            long update = System.nanoTime() - start;
+
+            int pages = Math.max(1, BENCH_OPS / 20);
+            start = System.nanoTime();
+            for (int i = 0; i < pages; i++) {
+                itemRepository.findPage((long) (i * 20) % BENCH_OPS, 20);
+            }
+            long findPage = System.nanoTime() - start;
+
+            int searches = Math.max(1, BENCH_OPS / 100);
+            start = System.nanoTime();
+            for (int i = 0; i < searches; i++) {
+                itemRepository.findAll(new ItemSearchCond(null, 10000 + i % 1000, 10000 + i % 1000, null));
+            }
+            long search = System.nanoTime() - start;
+
+            reporter.publishEntry(String.format("item %-8s ops=%,d save=%,d/s findById=%,d/s update=%,d/s findPage(20)=%,d/s priceSearch=%,d/s",
+                    backend.getKey(), BENCH_OPS, perSecond(BENCH_OPS, save), perSecond(BENCH_OPS, findById),
+                    perSecond(BENCH_OPS, update), perSecond(pages, findPage), perSecond(searches, search)));
+        }
+
+        for (Map.Entry<String, Supplier<MemberStore>> backend : memberStores().entrySet()) {
+            MemberRepository memberRepository = new MemberRepository(backend.getValue().get());
+            long start = System.nanoTime();
+            for (int i = 0; i < BENCH_OPS; i++) {
+                memberRepository.save(member("user" + i));
+            }
+            long save = System.nanoTime() - start;
+
+            int logins = Math.min(BENCH_OPS, 2000);
+            start = System.nanoTime();
+            for (int i = 0; i < logins; i++) {
+                assertThat(memberRepository.findByLoginId("user" + (i * 7919 % BENCH_OPS))).isNotEmpty();
+            }
+            long login = System.nanoTime() - start;
+
+            reporter.publishEntry(String.format("member %-6s ops=%,d save=%,d/s findByLoginId=%,d/s",
+                    backend.getKey(), BENCH_OPS, perSecond(BENCH_OPS, save), perSecond(logins, login)));
+        }
+    }
+
+    private Map<String, Supplier<ItemStore>> itemStores() {
+        Map<String, Supplier<ItemStore>> stores = new LinkedHashMap<>();
+        stores.put("memory", MemoryItemStore::new);
+        stores.put("columnar", ColumnarItemStore::new);
+        stores.put("jdbc", () -> new JdbcItemStore(dataSource));
+        return stores;
+    }
+
+    private Map<String, Supplier<MemberStore>> memberStores() {
+        Map<String, Supplier<MemberStore>> stores = new LinkedHashMap<>();
+        stores.put("memory", MemoryMemberStore::new);
+        stores.put("jdbc", () -> new JdbcMemberStore(dataSource));
+        return stores;
+    }
+
+    private static Member member(String loginId) {
+        Member member = new Member();
+        member.setLoginId(loginId);
+        member.setName("name-" + loginId);
+        member.setPassword("password");
+        return member;
+    }
+
+    private static List<Long> ids(List<Item> items) {
+        List<Long> ids = new ArrayList<>();
+        for (Item item : items) {
+            ids.add(item.getId());
+        }
+        return ids;
+    }
+
+    private static long perSecond(int ops, long nanos) {
+        return ops * 1_000_000_000L / Math.max(1, nanos);
+    }
+}
@@ -0,0 +1,163 @@
+package hello.login.domain.item;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ColumnarItemStoreTest {
+
+    // 메모리 측정 규모 : ./gradlew benchmark -Dbench.items=1000000,10000000 처럼 지정 (10M 은 -Xmx4g 이상 필요)
+    private static final String BENCH_ITEMS = System.getProperty("bench.items", "100000");
+
+    ColumnarItemStore store = new ColumnarItemStore(4);
+
+    @Test
+    void insert() {
+        //given
+        Item item = item(1L, "itemA", 10000, 10);
+
+        //when
+        store.insert(item);
+
+        //then
+        Item findItem = store.findById(1L);
+        assertThat(findItem).isEqualTo(item);
+        assertThat(findItem).isNotSameAs(item);
+        assertThat(store.maxId()).isEqualTo(1L);
+    }
+
+    @Test
+    void insertOutOfOrder() {
+        //given : 동시에 발급된 ID 는 순서가 바뀌어 도착할 수 있다.
+        for (long id : new long[]{3, 1, 5, 2, 4}) {
+            store.insert(item(id, "item" + id, 1000, 1));
+        }
+
+        //then : 행은 ID 순서, ID 조회도 옮겨진 행을 찾는다.
+        assertThat(store.findAll()).extracting("id").containsExactly(1L, 2L, 3L, 4L, 5L);
+        assertThat(store.findById(3L).getItemName()).isEqualTo("item3");
+        assertThat(store.findPage(2L, 2)).extracting("id").containsExactly(3L, 4L);
+        assertThat(store.maxId()).isEqualTo(5L);
+    }
+
+    @Test
+    void replace() {
+        //given
+        store.insert(item(1L, "상품1", 10000, 10));
+        store.insert(item(2L, null, null, null));
+
+        //when
+        Item updated = item(1L, "상품2", 20000, null);
+        updated.setVersion(1L);
+        store.replace(updated);
+
+        //then
+        Item findItem = store.findById(1L);
+        assertThat(findItem.getItemName()).isEqualTo("상품2");
+        assertThat(findItem.getPrice()).isEqualTo(20000);
+        assertThat(findItem.getQuantity()).isNull();
+        assertThat(findItem.getVersion()).isEqualTo(1L);
+        assertThat(store.findById(2L).getItemName()).isNull();
+    }
+
+    @Test
+    void findByIdZero() {
+        //given : ID 0 은 빈 슬롯 표시, 지운 뒤 남은 행도 있음
+        store.insert(item(1L, "itemA", 10000, 10));
+        store.clear();
+        store.insert(item(1L, "itemB", 20000, 20));
+
+        //when, then : 다른 상품(0번 행)이 조회되지 않는다.
+        assertThat(store.findById(0L)).isNull();
+    }
+
+    @Test
+    void findPage() {
+        //given
+        for (int i = 1; i <= 100; i++) {
+            store.insert(item(i, "item" + i, 1000 * i, i));
+        }
+
+        //when
+        List<Item> page = store.findPage(50L, 20);
+
+        //then
+        assertThat(page.size()).isEqualTo(20);
+        assertThat(page.get(0).getId()).isEqualTo(51L);
+        assertThat(page.get(19).getItemName()).isEqualTo("item70");
+        assertThat(store.findPage(95L, 20).size()).isEqualTo(5);
+    }
+
+    /**
+     * 상품 1개당 메모리 : 컬럼 32 + 상품명 UTF-8 바이트 (배열 여유분 포함 2배) + ID 해시 슬롯 (2의 거듭제곱으로 올리면 최대 48)
+     * HashMap<Long, Item> 은 Entry, Long, Item, Integer 2개, String 객체까지 상품 1개당 150 바이트가 넘는다.
+     */
+    @Test
+    void estimatedBytesPerItem() {
+        //given
+        int items = 10_000;
+        ColumnarItemStore columnar = new ColumnarItemStore(items);
+
+        //when
+        for (int i = 1; i <= items; i++) {
+            columnar.insert(item(i, "item" + i, 10000, 10));
+        }
+
+        //then : "item" + i 는 9 바이트 이하
+        assertThat(columnar.estimatedBytes() / items).isLessThanOrEqualTo(32 + 2 * 9 + 48);
+    }
+
+    /**
+     * 실제 힙 사용량 비교 : HashMap<Long, Item> vs 컬럼 저장소
+     */
+    @Tag("benchmark")
+    @Test
+    void memoryFootprint(TestReporter reporter) {
+        for (String count : BENCH_ITEMS.split(",")) {
+            int items = Integer.parseInt(count.trim());
+
+            long before = usedHeap();
+            Map<Long, Item> map = new HashMap<>();
+            for (long id = 1; id <= items; id++) {
+                Item item = new Item("item" + id, 10000, 10);
+                item.setId(id);
+                map.put(id, item);
+            }
+            long mapBytes = usedHeap() - before;
+            assertThat(map.size()).isEqualTo(items);
+            map = null;
+
+            before = usedHeap();
+            ColumnarItemStore columnar = new ColumnarItemStore(items);
+            for (int i = 1; i <= items; i++) {
+                columnar.insert(item(i, "item" + i, 10000, 10));
+            }
+            long columnarBytes = usedHeap() - before;
+            assertThat(columnar.maxId()).isEqualTo(items);
+
+            reporter.publishEntry(String.format("items=%,d HashMap<Long, Item>=%d bytes/item columnar=%d bytes/item (estimated %d)",
+                    items, mapBytes / items, columnarBytes / items, columnar.estimatedBytes() / items));
+        }
+    }
+
+    private static Item item(long id, String itemName, Integer price, Integer quantity) {
+        Item item = new Item(itemName, price, quantity);
+        item.setId(id);
+        item.setVersion(0L);
+        return item;
+    }
+
+    private long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
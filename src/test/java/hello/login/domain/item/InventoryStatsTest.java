@@ -0,0 +1,31 @@
+package hello.login.domain.item;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class InventoryStatsTest {
+
+    ItemRepository itemRepository = new ItemRepository();
+
+    @Test
+    void summary() {
+        //given
+        itemRepository.save(new Item("itemA", 10000, 10));
+        InventoryStats stats = new InventoryStats(itemRepository, 10);
+        stats.init();
+
+        //when
+        Item itemB = itemRepository.save(new Item("itemB", 20000, 20));
+        itemRepository.saveAll(List.of(new Item("itemC", 1000, 5), new Item("itemD", 1000, 100)));
+        itemRepository.update(itemB.getId(), new Item("itemB", 20000, 3));
+
+        //then
+        InventoryStats.Summary summary = stats.summary();
+        assertThat(summary.getItemCount()).isEqualTo(4L);
+        assertThat(summary.getInventoryValue()).isEqualTo(100000L + 60000L + 5000L + 100000L);
+        assertThat(summary.getLowStockCount()).isEqualTo(3L);
+    }
+}
@@ -0,0 +1,137 @@
+package hello.login.domain.item;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ItemCacheTest {
+
+    AtomicLong now = new AtomicLong();
+
+    @Test
+    void readThrough() {
+        //given
+        ItemRepository itemRepository = new ItemRepository();
+        Item itemA = itemRepository.save(new Item("itemA", 10000, 10));
+        ItemCache cache = new ItemCache(itemRepository, 100, 60, now::get);
+        cache.init();
+
+        //when
+        cache.findById(itemA.getId());
+        cache.findById(itemA.getId());
+        Item missing = cache.findById(99L);
+
+        //then
+        ItemCache.Stats stats = cache.stats();
+        assertThat(missing).isNull();
+        assertThat(stats.getHitCount()).isEqualTo(1L);
+        assertThat(stats.getMissCount()).isEqualTo(2L);
+        assertThat(stats.getSize()).isEqualTo(1L);
+    }
+
+    @Test
+    void invalidateOnUpdate() {
+        //given
+        ItemRepository itemRepository = new ItemRepository();
+        Item itemA = itemRepository.save(new Item("itemA", 10000, 10));
+        ItemCache cache = new ItemCache(itemRepository, 100, 60, now::get);
+        cache.init();
+        cache.findById(itemA.getId());
+
+        //when
+        itemRepository.update(itemA.getId(), new Item("itemB", 20000, 20));
+
+        //then
+        Item findItem = cache.findById(itemA.getId());
+        assertThat(findItem.getItemName()).isEqualTo("itemB");
+        assertThat(findItem.getVersion()).isEqualTo(1L);
+    }
+
+    @Test
+    void ttlAndSizeEviction() {
+        //given
+        ItemRepository itemRepository = new ItemRepository();
+        for (int i = 0; i < 100; i++) {
+            itemRepository.save(new Item("item" + i, 10000, 10));
+        }
+        // 조각 16개 x 1개
+        ItemCache cache = new ItemCache(itemRepository, 16, 60, now::get);
+        cache.init();
+
+        //when
+        for (long id = 1; id <= 100; id++) {
+            cache.findById(id);
+        }
+        long loaded = cache.stats().getLoadCount();
+        cache.findById(100L);
+        now.addAndGet(TimeUnit.SECONDS.toNanos(61));
+        cache.findById(100L);
+
+        //then
+        ItemCache.Stats stats = cache.stats();
+        assertThat(loaded).isEqualTo(100L);
+        assertThat(stats.getSize()).isLessThanOrEqualTo(16L);
+        assertThat(stats.getEvictionCount()).isEqualTo(100L - 16L);
+        // 한번은 캐시에서, 유효 시간이 지난 뒤에는 다시 조회
+        assertThat(stats.getHitCount()).isEqualTo(1L);
+        assertThat(stats.getLoadCount()).isEqualTo(101L);
+    }
+
+    @Test
+    void singleFlight() throws Exception {
+        //given
+        CountDownLatch loadStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        ItemRepository itemRepository = new ItemRepository(new MemoryItemStore() {
+            @Override
+            public Item findById(Long id) {
+                loads.incrementAndGet();
+                loadStarted.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.findById(id);
+            }
+        });
+        itemRepository.save(new Item("itemA", 10000, 10));
+        ItemCache cache = new ItemCache(itemRepository, 100, 60, now::get);
+        cache.init();
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        //when
+        List<Future<Item>> results = new ArrayList<>();
+        results.add(executor.submit(() -> cache.findById(1L)));
+        loadStarted.await();
+        for (int i = 1; i < threads; i++) {
+            results.add(executor.submit(() -> cache.findById(1L)));
+        }
+        while (cache.stats().getMissCount() < threads) {
+            Thread.onSpinWait();
+        }
+        // 나머지 요청이 진행 중인 조회를 기다리기 시작할 때까지
+        Thread.sleep(100);
+        release.countDown();
+
+        //then
+        for (Future<Item> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS).getItemName()).isEqualTo("itemA");
+        }
+        executor.shutdown();
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(cache.stats().getLoadCount()).isEqualTo(1L);
+    }
+}
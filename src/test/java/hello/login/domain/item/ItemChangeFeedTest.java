@@ -0,0 +1,62 @@
+package hello.login.domain.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ItemChangeFeedTest {
+
+    ItemRepository itemRepository = new ItemRepository();
+    ItemChangeFeed feed = new ItemChangeFeed(itemRepository, 4);
+
+    @BeforeEach
+    void beforeEach() {
+        feed.init();
+    }
+
+    @Test
+    void read() {
+        //given
+        AtomicInteger published = new AtomicInteger();
+        feed.addPublishHook(published::incrementAndGet);
+        Item item = itemRepository.save(new Item("itemA", 10000, 10));
+        itemRepository.update(item.getId(), new Item("itemB", 20000, 20));
+
+        //when
+        ItemChangeFeed.Batch batch = feed.read(1, 10);
+
+        //then
+        List<ItemChange> changes = batch.getChanges();
+        assertThat(changes.size()).isEqualTo(2);
+        assertThat(changes.get(0).getType()).isEqualTo(ItemChange.Type.SAVE);
+        assertThat(changes.get(1).getItem().getItemName()).isEqualTo("itemB");
+        assertThat(batch.getNext()).isEqualTo(3L);
+        assertThat(batch.isOverrun()).isFalse();
+        assertThat(published.get()).isEqualTo(2);
+
+        // 이어서 읽기 : 새 변경이 없으면 빈 결과
+        assertThat(feed.read(batch.getNext(), 10).getChanges()).isEmpty();
+    }
+
+    @Test
+    void overrun() {
+        //given : 버퍼 크기(4)보다 많은 변경
+        for (int i = 1; i <= 10; i++) {
+            itemRepository.save(new Item("item" + i, 10000, 10));
+        }
+
+        //when
+        ItemChangeFeed.Batch batch = feed.read(2, 10);
+
+        //then : 남아있는 가장 오래된 순번부터 다시 읽어야 함
+        assertThat(batch.isOverrun()).isTrue();
+        assertThat(batch.getNext()).isEqualTo(7L);
+        List<ItemChange> changes = feed.read(batch.getNext(), 10).getChanges();
+        assertThat(changes.size()).isEqualTo(4);
+        assertThat(changes.get(3).getSequence()).isEqualTo(10L);
+    }
+}
@@ -0,0 +1,206 @@
+package hello.login.domain.item;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ItemJournalTest {
+
+    // 복구 시간 측정 규모 : ./gradlew benchmark -Dbench.records=1000000
+    private static final int BENCH_RECORDS = Integer.getInteger("bench.records", 100_000);
+    private static final int SEGMENT_SIZE = 1 << 20;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void recoverFromLog() throws IOException {
+        //given
+        ItemRepository itemRepository = new ItemRepository();
+        open(itemRepository);
+        Item itemA = itemRepository.save(new Item("itemA", 10000, 10));
+        itemRepository.save(new Item("상품B", 20000, null));
+        itemRepository.update(itemA.getId(), new Item("itemA2", 15000, 5));
+        // 비정상 종료 : close() 를 호출하지 않음 (종료시 스냅샷 없음)
+
+        //when
+        ItemRepository recovered = new ItemRepository();
+        open(recovered);
+
+        //then
+        assertThat(recovered.findAll()).containsExactlyElementsOf(itemRepository.findAll());
+        assertThat(recovered.findByItemNameStartingWith("itemA2").size()).isEqualTo(1);
+        // 복구 이후 ID 는 이어서 발급
+        assertThat(recovered.save(new Item("itemC", 1000, 1)).getId()).isEqualTo(3L);
+    }
+
+    @Test
+    void recoverFromSnapshotAndLog() throws IOException {
+        //given
+        ItemRepository itemRepository = new ItemRepository();
+        ItemJournal journal = open(itemRepository);
+        for (int i = 0; i < 100; i++) {
+            itemRepository.save(new Item("item" + i, 1000, i));
+        }
+        journal.snapshot();
+        itemRepository.update(1L, new Item("updated", 2000, 0));
+        itemRepository.save(new Item("after", 3000, 0));
+        // 비정상 종료 : close() 를 호출하지 않음 (종료시 스냅샷 없음)
+
+        //when
+        ItemRepository recovered = new ItemRepository();
+        open(recovered);
+
+        //then
+        assertThat(recovered.findAll().size()).isEqualTo(101);
+        assertThat(recovered.findById(1L).getItemName()).isEqualTo("updated");
+        assertThat(recovered.findById(101L).getItemName()).isEqualTo("after");
+    }
+
+    @Test
+    void ignoreTornRecord() throws IOException {
+        //given
+        ItemRepository itemRepository = new ItemRepository();
+        open(itemRepository);
+        itemRepository.save(new Item("itemA", 10000, 10));
+        itemRepository.save(new Item("itemB", 20000, 20));
+        // 비정상 종료 : close() 를 호출하지 않음 (종료시 스냅샷 없음)
+
+        // 마지막 레코드 중간 바이트 손상
+        Path segment = segments().get(segments().size() - 1);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            int secondRecord = ItemJournal.encode((byte) 1, itemRepository.findById(1L)).length;
+            channel.write(ByteBuffer.wrap(new byte[]{0x7f}), secondRecord + 12);
+        }
+
+        //when
+        ItemRepository recovered = new ItemRepository();
+        open(recovered);
+
+        //then
+        assertThat(recovered.findAll().size()).isEqualTo(1);
+        assertThat(recovered.findById(1L).getItemName()).isEqualTo("itemA");
+    }
+
+    @Test
+    void saveAllWaitsForFsyncWithoutLocks() throws Exception {
+        //given : 대량 저장이 fsync 를 기다리는 동안(afterSaveAll) 다른 스레드가 같은 묶음의 상품을 수정
+        ItemRepository itemRepository = new ItemRepository();
+        open(itemRepository);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        List<Future<?>> updates = new ArrayList<>();
+        itemRepository.addListener(new ItemChangeListener() {
+            @Override
+            public void onSave(Item item) {
+            }
+
+            @Override
+            public void onUpdate(Item before, Item after) {
+            }
+
+            @Override
+            public void afterSaveAll(List<Item> items) {
+                Future<?> update = executor.submit(() -> itemRepository.update(items.get(0).getId(), new Item("updated", 2000, 0)));
+                updates.add(update);
+                // lock 을 잡고 있으면 끝나지 않는다.
+                assertThatCode(() -> update.get(5, TimeUnit.SECONDS)).doesNotThrowAnyException();
+            }
+        }, false);
+
+        //when
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            items.add(new Item("item" + i, 1000, i));
+        }
+        itemRepository.saveAll(items);
+        executor.shutdown();
+        // 비정상 종료 : close() 를 호출하지 않음 (종료시 스냅샷 없음)
+
+        //then : 로그에는 저장 다음에 수정이 기록된다.
+        assertThat(updates).hasSize(1);
+        ItemRepository recovered = new ItemRepository();
+        open(recovered);
+        assertThat(recovered.findAll()).containsExactlyElementsOf(itemRepository.findAll());
+        assertThat(recovered.findById(1L).getItemName()).isEqualTo("updated");
+    }
+
+    /**
+     * 쓰기(group commit) 처리량과 복구 시간 측정
+     */
+    @Tag("benchmark")
+    @Test
+    void recoveryBenchmark(TestReporter reporter) throws Exception {
+        //given
+        ItemRepository itemRepository = new ItemRepository();
+        new ItemJournal(dir, 64 << 20, true, 0).open(itemRepository);
+
+        int threads = 32;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < BENCH_RECORDS / threads; i++) {
+                    itemRepository.save(new Item("item" + i, 10000, 10));
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        long writeNanos = System.nanoTime() - start;
+        int written = itemRepository.findAll().size();
+        // 비정상 종료 : close() 를 호출하지 않음 (종료시 스냅샷 없음)
+
+        //when
+        start = System.nanoTime();
+        ItemRepository fromLog = new ItemRepository();
+        ItemJournal replayed = open(fromLog);
+        long logRecoveryNanos = System.nanoTime() - start;
+        replayed.close(); // 종료시 스냅샷 저장
+
+        start = System.nanoTime();
+        ItemRepository fromSnapshot = new ItemRepository();
+        open(fromSnapshot);
+        long snapshotRecoveryNanos = System.nanoTime() - start;
+
+        //then
+        assertThat(fromLog.findAll().size()).isEqualTo(written);
+        assertThat(fromSnapshot.findAll().size()).isEqualTo(written);
+        reporter.publishEntry(String.format("records=%,d write(sync, %d threads)=%,.0f records/s log replay=%dms snapshot load=%dms",
+                written, threads, written / (writeNanos / 1e9),
+                TimeUnit.NANOSECONDS.toMillis(logRecoveryNanos), TimeUnit.NANOSECONDS.toMillis(snapshotRecoveryNanos)));
+    }
+
+    private ItemJournal open(ItemRepository itemRepository) throws IOException {
+        ItemJournal journal = new ItemJournal(dir, SEGMENT_SIZE, true, 0);
+        journal.open(itemRepository);
+        return journal;
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            List<Path> segments = new ArrayList<>();
+            files.filter(file -> file.getFileName().toString().startsWith("wal-")).sorted().forEach(segments::add);
+            return segments;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package hello.login.domain.item;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ItemRepositoryConcurrencyTest {
+
+    // 벤치마크 규모 : ./gradlew benchmark -Dbench.ops=100000 처럼 지정 가능
+    private static final int OPS_PER_THREAD = Integer.getInteger("bench.ops", 2_000);
+    private static final int[] THREADS = {1, 2, 4, 8, 16, 32, 64};
+
+    @Test
+    void concurrentSave() throws InterruptedException {
+        //given
+        ItemRepository itemRepository = new ItemRepository();
+        int threads = 16;
+        int perThread = 1_000;
+
+        //when
+        runConcurrently(threads, t -> {
+            for (int i = 0; i < perThread; i++) {
+                itemRepository.save(new Item("item" + t + "-" + i, 10000, 10));
+            }
+        });
+
+        //then
+        List<Item> result = itemRepository.findAll();
+        assertThat(result.size()).isEqualTo(threads * perThread);
+        Set<Long> ids = new HashSet<>();
+        result.forEach(item -> ids.add(item.getId()));
+        assertThat(ids.size()).isEqualTo(threads * perThread);
+    }
+
+    @Test
+    void findAllSnapshot() {
+        //given
+        ItemRepository itemRepository = new ItemRepository();
+        itemRepository.save(new Item("item1", 10000, 10));
+
+        //when
+        List<Item> first = itemRepository.findAll();
+        List<Item> second = itemRepository.findAll();
+        itemRepository.save(new Item("item2", 20000, 20));
+        List<Item> third = itemRepository.findAll();
+
+        //then
+        assertThat(second).isSameAs(first);
+        assertThat(first.size()).isEqualTo(1);
+        assertThat(third.size()).isEqualTo(2);
+        assertThatThrownBy(() -> third.add(new Item()))
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    /**
+     * 기존 구현(HashMap + long sequence)과 현재 구현의 처리량 비교
+     * 기존 구현은 동시 요청에서 맵이 깨지므로 synchronized 로 감싼 형태로 비교한다.
+     * 쓰기 1 : 조회 4 : 전체 목록 1 비율 (상품 등록 / 상품 상세 / 상품 목록)
+     */
+    @Tag("benchmark")
+    @Test
+    void contentionBenchmark(TestReporter reporter) throws InterruptedException {
+        for (int threads : THREADS) {
+            LegacyItemRepository legacyRepository = new LegacyItemRepository();
+            double legacy = measure(threads, legacyRepository::save, legacyRepository::findById, legacyRepository::findAll);
+            ItemRepository itemRepository = new ItemRepository();
+            double current = measure(threads, itemRepository::save, itemRepository::findById, itemRepository::findAll);
+            reporter.publishEntry(String.format("threads=%2d legacy=%,12.0f ops/s current=%,12.0f ops/s", threads, legacy, current));
+        }
+    }
+
+    private double measure(int threads, Consumer<Item> save, Function<Long, Item> findById,
+                           Supplier<List<Item>> findAll) throws InterruptedException {
+        // 목록 조회 비용이 의미있도록 미리 데이터를 넣어둔다.
+        for (int i = 0; i < 1_000; i++) {
+            save.accept(new Item("seed" + i, 10000, 10));
+        }
+        long start = System.nanoTime();
+        runConcurrently(threads, t -> {
+            for (int i = 0; i < OPS_PER_THREAD; i++) {
+                switch (i % 6) {
+                    case 0:
+                        save.accept(new Item("item", 10000, 10));
+                        break;
+                    case 5:
+                        findAll.get();
+                        break;
+                    default:
+                        findById.apply((long) (i % 1_000) + 1);
+                }
+            }
+        });
+        long elapsed = System.nanoTime() - start;
+        return (double) threads * OPS_PER_THREAD / elapsed * TimeUnit.SECONDS.toNanos(1);
+    }
+
+    private void runConcurrently(int threads, Consumer<Integer> task) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            int threadNo = t;
+            executor.execute(() -> {
+                ready.countDown();
+                try {
+                    start.await();
+                    task.accept(threadNo);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        ready.await();
+        start.countDown();
+        done.await();
+        executor.shutdown();
+    }
+
+    /**
+     * 변경 전 ItemRepository 구현 (비교용)
+     */
+    static class LegacyItemRepository {
+
+        private final Map<Long, Item> store = new HashMap<>();
+        private long sequence = 0L;
+
+        synchronized void save(Item item) {
+            item.setId(++sequence);
+            store.put(item.getId(), item);
+        }
+
+        synchronized Item findById(Long id) {
+            return store.get(id);
+        }
+
+        synchronized List<Item> findAll() {
+            return new ArrayList<>(store.values());
+        }
+    }
+}
@@ -3,6 +3,7 @@ package hello.login.domain.item;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.*;
@@ -65,4 +66,86 @@ class ItemRepositoryTest {
         assertThat(findItem.getPrice()).isEqualTo(updateParam.getPrice());
         assertThat(findItem.getQuantity()).isEqualTo(updateParam.getQuantity());
     }
+
+    @Test
+    void updateWithVersion() {
+        //given
+        Item savedItem = itemRepository.save(new Item("item1", 10000, 10));
+        Long itemId = savedItem.getId();
+
+        //when
+        boolean first = itemRepository.update(itemId, 0L, new Item("item2", 20000, 20));
+        boolean stale = itemRepository.update(itemId, 0L, new Item("item3", 30000, 30));
+
+        //then
+        assertThat(first).isTrue();
+        assertThat(stale).isFalse();
+        Item findItem = itemRepository.findById(itemId);
+        assertThat(findItem.getItemName()).isEqualTo("item2");
+        assertThat(findItem.getVersion()).isEqualTo(1L);
+    }
+
+    @Test
+    void findPage() {
+        //given
+        Item item1 = itemRepository.save(new Item("item1", 10000, 10));
+        Item item2 = itemRepository.save(new Item("item2", 20000, 20));
+        Item item3 = itemRepository.save(new Item("item3", 30000, 30));
+
+        //when
+        List<Item> first = itemRepository.findPage(null, 2);
+        List<Item> second = itemRepository.findPage(first.get(1).getId(), 2);
+
+        //then
+        assertThat(first).containsExactly(item1, item2);
+        assertThat(second).containsExactly(item3);
+    }
+
+    @Test
+    void findBySecondaryIndex() {
+        //given
+        Item itemA = itemRepository.save(new Item("itemA", 10000, 10));
+        Item itemB = itemRepository.save(new Item("itemB", 20000, 5));
+        Item other = itemRepository.save(new Item("other", 30000, 1));
+
+        //when
+        itemRepository.update(itemB.getId(), new Item("otherB", 20000, 50));
+
+        //then
+        assertThat(itemRepository.findByItemNameStartingWith("item")).containsExactly(itemA);
+        assertThat(itemRepository.findByItemNameStartingWith("other")).extracting("itemName")
+                .containsExactly("other", "otherB");
+        assertThat(itemRepository.findByPriceRange(15000, null)).extracting("itemName")
+                .containsExactly("otherB", "other");
+        assertThat(itemRepository.findByMaxQuantity(10)).containsExactly(other, itemA);
+        assertThat(itemRepository.findAll(new ItemSearchCond("other", null, 25000, null))).extracting("itemName")
+                .containsExactly("otherB");
+    }
+
+    @Test
+    void findPageBySearchCond() {
+        //given : 가격 1000 ~ 100000, 수량은 홀수/짝수 번갈아
+        for (int i = 1; i <= 100; i++) {
+            itemRepository.save(new Item("item" + i, 1000 * (101 - i), i % 2 == 0 ? 1 : 100));
+        }
+        ItemSearchCond cond = new ItemSearchCond(null, 11000, 90000, 1);
+
+        //when : 가격 인덱스로 읽으면서 수량 조건으로 걸러진 후보를 건너뛰고 7개씩
+        List<Item> result = new ArrayList<>();
+        Long after = null;
+        List<Item> page;
+        do {
+            page = itemRepository.findPage(cond, after, 7);
+            result.addAll(page);
+            after = page.isEmpty() ? null : page.get(page.size() - 1).getId();
+        } while (page.size() == 7);
+
+        //then : 조건에 맞는 상품을 빠짐없이, 중복 없이, 가격 순서로
+        assertThat(result).containsExactlyElementsOf(itemRepository.findAll(cond));
+        assertThat(result).hasSize(40);
+        assertThat(result.get(0).getPrice()).isEqualTo(11000);
+        assertThat(itemRepository.findPage(new ItemSearchCond("item", null, null, null), null, 3)).extracting("itemName")
+                .containsExactly("item1", "item10", "item100");
+        assertThat(itemRepository.findPage(new ItemSearchCond(null, 30000, 20000, null), null, 3)).isEmpty();
+    }
 }
@@ -0,0 +1,113 @@
+package hello.login.domain.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ItemSearchIndexTest {
+
+    // 측정 규모 : ./gradlew benchmark -Dbench.items=1000000 처럼 지정
+    private static final int BENCH_ITEMS = Integer.getInteger("bench.items", 100000);
+
+    ItemRepository itemRepository = new ItemRepository();
+    ItemSearchIndex searchIndex = new ItemSearchIndex(itemRepository);
+
+    @BeforeEach
+    void beforeEach() {
+        searchIndex.init();
+    }
+
+    @Test
+    void tokenize() {
+        assertThat(ItemSearchIndex.tokenize("상품A 세트")).containsExactly("상품", "a", "세트");
+        assertThat(ItemSearchIndex.tokenize("무선키보드")).containsExactly("무선", "선키", "키보", "보드");
+        assertThat(ItemSearchIndex.tokenize("ＵＳＢ-C item2")).containsExactly("usb", "c", "item", "2");
+    }
+
+    @Test
+    void search() {
+        //given
+        Item keyboard = itemRepository.save(new Item("무선 키보드 Logitech K380", 50000, 10));
+        Item keyboardSet = itemRepository.save(new Item("무선키보드 마우스 세트", 70000, 10));
+        itemRepository.save(new Item("유선 마우스", 10000, 10));
+
+        //when
+        List<Item> result = searchIndex.search("무선 키보드", 10);
+
+        //then
+        assertThat(result).containsExactly(keyboard, keyboardSet);
+        assertThat(searchIndex.search("LOGITECH", 10)).containsExactly(keyboard);
+        assertThat(searchIndex.search("마우스", 10).size()).isEqualTo(2);
+        assertThat(searchIndex.search("트랙패드", 10)).isEmpty();
+    }
+
+    @Test
+    void searchAfterUpdate() {
+        //given
+        Item item = itemRepository.save(new Item("itemA", 10000, 10));
+
+        //when
+        itemRepository.update(item.getId(), new Item("상품A", 10000, 10));
+
+        //then
+        assertThat(searchIndex.search("itemA", 10)).isEmpty();
+        assertThat(searchIndex.search("상품", 10).get(0).getId()).isEqualTo(item.getId());
+    }
+
+    @Test
+    void indexExistingItems() {
+        //given
+        itemRepository.save(new Item("itemA", 10000, 10));
+
+        //when
+        ItemSearchIndex newIndex = new ItemSearchIndex(itemRepository);
+        newIndex.init();
+
+        //then
+        assertThat(newIndex.search("itema", 10).size()).isEqualTo(1);
+    }
+
+    /**
+     * 검색 응답 시간 (드문 단어 / 자주 나오는 단어)
+     */
+    @Tag("benchmark")
+    @Test
+    void searchBenchmark(TestReporter reporter) {
+        String[] words = {"무선", "키보드", "마우스", "세트", "모니터", "거치대", "케이블", "충전기", "노트북", "파우치",
+                "wireless", "keyboard", "mouse", "usb", "hub", "stand", "cable", "charger", "laptop", "pro"};
+        Random random = new Random(1);
+        long start = System.nanoTime();
+        for (int i = 0; i < BENCH_ITEMS; i++) {
+            StringBuilder name = new StringBuilder();
+            for (int w = 0; w < 3; w++) {
+                name.append(words[random.nextInt(words.length)]).append(' ');
+            }
+            name.append("model").append(i);
+            itemRepository.save(new Item(name.toString(), 10000, 10));
+        }
+        long indexNanos = System.nanoTime() - start;
+
+        String[] queries = {"model" + (BENCH_ITEMS / 2), "무선 키보드", "wireless mouse usb", "키보드"};
+        for (String query : queries) {
+            for (int i = 0; i < 20; i++) {
+                searchIndex.search(query, 20);
+            }
+            int rounds = 200;
+            start = System.nanoTime();
+            int found = 0;
+            for (int i = 0; i < rounds; i++) {
+                found = searchIndex.search(query, 20).size();
+            }
+            reporter.publishEntry(String.format("items=%,d query=\"%s\" results=%d avg=%.3fms",
+                    BENCH_ITEMS, query, found, (System.nanoTime() - start) / 1e6 / rounds));
+            assertThat(found).isGreaterThan(0);
+        }
+        reporter.publishEntry(String.format("items=%,d terms=%,d index=%dms", BENCH_ITEMS, searchIndex.termCount(), indexNanos / 1_000_000));
+    }
+}
@@ -0,0 +1,90 @@
+package hello.login.domain.login;
+
+import hello.login.domain.member.Member;
+import hello.login.domain.member.MemberRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+class LoginServiceTest {
+
+    MemberRepository memberRepository = new MemberRepository();
+    // 테스트는 반복 횟수를 낮춰서 빠르게
+    PasswordHasher passwordHasher = new PasswordHasher(1_000);
+    LoginService loginService = new LoginService(memberRepository, passwordHasher, 2, 4, 3000);
+
+    @AfterEach
+    void afterEach() {
+        loginService.close();
+    }
+
+    @Test
+    void hashedPassword() {
+        //given
+        String hash = passwordHasher.hash("test!");
+
+        //then
+        assertThat(hash).startsWith("pbkdf2$1000$");
+        assertThat(passwordHasher.hash("test!")).isNotEqualTo(hash);
+        assertThat(passwordHasher.matches("test!", hash)).isTrue();
+        assertThat(passwordHasher.matches("test", hash)).isFalse();
+        assertThat(passwordHasher.matches("test!", "test!")).isFalse();
+        // 반복 횟수 설정이 바뀌어도 저장된 해시로 확인
+        assertThat(new PasswordHasher(2_000).matches("test!", hash)).isTrue();
+    }
+
+    @Test
+    void login() {
+        //given
+        Member member = new Member();
+        member.setLoginId("test");
+        member.setName("테스터");
+        member.setPassword("test!");
+        loginService.join(member);
+
+        //when
+        Member loginMember = loginService.login("test", "test!");
+
+        //then
+        assertThat(memberRepository.findByLoginId("test").get().getPassword()).startsWith("pbkdf2$");
+        assertThat(loginMember.getId()).isEqualTo(member.getId());
+        assertThat(loginService.login("test", "wrong")).isNull();
+        assertThat(loginService.login("none", "test!")).isNull();
+    }
+
+    @Test
+    void overload() throws Exception {
+        //given : 스레드 1개, 대기열 1개가 모두 사용 중
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordHasher slowHasher = new PasswordHasher(1_000) {
+            @Override
+            public boolean matches(String rawPassword, String encoded) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.matches(rawPassword, encoded);
+            }
+        };
+        LoginService busyService = new LoginService(memberRepository, slowHasher, 1, 1, 3000);
+        CompletableFuture<Member> running = CompletableFuture.supplyAsync(() -> busyService.login("a", "a"));
+        CompletableFuture<Member> queued = CompletableFuture.supplyAsync(() -> busyService.login("b", "b"));
+        while (busyService.queuedTasks() < 1) {
+            Thread.onSpinWait();
+        }
+
+        //when, then : 기다리지 않고 바로 실패
+        assertThatThrownBy(() -> busyService.login("c", "c"))
+                .isInstanceOf(LoginOverloadException.class);
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isNull();
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isNull();
+        busyService.close();
+    }
+}
@@ -0,0 +1,82 @@
+package hello.login.domain.member;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+
+class LoginIdFilterTest {
+
+    @Test
+    void noFalseNegatives() {
+        //given : 처음 크기보다 많이 추가해서 필터가 늘어나도록
+        LoginIdFilter filter = new LoginIdFilter(1_000, 0.01);
+
+        //when
+        for (int i = 0; i < 50_000; i++) {
+            filter.add("user" + i);
+        }
+
+        //then
+        for (int i = 0; i < 50_000; i++) {
+            assertThat(filter.mightContain("user" + i)).isTrue();
+        }
+        LoginIdFilter.Stats stats = filter.stats();
+        assertThat(stats.getCount()).isEqualTo(50_000L);
+        assertThat(stats.getSegments()).isGreaterThan(1);
+    }
+
+    @Test
+    void falsePositiveRate() {
+        //given
+        LoginIdFilter filter = new LoginIdFilter(1_000, 0.01);
+        for (int i = 0; i < 50_000; i++) {
+            filter.add("user" + i);
+        }
+
+        //when
+        int probes = 200_000;
+        int falsePositives = 0;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain("attacker" + i)) {
+                falsePositives++;
+            }
+        }
+
+        //then
+        double rate = (double) falsePositives / probes;
+        LoginIdFilter.Stats stats = filter.stats();
+        // 가득 찬 필터들은 설계한 오탐률 그대로이므로 목표값에 가깝다. (측정 오차 20% 허용)
+        assertThat(rate).isLessThanOrEqualTo(0.012);
+        assertThat(stats.getEstimatedFalsePositiveRate()).isLessThanOrEqualTo(0.012);
+        assertThat(stats.getRejectedCount()).isEqualTo(probes - falsePositives);
+    }
+
+    @Test
+    void unknownLoginIdSkipsStore() {
+        //given
+        int[] storeLookups = new int[1];
+        MemberRepository memberRepository = new MemberRepository(new MemoryMemberStore() {
+            @Override
+            public Optional<Member> findByLoginId(String loginId) {
+                storeLookups[0]++;
+                return super.findByLoginId(loginId);
+            }
+        });
+        Member member = new Member();
+        member.setLoginId("test");
+        memberRepository.save(member);
+
+        //when
+        for (int i = 0; i < 1000; i++) {
+            memberRepository.findByLoginId("unknown" + i);
+        }
+        memberRepository.findByLoginId("test");
+
+        //then : 필터를 통과한 조회만 저장소까지 간다.
+        LoginIdFilter.Stats stats = memberRepository.loginIdFilterStats();
+        assertThat(storeLookups[0]).isEqualTo(1 + (int) stats.getFalsePositiveCount());
+        assertThat(stats.getRejectedCount()).isGreaterThanOrEqualTo(990L);
+    }
+}
@@ -0,0 +1,191 @@
+package hello.login.domain.member;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.*;
+
+class MemberRepositoryTest {
+
+    // 로그인 조회 측정 규모 : ./gradlew benchmark -Dbench.members=1000,1000000,10000000 처럼 지정 (10M 은 -Xmx4g 이상 필요)
+    private static final String BENCH_MEMBERS = System.getProperty("bench.members", "1000,10000,100000");
+    private static final int LOOKUPS = 200_000;
+    // 가입 처리량 측정 규모 : ./gradlew benchmark -Dbench.ops=1000000
+    private static final int SIGN_UPS = Integer.getInteger("bench.ops", 200_000);
+
+    MemberRepository memberRepository = new MemberRepository();
+
+    @Test
+    void findByLoginId() {
+        //given
+        memberRepository.save(member("test"));
+        Member spring = memberRepository.save(member("spring"));
+
+        //when
+        Member findMember = memberRepository.findByLoginId("spring").get();
+
+        //then
+        assertThat(findMember).isSameAs(spring);
+        assertThat(memberRepository.findByLoginId("jpa")).isEmpty();
+        assertThat(memberRepository.findByLoginId(null)).isEmpty();
+    }
+
+    @Test
+    void duplicateLoginId() {
+        //given
+        memberRepository.save(member("test"));
+
+        //when, then
+        assertThatThrownBy(() -> memberRepository.save(member("test")))
+                .isInstanceOf(DuplicateMemberException.class);
+        assertThat(memberRepository.findAll().size()).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentDuplicateLoginId() throws Exception {
+        //given
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Callable<Boolean>> tasks = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            tasks.add(() -> {
+                try {
+                    memberRepository.save(member("same"));
+                    return true;
+                } catch (DuplicateMemberException e) {
+                    return false;
+                }
+            });
+        }
+
+        //when
+        int saved = 0;
+        for (Future<Boolean> result : executor.invokeAll(tasks)) {
+            if (result.get()) {
+                saved++;
+            }
+        }
+        executor.shutdown();
+
+        //then
+        assertThat(saved).isEqualTo(1);
+        assertThat(memberRepository.findAll().size()).isEqualTo(1);
+    }
+
+    /**
+     * 회원 수에 따른 로그인 조회(findByLoginId) 시간 : 인덱스를 사용하므로 회원 수가 늘어도 일정해야 한다.
+     */
+    @Tag("benchmark")
+    @Test
+    void loginLatency(TestReporter reporter) {
+        for (String count : BENCH_MEMBERS.split(",")) {
+            int members = Integer.parseInt(count.trim());
+            MemberRepository repository = new MemberRepository();
+            for (int i = 0; i < members; i++) {
+                repository.save(member("user" + i));
+            }
+            // 조회할 로그인 ID 는 미리 만들어 둔다. (문자열 생성 시간 제외)
+            String[] loginIds = new String[4096];
+            for (int i = 0; i < loginIds.length; i++) {
+                loginIds[i] = "user" + ThreadLocalRandom.current().nextInt(members);
+            }
+
+            // 워밍업 후 측정
+            lookup(repository, loginIds, LOOKUPS);
+            long start = System.nanoTime();
+            int found = lookup(repository, loginIds, LOOKUPS);
+            long elapsed = System.nanoTime() - start;
+
+            assertThat(found).isEqualTo(LOOKUPS);
+
+            reporter.publishEntry(String.format("members=%,d findByLoginId=%,d ns/op", members, elapsed / LOOKUPS));
+        }
+    }
+
+    @Test
+    void shardedIdsAndIteration() {
+        //given
+        MemberRepository repository = new MemberRepository(new MemoryMemberStore(4));
+        for (int i = 0; i < 5000; i++) {
+            repository.save(member("user" + i));
+        }
+
+        //when
+        List<Long> ids = new ArrayList<>();
+        for (Member member : repository.iterateAll()) {
+            ids.add(member.getId());
+        }
+
+        //then : ID 순서로 합쳐지고, 중복 없이 ID 로 다시 찾을 수 있다.
+        assertThat(ids.size()).isEqualTo(5000);
+        assertThat(ids).isSorted();
+        assertThat(new HashSet<>(ids).size()).isEqualTo(5000);
+        for (Long id : ids) {
+            assertThat(repository.findById(id).getId()).isEqualTo(id);
+        }
+    }
+
+    /**
+     * 동시 가입 처리량 : 조각 1개 vs 코어 수만큼
+     */
+    @Tag("benchmark")
+    @Test
+    void signUpThroughput(TestReporter reporter) throws Exception {
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int shards : new int[]{1, cores}) {
+            for (int threads = 1; threads <= cores; threads *= 2) {
+                MemberRepository repository = new MemberRepository(new MemoryMemberStore(shards), SIGN_UPS, 0.01);
+                ExecutorService executor = Executors.newFixedThreadPool(threads);
+                List<Callable<Void>> tasks = new ArrayList<>();
+                int perThread = SIGN_UPS / threads;
+                for (int t = 0; t < threads; t++) {
+                    String prefix = "t" + t + "-";
+                    tasks.add(() -> {
+                        for (int i = 0; i < perThread; i++) {
+                            repository.save(member(prefix + i));
+                        }
+                        return null;
+                    });
+                }
+                long start = System.nanoTime();
+                for (Future<Void> result : executor.invokeAll(tasks)) {
+                    result.get();
+                }
+                long elapsed = System.nanoTime() - start;
+                executor.shutdown();
+
+                assertThat(repository.findAll().size()).isEqualTo(perThread * threads);
+                reporter.publishEntry(String.format("shards=%d threads=%d signUps=%,d/s",
+                        shards, threads, perThread * threads * 1_000_000_000L / elapsed));
+            }
+        }
+    }
+
+    private static int lookup(MemberRepository repository, String[] loginIds, int lookups) {
+        int found = 0;
+        for (int i = 0; i < lookups; i++) {
+            if (repository.findByLoginId(loginIds[i & (loginIds.length - 1)]).isPresent()) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    private static Member member(String loginId) {
+        Member member = new Member();
+        member.setLoginId(loginId);
+        member.setName("name-" + loginId);
+        member.setPassword("password");
+        return member;
+    }
+}
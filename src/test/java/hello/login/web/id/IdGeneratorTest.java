@@ -0,0 +1,120 @@
+package hello.login.web.id;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+class IdGeneratorTest {
+
+    // 측정 규모 : ./gradlew benchmark -Dbench.ops=1000000 처럼 지정 (스레드마다)
+    private static final int BENCH_OPS = Integer.getInteger("bench.ops", 200_000);
+
+    @Test
+    void randomId() {
+        //given
+        IdGenerator generator = new RandomIdGenerator(128);
+        Set<String> ids = new HashSet<>();
+
+        //when
+        for (int i = 0; i < 10_000; i++) {
+            ids.add(generator.nextId());
+        }
+
+        //then : 128비트 = base64url 22자, 쿠키에 그대로 사용할 수 있는 문자만
+        assertThat(ids.size()).isEqualTo(10_000);
+        for (String id : ids) {
+            assertThat(id).hasSize(22).matches("[A-Za-z0-9_-]+");
+        }
+        assertThat(new RandomIdGenerator(256).nextId()).hasSize(43);
+        assertThatThrownBy(() -> new RandomIdGenerator(32)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void sequentialId() {
+        //given : 시계가 멈추거나 뒤로 가도
+        AtomicLong millis = new AtomicLong(1_700_000_000_000L);
+        SequentialIdGenerator generator = new SequentialIdGenerator(millis::get);
+
+        //when
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            if (i == 50_000) {
+                millis.addAndGet(-1000);
+            }
+            if (i == 70_000) {
+                millis.addAndGet(5000);
+            }
+            ids.add(generator.nextId());
+        }
+
+        //then : 항상 직전 ID 보다 크다. (문자열 순서)
+        assertThat(ids).isSorted();
+        assertThat(new HashSet<>(ids).size()).isEqualTo(ids.size());
+        assertThat(ids.get(0)).hasSize(13);
+        assertThat(SequentialIdGenerator.encode(0)).isEqualTo("0000000000000");
+        assertThat(SequentialIdGenerator.encode(-1)).isEqualTo("FZZZZZZZZZZZZ");
+    }
+
+    /**
+     * 스레드 수에 따른 ID 생성 처리량 : UUID.randomUUID() vs 생성기
+     */
+    @Tag("benchmark")
+    @Test
+    void throughput(TestReporter reporter) throws Exception {
+        Map<String, IdGenerator> generators = new LinkedHashMap<>();
+        generators.put("UUID.randomUUID", () -> UUID.randomUUID().toString());
+        generators.put("RandomIdGenerator", new RandomIdGenerator(128));
+        generators.put("SequentialIdGenerator", new SequentialIdGenerator());
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (Map.Entry<String, IdGenerator> entry : generators.entrySet()) {
+            IdGenerator generator = entry.getValue();
+            for (int threads = 1; threads <= cores * 2; threads *= 2) {
+                // 워밍업 후 측정
+                run(generator, threads, BENCH_OPS / 10);
+                long start = System.nanoTime();
+                int length = run(generator, threads, BENCH_OPS);
+                long elapsed = System.nanoTime() - start;
+
+                assertThat(length).isGreaterThan(0);
+                reporter.publishEntry(String.format("%s threads=%d ids=%,d/s",
+                        entry.getKey(), threads, (long) BENCH_OPS * threads * 1_000_000_000L / elapsed));
+            }
+        }
+    }
+
+    private static int run(IdGenerator generator, int threads, int ops) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Callable<Integer>> tasks = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            tasks.add(() -> {
+                int length = 0;
+                for (int i = 0; i < ops; i++) {
+                    length += generator.nextId().length();
+                }
+                return length;
+            });
+        }
+        int length = 0;
+        for (Future<Integer> result : executor.invokeAll(tasks)) {
+            length += result.get();
+        }
+        executor.shutdown();
+        return length;
+    }
+}
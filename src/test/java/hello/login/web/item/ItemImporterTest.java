@@ -0,0 +1,129 @@
+package hello.login.web.item;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hello.login.domain.item.Item;
+import hello.login.domain.item.ItemRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.springframework.context.support.StaticMessageSource;
+
+import javax.validation.Validation;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ItemImporterTest {
+
+    // 측정 규모 : ./gradlew benchmark -Dbench.rows=1000000 처럼 지정
+    private static final int BENCH_ROWS = Integer.getInteger("bench.rows", 100000);
+
+    ItemRepository itemRepository = new ItemRepository();
+    ItemImporter itemImporter = new ItemImporter(itemRepository,
+            Validation.buildDefaultValidatorFactory().getValidator(), messageSource(), new ObjectMapper(), 2);
+
+    @Test
+    void importNdjson() throws IOException {
+        //given
+        String body = "{\"itemName\":\"itemA\",\"price\":10000,\"quantity\":10}\n"
+                + "{\"itemName\":\"\",\"price\":10000,\"quantity\":10}\n"
+                + "{\"itemName\":\"itemB\",\"price\":1000,\"quantity\":1}\n"
+                + "{\"itemName\":\"itemC\",\"price\":\n"
+                + "\n"
+                + "{\"id\":99,\"itemName\":\"itemD\",\"price\":20000,\"quantity\":20,\"version\":3}\n"
+                + "{\"itemName\":\"itemE\",\"price\":30000,\"quantity\":30}";
+
+        //when
+        ImportResult result = itemImporter.importNdjson(stream(body), Locale.KOREA);
+
+        //then
+        assertThat(result.getImported()).isEqualTo(3L);
+        assertThat(result.getRejected()).isEqualTo(3L);
+        assertThat(result.getErrors().get(0).getLine()).isEqualTo(2L);
+        assertThat(result.getErrors().get(1).getMessage()).isEqualTo("totalPriceMin");
+        assertThat(result.getErrors().get(2).getLine()).isEqualTo(4L);
+        assertThat(result.getErrors().get(2).getMessage()).startsWith("json: ");
+
+        List<Item> items = itemRepository.findAll();
+        assertThat(items.size()).isEqualTo(3);
+        assertThat(items.get(1).getItemName()).isEqualTo("itemD");
+        assertThat(items.get(1).getId()).isEqualTo(2L);
+        assertThat(items.get(1).getVersion()).isEqualTo(0L);
+    }
+
+    @Test
+    void importCsv() throws IOException {
+        //given
+        String body = "quantity,itemName,price\n"
+                + "10,\"item, \"\"A\"\"\",10000\n"
+                + "abc,itemB,10000\n"
+                + "20,itemC,20000\n"
+                + "30,\"itemD,30000\n";
+
+        //when
+        ImportResult result = itemImporter.importCsv(stream(body), Locale.KOREA);
+
+        //then
+        assertThat(result.getImported()).isEqualTo(2L);
+        assertThat(result.getRejected()).isEqualTo(2L);
+        assertThat(result.getErrors().get(0).getLine()).isEqualTo(3L);
+        assertThat(result.getErrors().get(0).getMessage()).isEqualTo("csv: notNumber abc");
+        assertThat(result.getErrors().get(1).getMessage()).isEqualTo("csv: unclosedQuote");
+        assertThat(itemImporter.importCsv(stream("name,price\n"), Locale.KOREA).getErrors().get(0).getMessage())
+                .isEqualTo("header: name,price");
+        assertThat(itemRepository.findById(1L).getItemName()).isEqualTo("item, \"A\"");
+        assertThat(itemRepository.findById(2L).getPrice()).isEqualTo(20000);
+    }
+
+    /**
+     * 대량 등록 처리량 (검증 + 저장)
+     */
+    @Tag("benchmark")
+    @Test
+    void importBenchmark(TestReporter reporter) throws IOException {
+        ItemImporter importer = new ItemImporter(itemRepository,
+                Validation.buildDefaultValidatorFactory().getValidator(), messageSource(), new ObjectMapper(), 1000);
+
+        StringBuilder ndjson = new StringBuilder();
+        StringBuilder csv = new StringBuilder("itemName,price,quantity\n");
+        for (int i = 1; i <= BENCH_ROWS; i++) {
+            ndjson.append("{\"itemName\":\"item").append(i).append("\",\"price\":").append(10000 + i % 1000)
+                    .append(",\"quantity\":").append(1 + i % 100).append("}\n");
+            csv.append("item").append(i).append(',').append(10000 + i % 1000).append(',').append(1 + i % 100).append('\n');
+        }
+
+        long start = System.nanoTime();
+        ImportResult ndjsonResult = importer.importNdjson(stream(ndjson.toString()), Locale.KOREA);
+        long ndjsonNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        ImportResult csvResult = importer.importCsv(stream(csv.toString()), Locale.KOREA);
+        long csvNanos = System.nanoTime() - start;
+
+        assertThat(ndjsonResult.getImported()).isEqualTo((long) BENCH_ROWS);
+        assertThat(csvResult.getImported()).isEqualTo((long) BENCH_ROWS);
+        assertThat(itemRepository.findAll().size()).isEqualTo(BENCH_ROWS * 2);
+        reporter.publishEntry(String.format("rows=%,d ndjson=%,d rows/min csv=%,d rows/min", BENCH_ROWS,
+                BENCH_ROWS * 60_000_000_000L / ndjsonNanos, BENCH_ROWS * 60_000_000_000L / csvNanos));
+    }
+
+    private InputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private StaticMessageSource messageSource() {
+        StaticMessageSource messageSource = new StaticMessageSource();
+        messageSource.addMessage("totalPriceMin", Locale.KOREA, "totalPriceMin");
+        messageSource.addMessage("import.json.invalid", Locale.KOREA, "json: {0}");
+        messageSource.addMessage("import.csv.header", Locale.KOREA, "header: {0}");
+        messageSource.addMessage("import.csv.invalid", Locale.KOREA, "csv: {0}");
+        messageSource.addMessage("import.csv.notNumber", Locale.KOREA, "notNumber {0}");
+        messageSource.addMessage("import.csv.unclosedQuote", Locale.KOREA, "unclosedQuote");
+        return messageSource;
+    }
+}
@@ -0,0 +1,60 @@
+package hello.login.web.login;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+class TokenBucketLimiterTest {
+
+    AtomicLong now = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+
+    @Test
+    void burstThenRefill() {
+        //given : 5번 연속, 분당 5번 (12초에 하나)
+        TokenBucketLimiter limiter = new TokenBucketLimiter(5, 5, 1000, now::get);
+
+        //when
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.tryAcquire("test")).isZero();
+        }
+        long wait = limiter.tryAcquire("test");
+
+        //then
+        assertThat(wait).isEqualTo(TimeUnit.SECONDS.toNanos(12));
+        // 다른 키는 영향 없음
+        assertThat(limiter.tryAcquire("other")).isZero();
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(12));
+        assertThat(limiter.tryAcquire("test")).isZero();
+        assertThat(limiter.tryAcquire("test")).isPositive();
+
+        TokenBucketLimiter.Stats stats = limiter.stats();
+        assertThat(stats.getAdmittedCount()).isEqualTo(7L);
+        assertThat(stats.getThrottledCount()).isEqualTo(2L);
+    }
+
+    @Test
+    void boundedKeys() {
+        //given
+        TokenBucketLimiter limiter = new TokenBucketLimiter(5, 5, 1600, now::get);
+        // 계속 실패하는 키 (공격 대상)
+        for (int i = 0; i < 6; i++) {
+            limiter.tryAcquire("victim");
+        }
+
+        //when : 한번씩만 시도하는 키가 아주 많음
+        for (int i = 0; i < 100_000; i++) {
+            limiter.tryAcquire("spray" + i);
+            now.addAndGet(TimeUnit.MICROSECONDS.toNanos(1));
+        }
+
+        //then : 키 수는 제한되고, 다 쓴 버킷은 남아있다.
+        TokenBucketLimiter.Stats stats = limiter.stats();
+        assertThat(stats.getKeys()).isLessThanOrEqualTo(1600L);
+        assertThat(stats.getEvictedCount()).isPositive();
+        assertThat(limiter.tryAcquire("victim")).isPositive();
+    }
+}
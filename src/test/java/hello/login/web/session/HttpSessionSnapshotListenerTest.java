@@ -0,0 +1,87 @@
+package hello.login.web.session;
+
+import hello.login.domain.member.Member;
+import hello.login.web.SessionConstant;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpSession;
+
+import javax.servlet.http.HttpSessionBindingEvent;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+class HttpSessionSnapshotListenerTest {
+
+    private final AtomicLong millis = new AtomicLong(1_000_000L);
+    private final List<String> touched = new ArrayList<>();
+    private final HttpSessionSnapshotListener listener = new HttpSessionSnapshotListener(new TouchRecorder(), Duration.ofSeconds(1), millis::get);
+
+    @Test
+    void touchOncePerInterval() {
+        //given
+        MockHttpSession session = new MockHttpSession();
+        Member member = new Member();
+        member.setLoginId("test");
+        listener.attributeAdded(new HttpSessionBindingEvent(session, SessionConstant.LOGIN_MEMBER, member));
+
+        //when : 1초 안의 요청 100번
+        for (int i = 0; i < 100; i++) {
+            millis.addAndGet(5);
+            listener.touch(session);
+        }
+
+        //then : 로그인할 때 기록한 시각에서 1초가 지나지 않았으므로 기록하지 않음
+        assertThat(touched).isEmpty();
+
+        //when : 1초 후
+        millis.addAndGet(1000);
+        listener.touch(session);
+        listener.touch(session);
+
+        //then
+        assertThat(touched).containsExactly("h:" + session.getId());
+    }
+
+    @Test
+    void skipSessionWithoutLoginMember() {
+        //given : 로그인하지 않은 세션
+        MockHttpSession session = new MockHttpSession();
+
+        //when
+        millis.addAndGet(10_000);
+        listener.touch(session);
+
+        //then
+        assertThat(touched).isEmpty();
+    }
+
+    private class TouchRecorder implements SessionBackup {
+
+        @Override
+        public boolean put(String key, long createdAt, long lastAccessedAt, Member member) {
+            return true;
+        }
+
+        @Override
+        public void touch(String key, long lastAccessedAt) {
+            touched.add(key);
+        }
+
+        @Override
+        public void remove(String key) {
+        }
+
+        @Override
+        public Record find(String key, long now) {
+            return null;
+        }
+
+        @Override
+        public int sweep(int slots, long now) {
+            return 0;
+        }
+    }
+}
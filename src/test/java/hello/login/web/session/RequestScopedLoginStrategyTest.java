@@ -0,0 +1,195 @@
+package hello.login.web.session;
+
+import hello.login.domain.member.Member;
+import hello.login.web.SessionConstant;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+class RequestScopedLoginStrategyTest {
+
+    // 측정 규모 : ./gradlew benchmark -Dbench.requests=1000000
+    private static final int BENCH_REQUESTS = Integer.getInteger("bench.requests", 200_000);
+    // 로그인 체크 필터, 로그인 체크 인터셉터, @Login ArgumentResolver
+    private static final int LOOKUPS_PER_REQUEST = 3;
+
+    @Test
+    void resolveOncePerRequest() {
+        //given
+        CountingStrategy counting = new CountingStrategy(new HttpSessionLoginStrategy());
+        RequestScopedLoginStrategy strategy = new RequestScopedLoginStrategy(counting);
+        MockHttpServletRequest loggedIn = loggedInRequest(member(1L, "userA", "회원A"));
+        MockHttpServletRequest anonymous = new MockHttpServletRequest();
+
+        //when
+        for (int i = 0; i < LOOKUPS_PER_REQUEST; i++) {
+            assertThat(strategy.getLoginMember(loggedIn, new MockHttpServletResponse()).getLoginId()).isEqualTo("userA");
+            assertThat(strategy.getLoginMember(anonymous, new MockHttpServletResponse())).isNull();
+        }
+
+        //then : 로그인하지 않은 요청도 한 번만 조회
+        assertThat(counting.lookups.get()).isEqualTo(2);
+    }
+
+    @Test
+    void loginAndLogoutInSameRequest() {
+        //given
+        CountingStrategy counting = new CountingStrategy(new HttpSessionLoginStrategy());
+        RequestScopedLoginStrategy strategy = new RequestScopedLoginStrategy(counting);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertThat(strategy.getLoginMember(request, response)).isNull();
+
+        //when : 같은 요청에서 로그인
+        strategy.login(member(1L, "userA", "회원A"), request, response);
+
+        //then : 이전 조회 결과(미로그인)가 아니라 로그인한 회원
+        assertThat(strategy.getLoginMember(request, response).getLoginId()).isEqualTo("userA");
+
+        //when : 같은 요청에서 로그아웃
+        strategy.logout(request, response);
+
+        //then
+        assertThat(strategy.getLoginMember(request, response)).isNull();
+        assertThat(counting.lookups.get()).isEqualTo(1);
+    }
+
+    @Test
+    void reissueTokenOnce() {
+        //given : 20분 후 요청 (토큰을 다시 발급하는 시점)
+        AtomicLong millis = new AtomicLong(1_700_000_000_000L);
+        RequestScopedLoginStrategy strategy = new RequestScopedLoginStrategy(tokenStrategy(millis));
+        MockHttpServletResponse loginResponse = new MockHttpServletResponse();
+        strategy.login(member(1L, "userA", "회원A"), new MockHttpServletRequest(), loginResponse);
+        millis.addAndGet(TimeUnit.MINUTES.toMillis(20));
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setCookies(loginResponse.getCookie(TokenLoginStrategy.TOKEN_COOKIE_NAME));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        //when
+        for (int i = 0; i < LOOKUPS_PER_REQUEST; i++) {
+            strategy.getLoginMember(request, response);
+        }
+
+        //then : 쿠키는 한 번만
+        assertThat(response.getCookies().length).isEqualTo(1);
+    }
+
+    /**
+     * 요청 하나당 로그인 조회 비용 (필터, 인터셉터, ArgumentResolver 가 각각 조회) : 요청 속성 보관 전후 비교
+     */
+    @Tag("benchmark")
+    @Test
+    void perRequestOverhead(TestReporter reporter) {
+        Member member = member(1L, "userA", "회원A");
+        AtomicLong millis = new AtomicLong(1_700_000_000_000L);
+        MockHttpServletResponse loginResponse = new MockHttpServletResponse();
+        tokenStrategy(millis).login(member, new MockHttpServletRequest(), loginResponse);
+        Cookie token = loginResponse.getCookie(TokenLoginStrategy.TOKEN_COOKIE_NAME);
+
+        List<LoginSessionStrategy> strategies = List.of(new HttpSessionLoginStrategy(), tokenStrategy(millis));
+        for (LoginSessionStrategy raw : strategies) {
+            for (LoginSessionStrategy strategy : List.of(raw, new RequestScopedLoginStrategy(raw))) {
+                MockHttpSession session = new MockHttpSession();
+                session.setAttribute(SessionConstant.LOGIN_MEMBER, member);
+
+                // 워밍업 후 측정
+                long ids = requests(strategy, session, token, BENCH_REQUESTS / 10);
+                long start = System.nanoTime();
+                ids += requests(strategy, session, token, BENCH_REQUESTS);
+                long elapsed = System.nanoTime() - start;
+
+                assertThat(ids).isEqualTo((long) LOOKUPS_PER_REQUEST * (BENCH_REQUESTS + BENCH_REQUESTS / 10));
+                reporter.publishEntry(String.format("strategy=%s login=%,d ns/request", name(strategy), elapsed / BENCH_REQUESTS));
+            }
+        }
+    }
+
+    private static long requests(LoginSessionStrategy strategy, MockHttpSession session, Cookie token, int count) {
+        long ids = 0;
+        for (int i = 0; i < count; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest();
+            request.setSession(session);
+            request.setCookies(token);
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            for (int j = 0; j < LOOKUPS_PER_REQUEST; j++) {
+                ids += strategy.getLoginMember(request, response).getId();
+            }
+        }
+        return ids;
+    }
+
+    private static String name(LoginSessionStrategy strategy) {
+        if (strategy instanceof RequestScopedLoginStrategy) {
+            return "request-scoped";
+        }
+        return strategy.getClass().getSimpleName();
+    }
+
+    private static TokenLoginStrategy tokenStrategy(AtomicLong millis) {
+        byte[] secret = new byte[32];
+        Arrays.fill(secret, (byte) 1);
+        LoginTokenCodec codec = new LoginTokenCodec(List.of(new LoginTokenCodec.Key("k1", secret)), false);
+        return new TokenLoginStrategy(codec, Duration.ofMinutes(30), Duration.ofHours(12), false, millis::get);
+    }
+
+    private static MockHttpServletRequest loggedInRequest(Member member) {
+        MockHttpSession session = new MockHttpSession();
+        session.setAttribute(SessionConstant.LOGIN_MEMBER, member);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setSession(session);
+        return request;
+    }
+
+    private static Member member(Long id, String loginId, String name) {
+        Member member = new Member();
+        member.setId(id);
+        member.setLoginId(loginId);
+        member.setName(name);
+        return member;
+    }
+
+    /**
+     * 실제 조회 횟수 확인용
+     */
+    private static class CountingStrategy implements LoginSessionStrategy {
+
+        private final LoginSessionStrategy delegate;
+        private final AtomicInteger lookups = new AtomicInteger();
+
+        CountingStrategy(LoginSessionStrategy delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void login(Member member, HttpServletRequest request, HttpServletResponse response) {
+            delegate.login(member, request, response);
+        }
+
+        @Override
+        public Member getLoginMember(HttpServletRequest request, HttpServletResponse response) {
+            lookups.incrementAndGet();
+            return delegate.getLoginMember(request, response);
+        }
+
+        @Override
+        public void logout(HttpServletRequest request, HttpServletResponse response) {
+            delegate.logout(request, response);
+        }
+    }
+}
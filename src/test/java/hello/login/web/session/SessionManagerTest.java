@@ -2,17 +2,28 @@ package hello.login.web.session;
 
 import hello.login.domain.member.Member;
 import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpServletResponse;
 
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
 import static org.assertj.core.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.*;
 
 class SessionManagerTest {
 
+    // 만료 처리 측정 규모 : ./gradlew benchmark -Dbench.sessions=1000000 처럼 지정
+    private static final int BENCH_SESSIONS = Integer.getInteger("bench.sessions", 200_000);
+
     SessionManager sessionManager = new SessionManager();
 
+    AtomicLong now = new AtomicLong();
+    SessionManager timedManager = new SessionManager(Duration.ofMinutes(30), Duration.ofHours(2), Duration.ofSeconds(1), now::get);
+
     @Test
     void sessionTest() {
 
@@ -37,4 +48,122 @@ class SessionManagerTest {
         assertThat(object).isNull();
     }
 
-}
\ No newline at end of file
+    @Test
+    void idleTimeout() {
+        //given
+        MockHttpServletRequest request = login(timedManager, new Member());
+
+        //when : 29분마다 조회하면 계속 유지
+        for (int i = 0; i < 3; i++) {
+            advance(Duration.ofMinutes(29));
+            assertThat(timedManager.getSession(request)).isNotNull();
+        }
+        // 조회 없이 30분 지남
+        advance(Duration.ofMinutes(30));
+
+        //then
+        assertThat(timedManager.sessionCount()).isEqualTo(0);
+        assertThat(timedManager.getSession(request)).isNull();
+    }
+
+    @Test
+    void absoluteTimeout() {
+        //given
+        MockHttpServletRequest request = login(timedManager, new Member());
+
+        //when : 계속 조회해도 생성 후 2시간이 지나면 만료
+        for (int i = 0; i < 7; i++) {
+            advance(Duration.ofMinutes(17));
+            assertThat(timedManager.getSession(request)).isNotNull();
+        }
+        advance(Duration.ofMinutes(2));
+
+        //then
+        assertThat(timedManager.getSession(request)).isNull();
+        assertThat(timedManager.sessionCount()).isEqualTo(0);
+    }
+
+    @Test
+    void expiredBeforeSweep() {
+        //given
+        MockHttpServletRequest request = login(timedManager, new Member());
+
+        //when : 만료 스레드가 아직 처리하지 않았어도
+        now.addAndGet(Duration.ofMinutes(31).toNanos());
+
+        //then
+        assertThat(timedManager.getSession(request)).isNull();
+    }
+
+    /**
+     * 만료 처리 : 한 tick 에는 그 tick 에 만료되는 세션만 제거한다.
+     */
+    @Test
+    void sweep() {
+        //given : 1초마다 10개씩 30분 동안 생성, 절반은 최근에 조회
+        MockHttpServletRequest[] requests = loginEverySecond(10);
+
+        //when : 1분 동안 tick 마다 만료 처리
+        advance(Duration.ofMinutes(1));
+
+        //then : 조회하지 않은 세션 중 가장 오래된 1분치만 만료
+        assertThat(timedManager.sessionCount()).isEqualTo(requests.length - 60 * 10 / 2);
+    }
+
+    /**
+     * 세션 수에 따른 만료 처리 시간 : 한 tick 에 드는 시간은 전체 세션 수가 아닌 그 tick 에 만료되는 세션 수에 비례한다.
+     */
+    @Tag("benchmark")
+    @Test
+    void sweepTime(TestReporter reporter) {
+        int perSecond = Math.max(1, BENCH_SESSIONS / 1800);
+        MockHttpServletRequest[] requests = loginEverySecond(perSecond);
+
+        long start = System.nanoTime();
+        long slowest = 0;
+        for (int second = 0; second < 60; second++) {
+            now.addAndGet(Duration.ofSeconds(1).toNanos());
+            long tickStart = System.nanoTime();
+            timedManager.expireSessions();
+            slowest = Math.max(slowest, System.nanoTime() - tickStart);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        assertThat(timedManager.sessionCount()).isEqualTo(requests.length - 60 * perSecond / 2);
+        reporter.publishEntry(String.format("sessions=%,d tick=%,d us/avg, %,d us/max",
+                requests.length, elapsed / 60 / 1000, slowest / 1000));
+    }
+
+    /**
+     * 1초마다 perSecond 개씩 30분 동안 로그인하고, 절반은 마지막에 다시 조회
+     */
+    private MockHttpServletRequest[] loginEverySecond(int perSecond) {
+        MockHttpServletRequest[] requests = new MockHttpServletRequest[1800 * perSecond];
+        for (int second = 0; second < 1800; second++) {
+            advance(Duration.ofSeconds(1));
+            for (int i = 0; i < perSecond; i++) {
+                requests[second * perSecond + i] = login(timedManager, new Member());
+            }
+        }
+        for (int i = 0; i < requests.length; i += 2) {
+            timedManager.getSession(requests[i]);
+        }
+        return requests;
+    }
+
+    private void advance(Duration duration) {
+        // tick 마다 만료 스레드가 처리하는 것처럼
+        for (long second = 0; second < duration.getSeconds(); second++) {
+            now.addAndGet(Duration.ofSeconds(1).toNanos());
+            timedManager.expireSessions();
+        }
+    }
+
+    private static MockHttpServletRequest login(SessionManager manager, Member member) {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        manager.createSession(member, response);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setCookies(response.getCookies());
+        return request;
+    }
+}
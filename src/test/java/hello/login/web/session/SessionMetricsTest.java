@@ -0,0 +1,162 @@
+package hello.login.web.session;
+
+import hello.login.domain.member.Member;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+class SessionMetricsTest {
+
+    // 측정 규모 : ./gradlew benchmark -Dbench.sessions=5000000
+    private static final int BENCH_SESSIONS = Integer.getInteger("bench.sessions", 1_000_000);
+
+    private final AtomicLong nanos = new AtomicLong(TimeUnit.SECONDS.toNanos(1000));
+
+    @Test
+    void rates() {
+        //given : 1분 동안 0.5초마다 생성
+        SessionMetrics metrics = new SessionMetrics(nanos::get);
+        long start = nanos.get();
+        for (int i = 0; i < 120; i++) {
+            nanos.set(start + TimeUnit.MILLISECONDS.toNanos(500L * i));
+            metrics.added(nanos.get(), 300);
+        }
+
+        //when : 1분 후 30개 제거
+        nanos.set(start + TimeUnit.MINUTES.toNanos(1));
+        for (int i = 0; i < 30; i++) {
+            metrics.removed(start, 300);
+        }
+        SessionMetrics.Stats stats = metrics.stats();
+
+        //then
+        assertThat(stats.getActive()).isEqualTo(90);
+        assertThat(stats.getCreated().getTotal()).isEqualTo(120);
+        assertThat(stats.getCreated().getLastMinute()).isEqualTo(2.0);
+        assertThat(stats.getInvalidated().getLastMinute()).isEqualTo(0.5);
+        assertThat(count(stats.getBytes(), "256-511")).isEqualTo(90);
+
+        //when : 15분 더 지남
+        nanos.addAndGet(TimeUnit.MINUTES.toNanos(15));
+        stats = metrics.stats();
+
+        //then : 최근에는 생성/제거 없음
+        assertThat(stats.getCreated().getTotal()).isEqualTo(120);
+        assertThat(stats.getCreated().getLastMinute()).isEqualTo(0.0);
+        assertThat(stats.getCreated().getLast15Minutes()).isEqualTo(0.0);
+    }
+
+    @Test
+    void ages() {
+        //given : A 생성, 3분 후 B 생성
+        SessionMetrics metrics = new SessionMetrics(nanos::get);
+        long a = nanos.get();
+        metrics.added(a, 300);
+        long b = nanos.addAndGet(TimeUnit.MINUTES.toNanos(3));
+        metrics.added(b, 600);
+
+        //when : 1시간 59분 후
+        nanos.addAndGet(TimeUnit.MINUTES.toNanos(119));
+        SessionMetrics.Stats stats = metrics.stats();
+
+        //then
+        assertThat(count(stats.getAges(), "1h-2h")).isEqualTo(1);
+        assertThat(count(stats.getAges(), "2h-4h")).isEqualTo(1);
+        assertThat(count(stats.getBytes(), "256-511")).isEqualTo(1);
+        assertThat(count(stats.getBytes(), "512-1023")).isEqualTo(1);
+
+        //when : 11시간 후 (둘 다 12시간 넘음), A 제거
+        nanos.addAndGet(TimeUnit.HOURS.toNanos(11));
+        metrics.removed(a, 300);
+        stats = metrics.stats();
+
+        //then
+        assertThat(count(stats.getAges(), "12h+")).isEqualTo(1);
+        assertThat(count(stats.getAges(), "8h-12h")).isEqualTo(0);
+        assertThat(stats.getActive()).isEqualTo(1);
+    }
+
+    @Test
+    void sessionManager() {
+        //given
+        SessionManager sessionManager = new SessionManager(Duration.ofMinutes(30), Duration.ofHours(12), Duration.ofSeconds(1), nanos::get);
+        MockHttpServletRequest[] requests = new MockHttpServletRequest[3];
+        for (int i = 0; i < requests.length; i++) {
+            requests[i] = login(sessionManager, member("user" + i));
+        }
+
+        //when : 로그아웃 1, 31분 후 만료 1 (나머지 하나는 계속 사용)
+        sessionManager.expire(requests[0]);
+        nanos.addAndGet(TimeUnit.MINUTES.toNanos(20));
+        sessionManager.getSession(requests[2]);
+        nanos.addAndGet(TimeUnit.MINUTES.toNanos(11));
+        sessionManager.expireSessions();
+        SessionMetrics.Stats stats = sessionManager.metrics();
+
+        //then
+        assertThat(stats.getActive()).isEqualTo(1);
+        assertThat(stats.getCreated().getTotal()).isEqualTo(3);
+        assertThat(stats.getInvalidated().getTotal()).isEqualTo(2);
+        assertThat(count(stats.getAges(), "30m-1h")).isEqualTo(1);
+    }
+
+    /**
+     * 세션 BENCH_SESSIONS 개일 때 생성/제거 기록 비용과 조회 비용 (조회는 세션 수와 상관없이 일정해야 함)
+     */
+    @Tag("benchmark")
+    @Test
+    void collectionCost(TestReporter reporter) {
+        SessionMetrics metrics = new SessionMetrics(System::nanoTime);
+        long created = System.nanoTime() - TimeUnit.HOURS.toNanos(1);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < BENCH_SESSIONS; i++) {
+            metrics.added(created + i, 200 + i % 1000);
+        }
+        long record = System.nanoTime() - start;
+
+        // 워밍업 후 측정
+        int reads = 10_000;
+        long active = 0;
+        for (int i = 0; i < reads; i++) {
+            active += metrics.stats().getActive();
+        }
+        start = System.nanoTime();
+        for (int i = 0; i < reads; i++) {
+            active += metrics.stats().getActive();
+        }
+        long read = System.nanoTime() - start;
+
+        assertThat(active).isEqualTo(2L * reads * BENCH_SESSIONS);
+        reporter.publishEntry(String.format("sessions=%,d record=%,d ns/session stats=%,d ns", BENCH_SESSIONS, record / BENCH_SESSIONS, read / reads));
+    }
+
+    private static long count(List<SessionMetrics.Bucket> buckets, String range) {
+        return buckets.stream().filter(bucket -> bucket.getRange().equals(range))
+                .mapToLong(SessionMetrics.Bucket::getCount).sum();
+    }
+
+    private static MockHttpServletRequest login(SessionManager sessionManager, Member member) {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        sessionManager.createSession(member, response);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setCookies(response.getCookies());
+        return request;
+    }
+
+    private static Member member(String loginId) {
+        Member member = new Member();
+        member.setLoginId(loginId);
+        member.setName(loginId);
+        return member;
+    }
+}
@@ -0,0 +1,211 @@
+package hello.login.web.session;
+
+import hello.login.domain.member.Member;
+import hello.login.web.id.RandomIdGenerator;
+import hello.login.web.session.replication.SessionReplicator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * 같은 JVM 안에서 서버 여러 대를 localhost 포트로 띄워서 확인
+ */
+class SessionReplicationTest {
+
+    // 측정 규모 : ./gradlew benchmark -Dbench.sessions=100000
+    private static final int BENCH_SESSIONS = Integer.getInteger("bench.sessions", 20_000);
+    private static final Duration IDLE = Duration.ofMinutes(30);
+    private static final Duration ABSOLUTE = Duration.ofHours(12);
+    private static final byte[] SECRET = "replication-secret".getBytes(StandardCharsets.UTF_8);
+
+    private final AtomicLong nanos = new AtomicLong(TimeUnit.SECONDS.toNanos(1));
+    private final List<SessionReplicator> replicators = new ArrayList<>();
+
+    @AfterEach
+    void close() throws IOException {
+        for (SessionReplicator replicator : replicators) {
+            replicator.close();
+        }
+    }
+
+    @Test
+    void loginOnOtherNode() throws Exception {
+        //given
+        List<SessionReplicator> nodes = cluster(3, SessionReplicator.Consistency.ASYNC, SECRET);
+        SessionManager a = manager(nodes.get(0));
+        SessionManager c = manager(nodes.get(2));
+
+        //when : A 에서 로그인
+        MockHttpServletRequest request = login(a, member(1L, "userA", "회원A"));
+
+        //then : 반영되면 C 에서도 로그인 상태
+        await(() -> c.getSession(request) != null);
+        assertThat(((Member) c.getSession(request)).getLoginId()).isEqualTo("userA");
+    }
+
+    @Test
+    void logoutWithOneAck() throws Exception {
+        //given : 한 서버 이상 반영해야 반환
+        List<SessionReplicator> nodes = cluster(2, SessionReplicator.Consistency.ONE_ACK, SECRET);
+        SessionManager a = manager(nodes.get(0));
+        SessionManager b = manager(nodes.get(1));
+        awaitConnected(nodes);
+
+        //when : A 에서 로그인
+        MockHttpServletRequest request = login(a, member(1L, "userA", "회원A"));
+
+        //then : 기다리지 않아도 B 에서 로그인 상태
+        assertThat(b.getSession(request)).isNotNull();
+
+        //when : B 에서 로그아웃
+        b.expire(request);
+
+        //then : 기다리지 않아도 A 에서 로그아웃 상태
+        assertThat(a.getSession(request)).isNull();
+        assertThat(nodes.get(0).stats().getAckTimeoutCount()).isEqualTo(0);
+    }
+
+    @Test
+    void touchOnOtherNode() throws Exception {
+        //given : A 에서 로그인, B 에서만 계속 사용
+        List<SessionReplicator> nodes = cluster(2, SessionReplicator.Consistency.ONE_ACK, SECRET);
+        SessionManager a = manager(nodes.get(0));
+        SessionManager b = manager(nodes.get(1));
+        awaitConnected(nodes);
+        MockHttpServletRequest request = login(a, member(1L, "userA", "회원A"));
+
+        //when : 20분 후 B 에서 사용
+        nanos.addAndGet(TimeUnit.MINUTES.toNanos(20));
+        assertThat(b.getSession(request)).isNotNull();
+        await(() -> nodes.get(0).stats().getReceivedDeltas() > 0);
+
+        //then : 로그인 후 40분이 지나도 A 에서 만료되지 않음 (마지막 사용은 B 에서 20분)
+        nanos.addAndGet(TimeUnit.MINUTES.toNanos(20));
+        a.expireSessions();
+        assertThat(a.getSession(request)).isNotNull();
+    }
+
+    @Test
+    void rejectOtherSecret() throws Exception {
+        //given : 비밀값이 다른 서버
+        List<SessionReplicator> nodes = cluster(1, SessionReplicator.Consistency.ASYNC, SECRET);
+        SessionReplicator other = replicator(SessionReplicator.Consistency.ASYNC, "other".getBytes(StandardCharsets.UTF_8));
+        other.addPeer(new InetSocketAddress("localhost", nodes.get(0).getPort()));
+
+        //when
+        other.put("m:forged", System.currentTimeMillis(), System.currentTimeMillis(), member(1L, "admin", "관리자"));
+        Thread.sleep(300);
+
+        //then : 받는 서버의 hello 서명이 맞지 않으므로 연결하지 않는다.
+        assertThat(other.stats().getPeers().get(0).isConnected()).isFalse();
+        assertThat(nodes.get(0).find("m:forged", System.currentTimeMillis())).isNull();
+        assertThat(nodes.get(0).stats().getReceivedDeltas()).isEqualTo(0);
+    }
+
+    /**
+     * 로그인 BENCH_SESSIONS 번이 다른 서버에 반영되는 시간, 변경 하나당 전송 바이트
+     */
+    @Tag("benchmark")
+    @Test
+    void throughput(TestReporter reporter) throws Exception {
+        for (SessionReplicator.Consistency consistency : SessionReplicator.Consistency.values()) {
+            List<SessionReplicator> nodes = cluster(2, consistency, SECRET);
+            SessionReplicator a = nodes.get(0);
+            SessionReplicator b = nodes.get(1);
+            awaitConnected(nodes);
+
+            long now = System.currentTimeMillis();
+            long start = System.nanoTime();
+            for (int i = 0; i < BENCH_SESSIONS; i++) {
+                a.put("m:session-" + i, now, now, member((long) i, "user" + i, "name" + i));
+            }
+            await(() -> b.stats().getReceivedDeltas() >= BENCH_SESSIONS);
+            long elapsed = System.nanoTime() - start;
+
+            SessionReplicator.Stats stats = a.stats();
+            assertThat(b.stats().getReplicas()).isEqualTo(BENCH_SESSIONS);
+            reporter.publishEntry(String.format("consistency=%s sessions=%,d replicated=%,d/s frames=%,d bytes/delta=%d",
+                    consistency, BENCH_SESSIONS, BENCH_SESSIONS * 1_000_000_000L / elapsed, stats.getSentFrames(),
+                    stats.getSentBytes() / stats.getSentDeltas()));
+        }
+    }
+
+    /**
+     * 모든 서버가 서로를 peers 로 설정
+     */
+    private List<SessionReplicator> cluster(int size, SessionReplicator.Consistency consistency, byte[] secret) throws IOException {
+        List<SessionReplicator> nodes = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            nodes.add(replicator(consistency, secret));
+        }
+        for (SessionReplicator node : nodes) {
+            for (SessionReplicator peer : nodes) {
+                if (peer != node) {
+                    node.addPeer(new InetSocketAddress("localhost", peer.getPort()));
+                }
+            }
+        }
+        return nodes;
+    }
+
+    private SessionReplicator replicator(SessionReplicator.Consistency consistency, byte[] secret) throws IOException {
+        SessionReplicator replicator = new SessionReplicator(0, InetAddress.getLoopbackAddress(), secret, consistency, Duration.ofSeconds(5), Duration.ofMillis(10),
+                BENCH_SESSIONS * 2, BENCH_SESSIONS * 2, IDLE, ABSOLUTE, null);
+        replicator.start();
+        replicators.add(replicator);
+        return replicator;
+    }
+
+    private SessionManager manager(SessionReplicator replicator) {
+        return new SessionManager(IDLE, ABSOLUTE, Duration.ofSeconds(1), new SessionStore(1000, 1 << 20),
+                new RandomIdGenerator(128), replicator, nanos::get);
+    }
+
+    private static MockHttpServletRequest login(SessionManager manager, Member member) {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        manager.createSession(member, response);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setCookies(response.getCookies());
+        return request;
+    }
+
+    private static void awaitConnected(List<SessionReplicator> nodes) throws InterruptedException {
+        for (SessionReplicator node : nodes) {
+            await(() -> node.stats().getPeers().stream().allMatch(SessionReplicator.PeerStats::isConnected));
+        }
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() - deadline > 0) {
+                throw new AssertionError("timed out");
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    private static Member member(Long id, String loginId, String name) {
+        Member member = new Member();
+        member.setId(id);
+        member.setLoginId(loginId);
+        member.setName(name);
+        return member;
+    }
+}
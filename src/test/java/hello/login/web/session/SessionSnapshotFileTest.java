@@ -0,0 +1,217 @@
+package hello.login.web.session;
+
+import hello.login.domain.member.Member;
+import hello.login.web.id.RandomIdGenerator;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+class SessionSnapshotFileTest {
+
+    // 시작 시간 측정 규모 : ./gradlew benchmark -Dbench.sessions=1000000
+    private static final int BENCH_SESSIONS = Integer.getInteger("bench.sessions", 100_000);
+    private static final Duration IDLE = Duration.ofMinutes(30);
+    private static final Duration ABSOLUTE = Duration.ofHours(12);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void reopen() throws IOException {
+        //given
+        SessionSnapshotFile snapshots = open(1024);
+        long now = System.currentTimeMillis();
+        snapshots.put("m:a", now, now, member(1L, "userA", "회원A"));
+        snapshots.put("m:b", now, now, member(2L, "userB", "회원B"));
+        snapshots.remove("m:b");
+        snapshots.close();
+
+        //when
+        SessionSnapshotFile reopened = open(1024);
+        SessionBackup.Record record = reopened.find("m:a", now + 1000);
+
+        //then : 비밀번호는 기록하지 않는다.
+        assertThat(record.getMember().getId()).isEqualTo(1L);
+        assertThat(record.getMember().getLoginId()).isEqualTo("userA");
+        assertThat(record.getMember().getName()).isEqualTo("회원A");
+        assertThat(record.getMember().getPassword()).isNull();
+        assertThat(reopened.find("m:b", now)).isNull();
+        assertThat(reopened.stats().getRecords()).isEqualTo(1);
+    }
+
+    @Test
+    void expire() throws IOException {
+        //given
+        SessionSnapshotFile snapshots = open(1024);
+        long now = System.currentTimeMillis();
+        snapshots.put("m:idle", now, now, member(1L, "idle", "idle"));
+        snapshots.put("m:active", now, now, member(2L, "active", "active"));
+        snapshots.put("m:old", now - ABSOLUTE.toMillis() + 1000, now, member(3L, "old", "old"));
+
+        //when : 29분 뒤 active 만 접근, 다시 29분 뒤
+        snapshots.touch("m:active", now + TimeUnit.MINUTES.toMillis(29));
+        long later = now + TimeUnit.MINUTES.toMillis(58);
+
+        //then
+        assertThat(snapshots.find("m:idle", later)).isNull();
+        assertThat(snapshots.find("m:old", later)).isNull();
+        assertThat(snapshots.find("m:active", later)).isNotNull();
+        assertThat(snapshots.stats().getExpiredCount()).isEqualTo(2);
+    }
+
+    @Test
+    void sweep() throws IOException {
+        //given
+        SessionSnapshotFile snapshots = open(1024);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < 500; i++) {
+            snapshots.put("m:" + i, now, now, member((long) i, "user" + i, "name"));
+        }
+
+        //when : 조금씩 나눠서 전체 확인
+        int removed = 0;
+        for (int i = 0; i < 1024 / 100 + 1; i++) {
+            removed += snapshots.sweep(100, now + IDLE.toMillis());
+        }
+
+        //then
+        assertThat(removed).isEqualTo(500);
+        assertThat(snapshots.stats().getRecords()).isEqualTo(0);
+    }
+
+    @Test
+    void ignoreTornSlot() throws IOException {
+        //given
+        SessionSnapshotFile snapshots = open(16);
+        long now = System.currentTimeMillis();
+        snapshots.put("m:a", now, now, member(1L, "userA", "회원A"));
+        snapshots.close();
+
+        //when : 회원 정보를 쓰는 도중 종료된 것처럼 칸의 일부를 바꾼다.
+        try (FileChannel channel = FileChannel.open(dir.resolve("sessions.dat"), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            for (long position = 64; position < channel.size(); position += 256) {
+                channel.write(ByteBuffer.wrap(new byte[]{'X'}), position + 100);
+            }
+        }
+
+        //then
+        assertThat(open(16).find("m:a", now)).isNull();
+    }
+
+    @Test
+    void recreateInvalidCapacity() throws IOException {
+        for (int capacity : new int[]{0, -16, 24, 1 << 23}) {
+            //given
+            SessionSnapshotFile snapshots = open(16);
+            long now = System.currentTimeMillis();
+            snapshots.put("m:a", now, now, member(1L, "userA", "회원A"));
+            snapshots.close();
+
+            //when : 헤더의 capacity(offset 8) 가 깨진 것처럼 바꾼다.
+            try (FileChannel channel = FileChannel.open(dir.resolve("sessions.dat"), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                channel.write(ByteBuffer.allocate(4).putInt(0, capacity), 8);
+            }
+
+            //then : 새 파일로 다시 만든다.
+            SessionSnapshotFile reopened = open(16);
+            assertThat(reopened.stats().getCapacity()).isEqualTo(16);
+            assertThat(reopened.stats().getRecords()).isEqualTo(0);
+            assertThat(reopened.find("m:a", now)).isNull();
+            reopened.close();
+        }
+    }
+
+    @Test
+    void restoreSessionManager() throws IOException {
+        //given
+        AtomicLong nanos = new AtomicLong(TimeUnit.SECONDS.toNanos(1));
+        SessionSnapshotFile snapshots = open(1024);
+        SessionManager before = manager(snapshots, nanos);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        before.createSession(member(1L, "userA", "회원A"), response);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setCookies(response.getCookies());
+        snapshots.close();
+
+        //when : 재시작 (메모리의 세션은 없음)
+        SessionSnapshotFile reopened = open(1024);
+        SessionManager after = manager(reopened, nanos);
+        Member restored = (Member) after.getSession(request);
+
+        //then
+        assertThat(restored.getLoginId()).isEqualTo("userA");
+        assertThat(after.sessionCount()).isEqualTo(1);
+        assertThat(reopened.stats().getRestoredCount()).isEqualTo(1);
+
+        //when : 로그아웃하면 파일에서도 지운다.
+        after.expire(request);
+
+        //then
+        assertThat(after.getSession(request)).isNull();
+        assertThat(reopened.stats().getRecords()).isEqualTo(0);
+    }
+
+    /**
+     * 저장된 세션 수에 따른 파일 열기 시간 : 세션을 미리 읽지 않으므로 세션 수와 상관없이 일정해야 한다.
+     */
+    @Tag("benchmark")
+    @Test
+    void openTime(TestReporter reporter) throws IOException {
+        SessionSnapshotFile snapshots = open(BENCH_SESSIONS * 2);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < BENCH_SESSIONS; i++) {
+            snapshots.put("m:" + i, now, now, member((long) i, "user" + i, "name" + i));
+        }
+        snapshots.close();
+
+        long start = System.nanoTime();
+        SessionSnapshotFile reopened = open(BENCH_SESSIONS * 2);
+        long opened = System.nanoTime() - start;
+        start = System.nanoTime();
+        int found = 0;
+        for (int i = 0; i < BENCH_SESSIONS; i += 100) {
+            if (reopened.find("m:" + i, now) != null) {
+                found++;
+            }
+        }
+        long lookups = System.nanoTime() - start;
+
+        assertThat(found).isEqualTo((BENCH_SESSIONS + 99) / 100);
+        reporter.publishEntry(String.format("sessions=%,d open=%,d us, find=%,d ns/op",
+                BENCH_SESSIONS, opened / 1000, lookups / found));
+    }
+
+    private SessionSnapshotFile open(int capacity) throws IOException {
+        SessionSnapshotFile snapshots = new SessionSnapshotFile(dir.resolve("sessions.dat"), capacity, IDLE, ABSOLUTE);
+        snapshots.open();
+        return snapshots;
+    }
+
+    private static SessionManager manager(SessionSnapshotFile snapshots, AtomicLong nanos) {
+        return new SessionManager(IDLE, ABSOLUTE, Duration.ofSeconds(1), new SessionStore(1000, 1 << 20),
+                new RandomIdGenerator(128), snapshots, nanos::get);
+    }
+
+    private static Member member(Long id, String loginId, String name) {
+        Member member = new Member();
+        member.setId(id);
+        member.setLoginId(loginId);
+        member.setName(name);
+        member.setPassword("password");
+        return member;
+    }
+}
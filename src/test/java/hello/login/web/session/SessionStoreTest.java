@@ -0,0 +1,111 @@
+package hello.login.web.session;
+
+import hello.login.domain.member.Member;
+import hello.login.web.id.RandomIdGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class SessionStoreTest {
+
+    @Test
+    void evictLeastRecentlyUsedByCount() {
+        //given : 조각마다 최대 1개 (16개 조각)
+        SessionManager sessionManager = manager(new SessionStore(16, Long.MAX_VALUE));
+        List<MockHttpServletRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            requests.add(login(sessionManager, member("user" + i)));
+        }
+
+        //when
+        SessionStore.Stats stats = sessionManager.storeStats();
+
+        //then : 최대값을 넘지 않고, 마지막에 만든 세션은 남아 있다.
+        assertThat(stats.getSessions()).isLessThanOrEqualTo(16);
+        assertThat(stats.getEvictionCount()).isEqualTo(1000 - stats.getSessions());
+        assertThat(sessionManager.getSession(requests.get(999))).isNotNull();
+        assertThat(sessionManager.getSession(requests.get(0))).isNull();
+    }
+
+    @Test
+    void evictLeastRecentlyUsedByBytes() {
+        //given
+        long sessionBytes = SessionStore.estimateBytes(new RandomIdGenerator(128).nextId(), member("user0"));
+        SessionStore store = new SessionStore(1_000_000, sessionBytes * 100);
+        SessionManager sessionManager = manager(store);
+
+        //when
+        for (int i = 0; i < 10_000; i++) {
+            login(sessionManager, member("user" + i));
+        }
+
+        //then : 조각마다 나눠 가지므로 전체 최대값보다 조금 작거나 같다.
+        SessionStore.Stats stats = store.stats();
+        assertThat(stats.getBytes()).isLessThanOrEqualTo(stats.getMaximumBytes());
+        assertThat(stats.getSessions()).isBetween(50L, 100L);
+        assertThat(stats.getAverageBytes()).isBetween(sessionBytes, sessionBytes + 20);
+        assertThat(stats.getEvictionCount()).isEqualTo(10_000 - stats.getSessions());
+    }
+
+    @Test
+    void recentlyUsedSessionSurvives() {
+        //given
+        SessionManager sessionManager = manager(new SessionStore(16 * 10, Long.MAX_VALUE));
+        MockHttpServletRequest active = login(sessionManager, member("active"));
+
+        //when : 계속 사용하는 세션은 새 세션이 많이 만들어져도 남는다.
+        for (int i = 0; i < 1000; i++) {
+            login(sessionManager, member("user" + i));
+            assertThat(sessionManager.getSession(active)).isNotNull();
+        }
+
+        //then
+        sessionManager.expire(active);
+        assertThat(sessionManager.getSession(active)).isNull();
+        assertThat(sessionManager.storeStats().getSessions()).isLessThanOrEqualTo(16 * 10);
+    }
+
+    @Test
+    void evictedSessionLeavesWheel() {
+        //given : 최대 160개
+        SessionManager sessionManager = manager(new SessionStore(16 * 10, Long.MAX_VALUE));
+
+        //when : 만료 전에 최대값의 100배 로그인 (tick 마다 만료 스레드 실행)
+        for (int i = 0; i < 100; i++) {
+            for (int j = 0; j < 160; j++) {
+                login(sessionManager, member("user" + i + "-" + j));
+            }
+            sessionManager.expireSessions();
+
+            //then : 휠에는 저장소에 남은 세션만 (LRU 로 지운 세션은 만료 시각까지 남지 않음)
+            assertThat(sessionManager.scheduledCount()).isLessThanOrEqualTo(16 * 10);
+        }
+        assertThat(sessionManager.storeStats().getEvictionCount()).isGreaterThanOrEqualTo(160L * 99);
+    }
+
+    private static SessionManager manager(SessionStore store) {
+        return new SessionManager(Duration.ofMinutes(30), Duration.ofHours(12), Duration.ofSeconds(1), store, new RandomIdGenerator(128), System::nanoTime);
+    }
+
+    private static MockHttpServletRequest login(SessionManager manager, Member member) {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        manager.createSession(member, response);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setCookies(response.getCookies());
+        return request;
+    }
+
+    private static Member member(String loginId) {
+        Member member = new Member();
+        member.setLoginId(loginId);
+        member.setName("name-" + loginId);
+        member.setPassword("password");
+        return member;
+    }
+}
@@ -0,0 +1,207 @@
+package hello.login.web.session;
+
+import hello.login.domain.member.Member;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.http.Cookie;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+class TokenLoginStrategyTest {
+
+    // 측정 규모 : ./gradlew benchmark -Dbench.ops=1000000
+    private static final int BENCH_OPS = Integer.getInteger("bench.ops", 200_000);
+    private static final Duration IDLE = Duration.ofMinutes(30);
+    private static final Duration ABSOLUTE = Duration.ofHours(12);
+
+    private final LoginTokenCodec.Key k1 = key("k1");
+    private final LoginTokenCodec.Key k2 = key("k2");
+
+    @Test
+    void issueAndVerify() {
+        //given
+        LoginTokenCodec plain = new LoginTokenCodec(List.of(k1), false);
+        LoginTokenCodec encrypted = new LoginTokenCodec(List.of(k1), true);
+        Member member = member(1L, "userA", "회원A");
+
+        //when
+        String plainToken = plain.issue(member, 100, 200);
+        String encryptedToken = encrypted.issue(member, 100, 200);
+
+        //then : 쿠키 값으로 사용할 수 있는 문자만, 암호화하면 이름을 읽을 수 없다.
+        LoginTokenCodec.Token token = plain.verify(plainToken);
+        assertThat(token.getMember().getId()).isEqualTo(1L);
+        assertThat(token.getMember().getName()).isEqualTo("회원A");
+        assertThat(token.getMember().getPassword()).isNull();
+        assertThat(token.getLoginAt()).isEqualTo(100);
+        assertThat(token.getExpiresAt()).isEqualTo(200);
+        assertThat(plainToken).matches("[A-Za-z0-9_.-]+");
+        assertThat(decodedPayload(plainToken)).contains("userA");
+        assertThat(decodedPayload(encryptedToken)).doesNotContain("userA");
+        assertThat(encrypted.verify(encryptedToken).getMember().getLoginId()).isEqualTo("userA");
+    }
+
+    @Test
+    void rejectTampered() {
+        //given
+        LoginTokenCodec codec = new LoginTokenCodec(List.of(k1), false);
+        String token = codec.issue(member(1L, "userA", "회원A"), 100, 200);
+        String[] parts = token.split("\\.");
+
+        //when : 회원 ID 를 바꾸고 서명은 그대로 ([format][로그인 시각 4][만료 시각 4][version][id])
+        byte[] payload = Base64.getUrlDecoder().decode(parts[1]);
+        payload[10] ^= 1;
+        String forged = parts[0] + '.' + Base64.getUrlEncoder().withoutPadding().encodeToString(payload) + '.' + parts[2];
+
+        //then
+        assertThat(codec.verify(forged)).isNull();
+        assertThat(codec.verify("k9." + parts[1] + '.' + parts[2])).isNull();
+        assertThat(codec.verify(token.substring(0, token.length() - 2))).isNull();
+        assertThat(codec.verify("garbage")).isNull();
+        assertThat(new LoginTokenCodec(List.of(new LoginTokenCodec.Key("k1", new byte[32])), false).verify(token)).isNull();
+    }
+
+    @Test
+    void rotateKeys() {
+        //given : k1 로 발급한 토큰
+        String old = new LoginTokenCodec(List.of(k1), false).issue(member(1L, "userA", "회원A"), 100, 200);
+
+        //when : 새 키 k2 를 앞에 추가
+        LoginTokenCodec rotated = new LoginTokenCodec(List.of(k2, k1), false);
+        String issued = rotated.issue(member(1L, "userA", "회원A"), 100, 200);
+
+        //then : 이전 토큰도 확인, 새 토큰은 k2 로 서명, k1 을 지우면 이전 토큰은 무효
+        assertThat(rotated.verify(old).getKeyId()).isEqualTo("k1");
+        assertThat(rotated.verify(issued).getKeyId()).isEqualTo("k2");
+        assertThat(new LoginTokenCodec(List.of(k2), false).verify(old)).isNull();
+    }
+
+    @Test
+    void loginAndExpire() {
+        //given
+        AtomicLong millis = new AtomicLong(1_700_000_000_000L);
+        TokenLoginStrategy strategy = new TokenLoginStrategy(new LoginTokenCodec(List.of(k1), false), IDLE, ABSOLUTE, false, millis::get);
+        MockHttpServletResponse loginResponse = new MockHttpServletResponse();
+        strategy.login(member(1L, "userA", "회원A"), new MockHttpServletRequest(), loginResponse);
+        Cookie cookie = loginResponse.getCookie(TokenLoginStrategy.TOKEN_COOKIE_NAME);
+
+        //when : 10분 후 (다시 발급하지 않음)
+        millis.addAndGet(TimeUnit.MINUTES.toMillis(10));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        //then
+        assertThat(strategy.getLoginMember(request(cookie), response).getLoginId()).isEqualTo("userA");
+        assertThat(response.getCookie(TokenLoginStrategy.TOKEN_COOKIE_NAME)).isNull();
+
+        //when : 20분 후 (남은 시간이 절반보다 적으므로 다시 발급)
+        millis.addAndGet(TimeUnit.MINUTES.toMillis(10));
+        response = new MockHttpServletResponse();
+        strategy.getLoginMember(request(cookie), response);
+        Cookie refreshed = response.getCookie(TokenLoginStrategy.TOKEN_COOKIE_NAME);
+
+        //then : 이전 토큰은 31분에 만료, 다시 발급한 토큰은 유지
+        assertThat(refreshed).isNotNull();
+        millis.addAndGet(TimeUnit.MINUTES.toMillis(11));
+        assertThat(strategy.getLoginMember(request(cookie), new MockHttpServletResponse())).isNull();
+        assertThat(strategy.getLoginMember(request(refreshed), new MockHttpServletResponse())).isNotNull();
+    }
+
+    @Test
+    void absoluteTimeout() {
+        //given : 계속 요청해서 토큰을 다시 발급받아도
+        AtomicLong millis = new AtomicLong(1_700_000_000_000L);
+        TokenLoginStrategy strategy = new TokenLoginStrategy(new LoginTokenCodec(List.of(k1), false), IDLE, ABSOLUTE, false, millis::get);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        strategy.login(member(1L, "userA", "회원A"), new MockHttpServletRequest(), response);
+        Cookie cookie = response.getCookie(TokenLoginStrategy.TOKEN_COOKIE_NAME);
+
+        //when : 20분마다 요청
+        int requests = 0;
+        while (true) {
+            millis.addAndGet(TimeUnit.MINUTES.toMillis(20));
+            response = new MockHttpServletResponse();
+            if (strategy.getLoginMember(request(cookie), response) == null) {
+                break;
+            }
+            requests++;
+            if (response.getCookie(TokenLoginStrategy.TOKEN_COOKIE_NAME) != null) {
+                cookie = response.getCookie(TokenLoginStrategy.TOKEN_COOKIE_NAME);
+            }
+        }
+
+        //then : 로그인 후 12시간(20분 * 36)이 지나면 만료
+        assertThat(requests).isEqualTo(35);
+
+        //when : 로그아웃
+        response = new MockHttpServletResponse();
+        strategy.logout(request(cookie), response);
+
+        //then : 쿠키 삭제
+        assertThat(response.getCookie(TokenLoginStrategy.TOKEN_COOKIE_NAME).getMaxAge()).isEqualTo(0);
+    }
+
+    /**
+     * 토큰 확인 시간 : 저장소 조회 없이 서명 확인(HMAC-SHA256)과 회원 디코딩만
+     */
+    @Tag("benchmark")
+    @Test
+    void verifyTime(TestReporter reporter) {
+        for (boolean encrypt : new boolean[]{false, true}) {
+            LoginTokenCodec codec = new LoginTokenCodec(List.of(k1), encrypt);
+            String token = codec.issue(member(1L, "userA", "회원A"), 100, 200);
+
+            // 워밍업 후 측정
+            long ids = verify(codec, token, BENCH_OPS / 10);
+            long start = System.nanoTime();
+            ids += verify(codec, token, BENCH_OPS);
+            long elapsed = System.nanoTime() - start;
+
+            assertThat(ids).isEqualTo(BENCH_OPS + BENCH_OPS / 10);
+            reporter.publishEntry(String.format("encrypt=%s length=%d verify=%,d ns/op", encrypt, token.length(), elapsed / BENCH_OPS));
+        }
+    }
+
+    private static long verify(LoginTokenCodec codec, String token, int ops) {
+        long ids = 0;
+        for (int i = 0; i < ops; i++) {
+            ids += codec.verify(token).getMember().getId();
+        }
+        return ids;
+    }
+
+    private static String decodedPayload(String token) {
+        return new String(Base64.getUrlDecoder().decode(token.split("\\.")[1]), StandardCharsets.UTF_8);
+    }
+
+    private static MockHttpServletRequest request(Cookie cookie) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setCookies(cookie);
+        return request;
+    }
+
+    private static LoginTokenCodec.Key key(String id) {
+        byte[] secret = new byte[32];
+        Arrays.fill(secret, (byte) id.hashCode());
+        return new LoginTokenCodec.Key(id, secret);
+    }
+
+    private static Member member(Long id, String loginId, String name) {
+        Member member = new Member();
+        member.setId(id);
+        member.setLoginId(loginId);
+        member.setName(name);
+        member.setPassword("password");
+        return member;
+    }
+}
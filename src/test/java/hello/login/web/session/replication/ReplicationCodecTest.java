@@ -0,0 +1,130 @@
+package hello.login.web.session.replication;
+
+import hello.login.domain.member.Member;
+import hello.login.web.session.replication.ReplicationCodec.Channel;
+import hello.login.web.session.replication.ReplicationCodec.Delta;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ReplicationCodecTest {
+
+    private static final byte[] SECRET = "replication-secret".getBytes(StandardCharsets.UTF_8);
+
+    private final ReplicationCodec codec = new ReplicationCodec(SECRET);
+    private final List<SessionReplicator> replicators = new ArrayList<>();
+
+    @AfterEach
+    void close() throws IOException {
+        for (SessionReplicator replicator : replicators) {
+            replicator.close();
+        }
+    }
+
+    @Test
+    void rejectReplayedFrame() throws IOException {
+        //given : 연결 1 에서 보낸 PUT 프레임을 가로챔
+        byte[] nonce = nonce((byte) 1);
+        ByteBuffer frame = ByteBuffer.allocate(ReplicationCodec.MAX_FRAME_BYTES);
+        long now = System.currentTimeMillis();
+        codec.encodeDeltas(new Channel(ReplicationCodec.DELTAS, nonce), List.of(Delta.put("m:a", now, now, member(), 1)), 0, now, frame);
+        byte[] captured = Arrays.copyOf(frame.array(), frame.limit());
+        Channel receiving = new Channel(ReplicationCodec.DELTAS, nonce);
+        codec.read(receiving, input(captured));
+
+        //when, then : 같은 연결에 다시 보내거나, 다른 연결에 보내면 서명이 맞지 않음
+        assertThatThrownBy(() -> codec.read(receiving, input(captured))).isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> codec.read(new Channel(ReplicationCodec.DELTAS, nonce((byte) 2)), input(captured)))
+                .isInstanceOf(IOException.class);
+        // 확인 응답 방향으로도 받지 않음
+        assertThatThrownBy(() -> codec.read(new Channel(ReplicationCodec.ACK, nonce), input(captured)))
+                .isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void resendUnacknowledgedAfterReconnect() throws Exception {
+        //given : 프레임을 읽고 확인 응답 없이 연결을 끊는 서버
+        ServerSocket fake = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        int port = fake.getLocalPort();
+        CompletableFuture<Long> dropped = CompletableFuture.supplyAsync(() -> {
+            try (ServerSocket server = fake; Socket socket = server.accept()) {
+                byte[] nonce = nonce((byte) 3);
+                ByteBuffer hello = ByteBuffer.allocate(64);
+                codec.encodeHello(nonce, hello);
+                OutputStream out = socket.getOutputStream();
+                out.write(hello.array(), 0, hello.limit());
+                out.flush();
+                DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+                return ReplicationCodec.decodeDeltas(codec.read(new Channel(ReplicationCodec.DELTAS, nonce), in), delta -> {
+                });
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        SessionReplicator a = replicator(0);
+        a.addPeer(new InetSocketAddress("localhost", port));
+
+        //when : 소켓에는 썼지만 받는 서버가 반영하지 못함
+        long now = System.currentTimeMillis();
+        a.put("m:a", now, now, member());
+        a.remove("m:a");
+        assertThat(dropped.get(10, TimeUnit.SECONDS)).isGreaterThan(0L);
+        assertThat(a.stats().getPeers().get(0).getUnacknowledged()).isGreaterThan(0);
+
+        //then : 같은 포트로 다시 시작한 서버에 다시 보낸다.
+        SessionReplicator b = replicator(port);
+        a.put("m:b", now, now, member());
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (a.stats().getPeers().get(0).getUnacknowledged() > 0 || b.find("m:b", now) == null) {
+            assertThat(System.nanoTime() - deadline).isNegative();
+            Thread.sleep(5);
+        }
+        assertThat(b.stats().getReceivedDeltas()).isEqualTo(3);
+        assertThat(b.find("m:a", now)).isNull();
+    }
+
+    private SessionReplicator replicator(int port) throws IOException {
+        SessionReplicator replicator = new SessionReplicator(port, InetAddress.getLoopbackAddress(), SECRET, SessionReplicator.Consistency.ASYNC,
+                Duration.ofSeconds(1), Duration.ofMillis(10), 1000, 1000, Duration.ofMinutes(30), Duration.ofHours(12), null);
+        replicator.start();
+        replicators.add(replicator);
+        return replicator;
+    }
+
+    private static byte[] nonce(byte value) {
+        byte[] nonce = new byte[ReplicationCodec.NONCE_BYTES];
+        Arrays.fill(nonce, value);
+        return nonce;
+    }
+
+    private static DataInputStream input(byte[] frame) {
+        return new DataInputStream(new ByteArrayInputStream(frame));
+    }
+
+    private static Member member() {
+        Member member = new Member();
+        member.setId(1L);
+        member.setLoginId("userA");
+        member.setName("회원A");
+        return member;
+    }
+}